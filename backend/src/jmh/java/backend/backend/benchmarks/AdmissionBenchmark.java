@@ -0,0 +1,61 @@
+package backend.backend.benchmarks;
+
+import backend.backend.admission.KeyedLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admission-control fast path: one map lookup and one compare-and-set per request. Rates are high enough that
+ * every take is admitted, which is the path every request pays for. {@code baseline} is the clock read alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    @Param({"10000"})
+    public int keys;
+
+    private KeyedLimiter<Long> limiter;
+    private Long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new KeyedLimiter<>(1e9, 1_000_000, 100_000);
+        ids = new Long[keys];
+        for (int i = 0; i < keys; i++) {
+            ids[i] = (long) i;
+            limiter.tryAcquire(ids[i], System.nanoTime());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    public long baseline() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(ids[0], System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long hotKeyContended() {
+        return limiter.tryAcquire(ids[0], System.nanoTime());
+    }
+
+    @Benchmark
+    public long spreadKeys(Cursor cursor) {
+        return limiter.tryAcquire(ids[cursor.next++ % ids.length], System.nanoTime());
+    }
+}
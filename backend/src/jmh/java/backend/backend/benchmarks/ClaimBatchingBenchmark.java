@@ -0,0 +1,89 @@
+package backend.backend.benchmarks;
+
+import backend.backend.BackendApplication;
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ClaimService#claim} from many threads at once, group-committed by the claim batcher versus one transaction
+ * per claim. Sample mode reports throughput alongside the latency percentiles (p99 included). The item has far more
+ * portions than a run can claim, so every call succeeds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ClaimBatchingBenchmark {
+
+    @Param({"true", "false"})
+    public boolean batching;
+
+    @Param({"4"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ClaimService service;
+    private Long[] itemIds;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("claims.batch.enabled=" + batching, "logging.level.root=WARN")
+                .run();
+        Organization organization = context.getBean(OrganizationRepository.class)
+                .save(new Organization("Benchmark Org", Organization.OrgType.CLUB));
+        Location location = context.getBean(LocationRepository.class)
+                .save(new Location(organization, "Benchmark Hall"));
+        User user = context.getBean(UserRepository.class)
+                .save(new User("claims-bench@creighton.edu", "Bench Mark", User.UserRole.STUDENT));
+        userId = user.getUserId();
+
+        Event event = new Event(organization, location, user, "Claim Rush", LocalDateTime.now().plusHours(1));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        for (int i = 0; i < items; i++) {
+            event.getEventItems().add(new EventItem(event, "Portions " + i, Integer.MAX_VALUE));
+        }
+        itemIds = context.getBean(EventRepository.class).save(event).getEventItems().stream()
+                .map(EventItem::getEventItemId)
+                .toArray(Long[]::new);
+        service = context.getBean(ClaimService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private int next;
+    }
+
+    @Benchmark
+    public ClaimCreatedResponse claim(Caller caller) {
+        Long itemId = itemIds[caller.next++ % itemIds.length];
+        return service.claim(new ClaimRequest(null, itemId, userId, 1));
+    }
+}
@@ -0,0 +1,46 @@
+package backend.backend.benchmarks;
+
+import backend.backend.entities.Event;
+import backend.backend.entities.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The derived getters the mapper calls for every event it renders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityHelperBenchmark {
+
+    @Param({"1", "10"})
+    public int items;
+
+    private Event event;
+    private Location location;
+
+    @Setup
+    public void setUp() {
+        event = Fixtures.event(42L, items);
+        location = event.getLocation();
+    }
+
+    @Benchmark
+    public String eventTime() {
+        return event.getTime();
+    }
+
+    @Benchmark
+    public Integer eventMeals() {
+        return event.getMeals();
+    }
+
+    @Benchmark
+    public String locationFullLocation() {
+        return location.getFullLocation();
+    }
+}
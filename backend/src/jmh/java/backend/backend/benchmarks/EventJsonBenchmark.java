@@ -0,0 +1,44 @@
+package backend.backend.benchmarks;
+
+import backend.backend.events.dto.EventResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a page of events the way the web layer does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventJsonBenchmark {
+
+    @Param({"50", "200"})
+    public int events;
+
+    private ObjectWriter writer;
+    private List<EventResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (JSR-310 module, ISO dates).
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, EventResponse.class));
+        page = Fixtures.responses(events);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
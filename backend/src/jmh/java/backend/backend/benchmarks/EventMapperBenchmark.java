@@ -0,0 +1,41 @@
+package backend.backend.benchmarks;
+
+import backend.backend.entities.Event;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+
+    private Event event;
+    private EventRow row;
+
+    @Setup
+    public void setUp() {
+        event = Fixtures.event(42L, 1);
+        row = new EventRow(
+                event.getId(), event.getTitle(), event.getDescription(), event.getStatus(),
+                event.getStartTime(), event.getEndTime(),
+                1L, "Creighton Dining", 2L, "Harper Center", "Harper Center", "405",
+                3L, "System Admin", 50L);
+    }
+
+    @Benchmark
+    public EventResponse fromEntity() {
+        return EventMapper.toResponse(event);
+    }
+
+    @Benchmark
+    public EventResponse fromRow() {
+        return EventMapper.toResponse(row);
+    }
+}
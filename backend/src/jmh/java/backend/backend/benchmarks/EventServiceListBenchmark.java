@@ -0,0 +1,100 @@
+package backend.backend.benchmarks;
+
+import backend.backend.BackendApplication;
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventPage;
+import backend.backend.events.search.EventSearchIndex;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventService#list} end to end against the embedded H2 database from the test resources.
+ * A zero TTL disables the read cache so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventServiceListBenchmark {
+
+    @Param({"1000"})
+    public int events;
+
+    @Param({"0s", "5m"})
+    public String cacheTtl;
+
+    private ConfigurableApplicationContext context;
+    private EventService service;
+    private String secondPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("events.cache.ttl=" + cacheTtl, "logging.level.root=WARN")
+                .run();
+        seed(context, events);
+        service = context.getBean(EventService.class);
+        secondPage = service.list(null, null, 50).nextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EventPage firstPage() {
+        return service.list(null, null, 50);
+    }
+
+    @Benchmark
+    public EventPage secondPage() {
+        return service.list(null, secondPage, 50);
+    }
+
+    @Benchmark
+    public EventPage search() {
+        return service.list("pizza", null, 50);
+    }
+
+    static void seed(ConfigurableApplicationContext context, int count) {
+        Organization organization = context.getBean(OrganizationRepository.class)
+                .save(new Organization("Benchmark Org", Organization.OrgType.CLUB));
+        Location location = context.getBean(LocationRepository.class)
+                .save(new Location(organization, "Benchmark Hall"));
+        User creator = context.getBean(UserRepository.class)
+                .save(new User("bench@creighton.edu", "Bench Mark", User.UserRole.STAFF));
+
+        List<Event> batch = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Event event = new Event(organization, location, creator,
+                    (i % 4 == 0 ? "Pizza Social " : "Study Break ") + i, start.plusMinutes(i));
+            event.setStatus(Event.EventStatus.ACTIVE);
+            event.getEventItems().add(new EventItem(event, "General Portions", 40));
+            batch.add(event);
+        }
+        context.getBean(EventRepository.class).saveAll(batch);
+        // Seeded rows bypass EventService, so pick them up the same way startup does.
+        context.getBean(EventSearchIndex.class).rebuild();
+    }
+}
@@ -0,0 +1,57 @@
+package backend.backend.benchmarks;
+
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entity graphs shaped like the ones the service maps, for benchmarks that do not need a database.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Event event(long id, int items) {
+        Organization organization = new Organization("Creighton Dining", Organization.OrgType.DINING);
+        organization.setOrgId(1L);
+
+        Location location = new Location(organization, "Harper Center");
+        location.setLocationId(2L);
+        location.setBuilding("Harper Center");
+        location.setRoom("405");
+
+        User creator = new User("admin@creighton.edu", "System Admin", User.UserRole.ADMIN);
+        creator.setUserId(3L);
+
+        Event event = new Event(organization, location, creator, "Pizza Night #" + id,
+                LocalDateTime.of(2026, 10, 20, 18, 30).plusMinutes(id));
+        event.setId(id);
+        event.setDescription("Leftover pizza from the club fair, first come first served.");
+        event.setEndTime(event.getStartTime().plusHours(2));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        for (int i = 0; i < items; i++) {
+            EventItem item = new EventItem(event, "Item " + i, 50);
+            item.setEventItemId(id * 100 + i);
+            item.setPortionsClaimed(i);
+            event.getEventItems().add(item);
+        }
+        return event;
+    }
+
+    static List<EventResponse> responses(int count) {
+        List<EventResponse> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(EventMapper.toResponse(event(i, 1)));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,69 @@
+package backend.backend.benchmarks;
+
+import backend.backend.BackendApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform versus virtual request threads under more concurrent clients than Tomcat has platform threads
+ * (200) or the pool has connections (10). Reports throughput and the latency distribution (p99 etc.) of
+ * {@code GET /api/events} with the read cache disabled, so every request checks out a connection.
+ * <p>
+ * Defaults to the embedded H2 database, where queries never block on I/O; pass
+ * {@code -jvmArgs -Dspring.datasource.url=...} (plus credentials and driver) through {@code jmh.args} to
+ * measure against MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listEvents;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "events.cache.ttl=0s",
+                        "logging.level.root=WARN")
+                .run();
+        EventServiceListBenchmark.seed(context, 1000);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listEvents = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events?limit=50")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listEvents() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(listEvents, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/events returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
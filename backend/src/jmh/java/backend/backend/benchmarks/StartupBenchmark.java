@@ -0,0 +1,136 @@
+package backend.backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching a fresh JVM to the first successful {@code GET /api/events}, for the plain extracted jar
+ * and for the same jar with the AOT-processed context and CDS archive. Needs the output of
+ * {@code ./mvnw -Paot-cds -DskipTests package} in {@code target/cds}; build that first, then run with
+ * {@code -Djmh.args="StartupBenchmark"}.
+ * <p>
+ * The application runs against an in-memory H2 database (taken from this benchmark's classpath), so the
+ * number covers JVM, Spring, Hibernate and Tomcat startup plus the first request, not database latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final long TIMEOUT_MILLIS = 120_000;
+
+    @Param({"jar", "aot-cds"})
+    public String mode;
+
+    @Param({"target/cds"})
+    public String cdsDir;
+
+    private List<String> command;
+    private HttpClient client;
+    private HttpRequest listEvents;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException {
+        Path dir = Paths.get(cdsDir);
+        Path jar;
+        try (Stream<Path> files = Files.list(dir)) {
+            jar = files.filter(p -> p.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + dir));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Build with ./mvnw -Paot-cds -DskipTests package first", ex);
+        }
+        Path archive = dir.resolve("application.jsa");
+        String h2 = Paths.get(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        int port = freePort();
+
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("aot-cds")) {
+            if (!Files.exists(archive)) {
+                throw new IllegalStateException("No CDS archive at " + archive);
+            }
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Dspring.aot.enabled=true");
+        }
+        // The jar must come first for the archive to apply; H2 is appended.
+        command.addAll(List.of("-cp", jar + File.pathSeparator + h2, "backend.backend.BackendApplication",
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN"));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listEvents = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public int startToFirstRequest() throws IOException, InterruptedException {
+        process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+            }
+            try {
+                HttpResponse<byte[]> response = client.send(listEvents, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    return response.body().length;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful GET /api/events within " + TIMEOUT_MILLIS + " ms");
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
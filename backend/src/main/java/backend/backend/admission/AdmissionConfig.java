@@ -0,0 +1,25 @@
+package backend.backend.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionControl admission;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionConfig(AdmissionControl admission, ObjectMapper objectMapper) {
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admission.isEnabled()) {
+            registry.addInterceptor(new AdmissionInterceptor(admission, objectMapper)).addPathPatterns("/api/**");
+        }
+    }
+}
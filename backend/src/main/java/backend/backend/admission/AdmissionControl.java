@@ -0,0 +1,116 @@
+package backend.backend.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket admission control in front of the database, per client, per claiming user and per event.
+ * <p>
+ * Clients are told apart by remote address, since there is no login yet. Every API request takes a token from its
+ * client's bucket. Requests on one event ({@code api/events/{id}}, or a claim for it) also take one from that event's
+ * bucket, so a refresh storm on a hot event is cut off before it crowds out everything else. Claims also take one
+ * from the claiming user's bucket. Rates and bursts live under {@code admission.*}; idle buckets are dropped every
+ * {@code admission.idle-sweep-interval}.
+ */
+@Component
+public class AdmissionControl {
+
+    private final boolean enabled;
+    private final KeyedLimiter<String> clients;
+    private final KeyedLimiter<Long> users;
+    private final KeyedLimiter<Long> events;
+    private final Counter clientRejections;
+    private final Counter userRejections;
+    private final Counter eventRejections;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admission-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AdmissionControl(MeterRegistry registry,
+                            @Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.client.rate:50}") double clientRate,
+                            @Value("${admission.client.burst:100}") int clientBurst,
+                            @Value("${admission.user.rate:2}") double userRate,
+                            @Value("${admission.user.burst:5}") int userBurst,
+                            @Value("${admission.event.rate:200}") double eventRate,
+                            @Value("${admission.event.burst:400}") int eventBurst,
+                            @Value("${admission.max-keys:100000}") int maxKeys,
+                            @Value("${admission.idle-sweep-interval:30s}") Duration sweepInterval) {
+        this.enabled = enabled;
+        this.clients = new KeyedLimiter<>(clientRate, clientBurst, maxKeys);
+        this.users = new KeyedLimiter<>(userRate, userBurst, maxKeys);
+        this.events = new KeyedLimiter<>(eventRate, eventBurst, maxKeys);
+        this.clientRejections = rejections(registry, "client", clients);
+        this.userRejections = rejections(registry, "user", users);
+        this.eventRejections = rejections(registry, "event", events);
+        sweeper.scheduleWithFixedDelay(this::evictIdle,
+                sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void admitClient(String address) {
+        if (enabled) {
+            admit(clients, address, clientRejections, "Too many requests");
+        }
+    }
+
+    public void admitUser(Long userId) {
+        if (enabled && userId != null) {
+            admit(users, userId, userRejections, "Too many claims, slow down");
+        }
+    }
+
+    public void admitEvent(Long eventId) {
+        if (enabled && eventId != null) {
+            admit(events, eventId, eventRejections, "This event is very busy right now");
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. Called by the sweeper; public so tests need not wait for it.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        clients.evictIdle(now);
+        users.evictIdle(now);
+        events.evictIdle(now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private static <K> void admit(KeyedLimiter<K> limiter, K key, Counter rejections, String message) {
+        long wait = limiter.tryAcquire(key, System.nanoTime());
+        if (wait > 0) {
+            rejections.increment();
+            throw new TooManyRequestsException(message, Duration.ofNanos(wait));
+        }
+    }
+
+    private static Counter rejections(MeterRegistry registry, String scope, KeyedLimiter<?> limiter) {
+        Gauge.builder("admission.keys", limiter, KeyedLimiter::size)
+                .tag("scope", scope)
+                .description("Token buckets currently tracked")
+                .register(registry);
+        return Counter.builder("admission.rejections")
+                .tag("scope", scope)
+                .description("Requests turned away with 429")
+                .register(registry);
+    }
+}
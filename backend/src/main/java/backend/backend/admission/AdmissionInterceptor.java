@@ -0,0 +1,73 @@
+package backend.backend.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Applies {@link AdmissionControl} before a handler runs and answers 429 with {@code Retry-After} itself, so a
+ * rejected request never reaches a controller or the database. Runs after handler mapping, which is what makes
+ * the event id of {@code api/events/{id}} routes available as a path variable. The body is the same
+ * {@code {"error": ...}} object the controllers' handlers return.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_PATTERN = "/api/events/{id}";
+
+    private final AdmissionControl admission;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionInterceptor(AdmissionControl admission, ObjectMapper objectMapper) {
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Async dispatches (the event stream) were admitted when the request first came in.
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        try {
+            admission.admitClient(request.getRemoteAddr());
+            Long eventId = eventId(request);
+            if (eventId != null) {
+                admission.admitEvent(eventId);
+            }
+            return true;
+        } catch (TooManyRequestsException ex) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", ex.getMessage()));
+            return false;
+        }
+    }
+
+    private static Long eventId(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null || !pattern.toString().startsWith(EVENT_PATTERN)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        try {
+            return variables == null ? null : Long.valueOf(variables.get("id"));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
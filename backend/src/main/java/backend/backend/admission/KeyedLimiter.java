@@ -0,0 +1,69 @@
+package backend.backend.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@link TokenBucket} per key, with bounded memory.
+ * <p>
+ * Buckets that have refilled completely carry no information, so {@link #evictIdle} simply drops them. Once
+ * {@code maxKeys} are tracked, new keys share a single overflow bucket until the next sweep makes room, so a flood
+ * of distinct keys is throttled as one client rather than growing the map. A take racing with the eviction of its
+ * bucket lands on the evicted copy and is forgotten; at most one token per key and sweep is lost that way.
+ */
+public final class KeyedLimiter<K> {
+
+    private final double rate;
+    private final int burst;
+    private final int maxKeys;
+    private final ConcurrentMap<K, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public KeyedLimiter(double rate, int burst, int maxKeys) {
+        this.rate = rate;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.overflow = new TokenBucket(rate, burst, System.nanoTime());
+    }
+
+    /**
+     * Takes a token for {@code key}, returning 0 on success or the nanoseconds until one will be available.
+     */
+    public long tryAcquire(K key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                overflowed.incrementAndGet();
+                return overflow.tryAcquire(nowNanos);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(rate, burst, nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    /**
+     * Drops every bucket that has refilled completely and returns how many were dropped.
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            if (entry.getValue().isFull(nowNanos) && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Takes that fell through to the overflow bucket because {@code maxKeys} were already tracked.
+     */
+    public long overflowed() {
+        return overflowed.get();
+    }
+}
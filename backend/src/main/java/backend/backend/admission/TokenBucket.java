@@ -0,0 +1,50 @@
+package backend.backend.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket refilled at {@code rate} tokens per second and holding at most {@code burst}.
+ * <p>
+ * Instead of a token count and a refill timestamp, the whole state is one {@code long}: the instant at which the
+ * bucket will be full again. Taking a token pushes that instant one refill interval further; the take is refused
+ * when it would land more than {@code burst} intervals in the future, and the overshoot is how long the caller
+ * must wait. A single compare-and-set therefore both refills and takes, with no lock and no allocation.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double rate, int burst, long nowNanos) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / rate));
+        this.toleranceNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token, returning 0 on success or the nanoseconds until one will be available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - nowNanos, 0) + intervalNanos;
+            if (next > toleranceNanos) {
+                return next - toleranceNanos;
+            }
+            if (fullAt.compareAndSet(current, nowNanos + next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, i.e. it is indistinguishable from a new one and can be dropped.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
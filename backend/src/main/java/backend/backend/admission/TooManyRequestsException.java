@@ -0,0 +1,27 @@
+package backend.backend.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when admission control turns a request away; {@link #retryAfter()} is when a retry will be admitted.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * {@link #retryAfter()} rounded up to whole seconds, as the {@code Retry-After} header wants it.
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,132 @@
+package backend.backend.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU read-through cache with a per-entry time-to-live.
+ * <p>
+ * Writers bracket their transaction with {@link #fence(Object)} / {@link #unfence(Object)} (or the
+ * {@code All} variants). While a key is fenced, reads of it go straight to the loader and nothing is cached,
+ * and unfencing bumps a generation counter so a load that started before the write can never store its
+ * (now stale) result afterwards.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // guarded by this
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, Integer> fencedKeys = new HashMap<>();
+    private int globalFences;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public BoundedCache(int maxEntries, Duration ttl) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it. Null results are returned but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() - System.nanoTime() > 0) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration && globalFences == 0 && !fencedKeys.containsKey(key)) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void fence(K key) {
+        fencedKeys.merge(key, 1, Integer::sum);
+        entries.remove(key);
+    }
+
+    public synchronized void unfence(K key) {
+        fencedKeys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        entries.remove(key);
+        generation++;
+        invalidations.increment();
+    }
+
+    public synchronized void fenceAll() {
+        globalFences++;
+        entries.clear();
+    }
+
+    public synchronized void unfenceAll() {
+        if (globalFences > 0) {
+            globalFences--;
+        }
+        entries.clear();
+        generation++;
+        invalidations.increment();
+    }
+
+    public void invalidate(K key) {
+        fence(key);
+        unfence(key);
+    }
+
+    public void invalidateAll() {
+        fenceAll();
+        unfenceAll();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(
+                hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                expirations.sum(),
+                invalidations.sum(),
+                entries.size(),
+                maxEntries);
+    }
+}
@@ -0,0 +1,19 @@
+package backend.backend.cache;
+
+/**
+ * Point-in-time counters for a {@link BoundedCache}. All counts are cumulative since startup.
+ */
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        long invalidations,
+        int size,
+        int maxEntries) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+}
@@ -0,0 +1,222 @@
+package backend.backend.claims;
+
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for claims: concurrent claims are gathered for up to {@code claims.batch.max-wait} (or until
+ * {@code claims.batch.max-size} are waiting) and run back to back in one transaction, so a burst pays for one
+ * commit per batch instead of one per claim.
+ * <p>
+ * Claims are spread over {@code claims.batch.lanes} single-threaded lanes by item, so every claim on an item runs
+ * on the same lane, one after another. That keeps the per-user limit check exact without locks. A claim that is
+ * turned down (sold out, limit reached, missing event) only fails its own caller. Any other failure rolls the batch
+ * back, and each of its claims is then retried in a transaction of its own, so every caller still gets its own
+ * result. An {@link Error} fails the claims of the batch it hit and the lane carries on in a fresh thread.
+ */
+@Component
+public class ClaimBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimBatcher.class);
+
+    private final boolean enabled;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxWaitNanos;
+    private final int maxSize;
+    private final Lane[] lanes;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private volatile boolean running = true;
+
+    private record Pending(Supplier<ClaimCreatedResponse> work, CompletableFuture<ClaimCreatedResponse> result) {
+    }
+
+    private record Outcome(ClaimCreatedResponse response, RuntimeException rejection) {
+    }
+
+    public ClaimBatcher(PlatformTransactionManager transactionManager,
+                        MeterRegistry registry,
+                        @Value("${claims.batch.enabled:true}") boolean enabled,
+                        @Value("${claims.batch.max-wait:2ms}") Duration maxWait,
+                        @Value("${claims.batch.max-size:64}") int maxSize,
+                        @Value("${claims.batch.lanes:4}") int lanes) {
+        this.enabled = enabled;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+        this.batchSizes = DistributionSummary.builder("claims.batch.size")
+                .description("Claims committed together in one transaction")
+                .register(registry);
+        this.fallbacks = Counter.builder("claims.batch.fallbacks")
+                .description("Batches rolled back and retried one claim per transaction")
+                .register(registry);
+        this.lanes = new Lane[enabled ? Math.max(1, lanes) : 0];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane("claim-batcher-" + i);
+        }
+    }
+
+    /**
+     * Whether claims go through the batcher; when off, every claim commits on its own.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code work} (which must only write inside the current transaction) on the lane for {@code itemId}.
+     */
+    public CompletableFuture<ClaimCreatedResponse> submit(Long itemId, Supplier<ClaimCreatedResponse> work) {
+        CompletableFuture<ClaimCreatedResponse> result = new CompletableFuture<>();
+        if (!enabled || !running) {
+            result.completeExceptionally(new IllegalStateException("Claim batcher is not accepting claims"));
+            return result;
+        }
+        lanes[Math.floorMod(itemId.hashCode(), lanes.length)].queue.add(new Pending(work, result));
+        return result;
+    }
+
+    /**
+     * Stops taking claims and lets each lane commit what is already queued.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(10));
+            // Anything that slipped in after the lane stopped would otherwise wait forever.
+            for (Pending pending; (pending = lane.queue.poll()) != null; ) {
+                pending.result().completeExceptionally(new IllegalStateException("Claim batcher is not accepting claims"));
+            }
+        }
+    }
+
+    private final class Lane implements Runnable {
+        private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+        private final String name;
+        private volatile Thread thread;
+
+        Lane(String name) {
+            this.name = name;
+            this.thread = start();
+        }
+
+        private Thread start() {
+            Thread started = new Thread(this, name);
+            started.setDaemon(true);
+            started.start();
+            return started;
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                List<Pending> batch = new ArrayList<>(maxSize);
+                try {
+                    Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + maxWaitNanos;
+                    while (batch.size() < maxSize) {
+                        long remaining = deadline - System.nanoTime();
+                        Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    commit(batch);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException ex) {
+                    log.error("Claim batch lane failed", ex);
+                    fail(batch, ex);
+                } catch (Error ex) {
+                    // This thread may be unusable now; answer its callers and hand the queue to a fresh one.
+                    log.error("Claim batch lane {} died, restarting it", name, ex);
+                    fail(batch, ex);
+                    thread = start();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private static void fail(List<Pending> batch, Throwable ex) {
+        for (Pending pending : batch) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> {
+                List<Outcome> results = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    results.add(attempt(pending.work()));
+                }
+                return results;
+            });
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(ex);
+                return;
+            }
+            fallbacks.increment();
+            log.warn("Claim batch of {} rolled back, retrying one by one", batch.size(), ex);
+            for (Pending pending : batch) {
+                try {
+                    pending.result().complete(transactionTemplate.execute(status -> pending.work().get()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        // Only hand out results once they are committed.
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.rejection() != null) {
+                batch.get(i).result().completeExceptionally(outcome.rejection());
+            } else {
+                batch.get(i).result().complete(outcome.response());
+            }
+        }
+    }
+
+    /**
+     * Runs one claim inside the batch transaction. Rejections are thrown before anything is written, so they can be
+     * reported without disturbing the rest of the batch.
+     */
+    private static Outcome attempt(Supplier<ClaimCreatedResponse> work) {
+        try {
+            return new Outcome(work.get(), null);
+        } catch (ClaimRejectedException | EntityNotFoundException | IllegalArgumentException ex) {
+            return new Outcome(null, ex);
+        }
+    }
+}
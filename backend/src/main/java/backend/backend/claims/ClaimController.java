@@ -0,0 +1,118 @@
+package backend.backend.claims;
+
+import backend.backend.admission.AdmissionControl;
+import backend.backend.admission.TooManyRequestsException;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.claims.dto.ClaimResponse;
+import backend.backend.claims.dto.RedemptionRequest;
+import backend.backend.claims.dto.RedemptionResponse;
+import backend.backend.claims.dto.WaitlistResponse;
+import backend.backend.claims.redemption.RedemptionService;
+import backend.backend.claims.waitlist.WaitlistService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/claims")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ClaimController {
+    private final ClaimService service;
+    private final RedemptionService redemptionService;
+    private final WaitlistService waitlistService;
+    private final AdmissionControl admission;
+
+    public ClaimController(ClaimService service,
+                           RedemptionService redemptionService,
+                           WaitlistService waitlistService,
+                           AdmissionControl admission) {
+        this.service = service;
+        this.redemptionService = redemptionService;
+        this.waitlistService = waitlistService;
+        this.admission = admission;
+    }
+
+    @GetMapping
+    public List<ClaimResponse> listForUser(@RequestParam Long userId) {
+        return service.listForUser(userId);
+    }
+
+    @GetMapping("/{id}")
+    public ClaimResponse get(@PathVariable Long id) {
+        return service.get(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ClaimCreatedResponse create(@RequestBody ClaimRequest req) {
+        admission.admitUser(req.userId());
+        // Claims that only name an item still count against its event.
+        admission.admitEvent(service.eventIdOf(req));
+        return service.claim(req);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ClaimResponse cancel(@PathVariable Long id) {
+        return service.cancel(id);
+    }
+
+    /**
+     * Pickup-table scan: 200 when the portions may be handed over, 409 if the code was already used or is no
+     * longer valid, 404 for a code that never existed.
+     */
+    @PostMapping("/redeem")
+    public RedemptionResponse redeem(@RequestBody RedemptionRequest req) {
+        return redemptionService.redeem(req.token());
+    }
+
+    /**
+     * Joins the line for a sold-out item; the entry turns into a claim when portions come back.
+     */
+    @PostMapping("/waitlist")
+    @ResponseStatus(HttpStatus.CREATED)
+    public WaitlistResponse joinWaitlist(@RequestBody ClaimRequest req) {
+        admission.admitUser(req.userId());
+        return waitlistService.join(req);
+    }
+
+    @GetMapping("/waitlist/{id}")
+    public WaitlistResponse getWaitlistEntry(@PathVariable Long id) {
+        return waitlistService.get(id);
+    }
+
+    @DeleteMapping("/waitlist/{id}")
+    public WaitlistResponse leaveWaitlist(@PathVariable Long id) {
+        return waitlistService.leave(id);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleValidation(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleNotFound(EntityNotFoundException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(ClaimRejectedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleRejected(ClaimRejectedException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooMany(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.retryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+}
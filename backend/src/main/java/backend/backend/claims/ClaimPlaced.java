@@ -0,0 +1,10 @@
+package backend.backend.claims;
+
+import backend.backend.claims.redemption.ClaimTicket;
+
+/**
+ * Published by {@link ClaimService} for every new claim so its token becomes redeemable. Listeners should react
+ * after commit.
+ */
+public record ClaimPlaced(ClaimTicket ticket) {
+}
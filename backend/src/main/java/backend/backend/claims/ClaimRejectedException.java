@@ -0,0 +1,11 @@
+package backend.backend.claims;
+
+/**
+ * A well-formed claim that cannot be granted right now (sold out, limit reached, event closed).
+ */
+public class ClaimRejectedException extends RuntimeException {
+
+    public ClaimRejectedException(String message) {
+        super(message);
+    }
+}
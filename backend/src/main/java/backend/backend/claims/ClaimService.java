@@ -0,0 +1,232 @@
+package backend.backend.claims;
+
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.claims.dto.ClaimResponse;
+import backend.backend.claims.redemption.ClaimTicket;
+import backend.backend.claims.redemption.ClaimTokens;
+import backend.backend.claims.redemption.RedemptionService;
+import backend.backend.claims.waitlist.WaitlistService;
+import backend.backend.entities.Claim;
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event;
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.User;
+import backend.backend.events.PortionsChanged;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventItemRepository;
+import backend.backend.repositories.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out portions of an {@link EventItem} without overselling.
+ * <p>
+ * Portions are taken with a single conditional {@code UPDATE} that only succeeds while enough remain, so the
+ * database row lock is the only serialization point between concurrent claimers. The per-user limit needs a
+ * read of the user's existing claims, so claims by the same user for the same item are additionally serialized
+ * on an in-process lock stripe held across the whole transaction.
+ * <p>
+ * When {@link ClaimBatcher} is enabled, claims are group-committed instead: every claim for an item runs on the same
+ * batcher lane, one after another, which serializes the limit check just as the lock stripe would.
+ */
+@Service
+public class ClaimService {
+
+    private static final int LOCK_STRIPES = 256;
+    private static final List<ClaimStatus> HELD_STATUSES = List.of(ClaimStatus.CLAIMED, ClaimStatus.REDEEMED);
+
+    private final ClaimRepository claimRepository;
+    private final EventItemRepository eventItemRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher publisher;
+    private final RedemptionService redemptionService;
+    private final ClaimBatcher batcher;
+    private final WaitlistService waitlist;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration awaitTimeout;
+    private final Lock[] userStripes = new Lock[LOCK_STRIPES];
+
+    public ClaimService(ClaimRepository claimRepository,
+                        EventItemRepository eventItemRepository,
+                        UserRepository userRepository,
+                        ApplicationEventPublisher publisher,
+                        RedemptionService redemptionService,
+                        ClaimBatcher batcher,
+                        WaitlistService waitlist,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${claims.batch.await-timeout:10s}") Duration awaitTimeout) {
+        this.claimRepository = claimRepository;
+        this.eventItemRepository = eventItemRepository;
+        this.userRepository = userRepository;
+        this.publisher = publisher;
+        this.redemptionService = redemptionService;
+        this.batcher = batcher;
+        this.waitlist = waitlist;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.awaitTimeout = awaitTimeout;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userStripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserves portions for a user, failing with {@link ClaimRejectedException} if they cannot be granted.
+     */
+    public ClaimCreatedResponse claim(ClaimRequest request) {
+        if (request.userId() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        if (request.eventId() == null && request.eventItemId() == null) {
+            throw new IllegalArgumentException("Event or event item is required");
+        }
+        int quantity = request.quantity() == null ? 1 : request.quantity();
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+
+        Long itemId = resolveItemId(request);
+        if (waitlist.isHeldForWaiters(itemId)) {
+            throw new ClaimRejectedException("Portions are going to the waitlist first");
+        }
+        if (batcher.isEnabled()) {
+            return await(batcher.submit(itemId, () -> reserve(itemId, request.eventId(), request.userId(), quantity)));
+        }
+        // The lock must outlive the commit, otherwise a second claim could read the limit before ours is visible.
+        Lock lock = userStripes[Math.floorMod(Objects.hash(itemId, request.userId()), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> reserve(itemId, request.eventId(), request.userId(), quantity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The event a claim request is for: the one it names, or else its item's. Null if the item does not exist, in
+     * which case {@link #claim} answers 404 anyway.
+     */
+    public Long eventIdOf(ClaimRequest request) {
+        if (request.eventId() != null || request.eventItemId() == null) {
+            return request.eventId();
+        }
+        return eventItemRepository.findEventIdById(request.eventItemId()).orElse(null);
+    }
+
+    /**
+     * Cancels an open claim and returns its portions to the item.
+     */
+    @Transactional
+    public ClaimResponse cancel(Long claimId) {
+        Claim claim = claimRepository.findById(claimId)
+                .orElseThrow(() -> new EntityNotFoundException("Claim %d not found".formatted(claimId)));
+        redemptionService.closeForCancel(claimId);
+        if (claimRepository.transition(claimId, ClaimStatus.CLAIMED, ClaimStatus.CANCELLED) == 0) {
+            throw new ClaimRejectedException("Only open claims can be cancelled");
+        }
+        if (claim.getEventItem() != null) {
+            eventItemRepository.releasePortions(claim.getEventItem().getEventItemId(), claim.getQuantity());
+            publisher.publishEvent(
+                    new PortionsChanged(claim.getEvent().getId(), claim.getEventItem().getEventItemId(), true));
+        }
+        // The transition cleared the persistence context, so this only updates the detached copy we return.
+        claim.cancel();
+        return ClaimResponse.fromEntity(claim);
+    }
+
+    @Transactional(readOnly = true)
+    public ClaimResponse get(Long claimId) {
+        return claimRepository.findById(claimId)
+                .map(ClaimResponse::fromEntity)
+                .map(redemptionService::overlay)
+                .orElseThrow(() -> new EntityNotFoundException("Claim %d not found".formatted(claimId)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ClaimResponse> listForUser(Long userId) {
+        return claimRepository.findByUserUserIdOrderByClaimedAtDesc(userId).stream()
+                .map(ClaimResponse::fromEntity)
+                .map(redemptionService::overlay)
+                .toList();
+    }
+
+    private ClaimCreatedResponse await(CompletableFuture<ClaimCreatedResponse> result) {
+        try {
+            return result.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // Rethrow what reserve threw so the controller maps it exactly as it would without batching.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Claim failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            // The claim may still commit later, so the caller has to look before trying again.
+            throw new IllegalStateException("Claim was not answered within %s; check your claims before retrying"
+                    .formatted(awaitTimeout));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the claim", ex);
+        }
+    }
+
+    private Long resolveItemId(ClaimRequest request) {
+        if (request.eventItemId() != null) {
+            return request.eventItemId();
+        }
+        return eventItemRepository.findFirstByEventIdOrderByEventItemIdAsc(request.eventId())
+                .map(EventItem::getEventItemId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Event %d has no claimable items".formatted(request.eventId())));
+    }
+
+    private ClaimCreatedResponse reserve(Long itemId, Long eventId, Long userId, int quantity) {
+        EventItem item = eventItemRepository.findWithEventById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Event item %d not found".formatted(itemId)));
+        Event event = item.getEvent();
+        if (eventId != null && !eventId.equals(event.getId())) {
+            throw new IllegalArgumentException("Event item does not belong to the provided event");
+        }
+        if (event.getStatus() != EventStatus.ACTIVE) {
+            throw new ClaimRejectedException("Event is not open for claims");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User %d not found".formatted(userId)));
+
+        int limit = item.getPerUserLimit() == null ? 0 : item.getPerUserLimit();
+        if (limit > 0) {
+            int held = claimRepository.sumQuantityByItemAndUser(itemId, userId, HELD_STATUSES);
+            if (held + quantity > limit) {
+                throw new ClaimRejectedException("Limit of %d portions per person reached".formatted(limit));
+            }
+        }
+
+        if (eventItemRepository.reservePortions(itemId, quantity) == 0) {
+            throw new ClaimRejectedException("Not enough portions remaining");
+        }
+        publisher.publishEvent(new PortionsChanged(event.getId(), itemId, false));
+
+        Claim claim = new Claim(event, user, quantity);
+        claim.setEventItem(item);
+        claim.setToken(ClaimTokens.next());
+        claimRepository.save(claim);
+        publisher.publishEvent(new ClaimPlaced(new ClaimTicket(claim.getClaimId(), claim.getToken(), event.getId(),
+                itemId, quantity, claim.getStatus(), null, event.getStatus())));
+        return ClaimCreatedResponse.fromEntity(claim);
+    }
+}
@@ -0,0 +1,10 @@
+package backend.backend.claims;
+
+import java.util.Set;
+
+/**
+ * Published once per persisted batch of redemptions, naming the events whose claims were redeemed. Listeners
+ * should react after commit.
+ */
+public record ClaimsRedeemed(Set<Long> eventIds) {
+}
@@ -0,0 +1,31 @@
+package backend.backend.claims.dto;
+
+import backend.backend.entities.Claim;
+
+import java.time.LocalDateTime;
+
+/**
+ * The answer to the claim itself, and the only response that carries its pickup {@code token}.
+ */
+public record ClaimCreatedResponse(
+        Long id,
+        Long eventId,
+        Long eventItemId,
+        Long userId,
+        Integer quantity,
+        String status,
+        LocalDateTime claimedAt,
+        String token) {
+
+    public static ClaimCreatedResponse fromEntity(Claim claim) {
+        return new ClaimCreatedResponse(
+                claim.getClaimId(),
+                claim.getEvent() != null ? claim.getEvent().getId() : null,
+                claim.getEventItem() != null ? claim.getEventItem().getEventItemId() : null,
+                claim.getUser() != null ? claim.getUser().getUserId() : null,
+                claim.getQuantity(),
+                claim.getStatus() != null ? claim.getStatus().name() : null,
+                claim.getClaimedAt(),
+                claim.getToken());
+    }
+}
@@ -0,0 +1,12 @@
+package backend.backend.claims.dto;
+
+/**
+ * @param eventItemId optional; defaults to the event's first item (the "General Portions" row)
+ * @param quantity    optional; defaults to one portion
+ */
+public record ClaimRequest(
+        Long eventId,
+        Long eventItemId,
+        Long userId,
+        Integer quantity) {
+}
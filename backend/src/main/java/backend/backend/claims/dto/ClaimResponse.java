@@ -0,0 +1,32 @@
+package backend.backend.claims.dto;
+
+import backend.backend.entities.Claim;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claim as anyone may look it up. The pickup token is left out; only its owner gets it, in
+ * {@link ClaimCreatedResponse}.
+ */
+public record ClaimResponse(
+        Long id,
+        Long eventId,
+        Long eventItemId,
+        Long userId,
+        Integer quantity,
+        String status,
+        LocalDateTime claimedAt,
+        LocalDateTime redeemedAt) {
+
+    public static ClaimResponse fromEntity(Claim claim) {
+        return new ClaimResponse(
+                claim.getClaimId(),
+                claim.getEvent() != null ? claim.getEvent().getId() : null,
+                claim.getEventItem() != null ? claim.getEventItem().getEventItemId() : null,
+                claim.getUser() != null ? claim.getUser().getUserId() : null,
+                claim.getQuantity(),
+                claim.getStatus() != null ? claim.getStatus().name() : null,
+                claim.getClaimedAt(),
+                claim.getRedeemedAt());
+    }
+}
@@ -0,0 +1,4 @@
+package backend.backend.claims.dto;
+
+public record RedemptionRequest(String token) {
+}
@@ -0,0 +1,11 @@
+package backend.backend.claims.dto;
+
+import java.time.LocalDateTime;
+
+public record RedemptionResponse(
+        Long claimId,
+        Long eventId,
+        Long eventItemId,
+        Integer quantity,
+        LocalDateTime redeemedAt) {
+}
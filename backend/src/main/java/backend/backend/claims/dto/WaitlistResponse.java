@@ -0,0 +1,34 @@
+package backend.backend.claims.dto;
+
+import backend.backend.entities.WaitlistEntry;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param position place in line counting from 1, or null once the entry is no longer waiting
+ * @param claimId  the claim the portions went to, once allocated
+ */
+public record WaitlistResponse(
+        Long id,
+        Long eventId,
+        Long eventItemId,
+        Long userId,
+        Integer quantity,
+        String status,
+        Integer position,
+        LocalDateTime joinedAt,
+        Long claimId) {
+
+    public static WaitlistResponse fromEntity(WaitlistEntry entry, Integer position) {
+        return new WaitlistResponse(
+                entry.getWaitlistId(),
+                entry.getEventId(),
+                entry.getEventItemId(),
+                entry.getUserId(),
+                entry.getQuantity(),
+                entry.getStatus() != null ? entry.getStatus().name() : null,
+                position,
+                entry.getJoinedAt(),
+                entry.getClaimId());
+    }
+}
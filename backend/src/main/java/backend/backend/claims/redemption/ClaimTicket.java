@@ -0,0 +1,13 @@
+package backend.backend.claims.redemption;
+
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event.EventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What redemption needs to know about a claim, read without loading the entity graph.
+ */
+public record ClaimTicket(Long claimId, String token, Long eventId, Long eventItemId, Integer quantity,
+                          ClaimStatus status, LocalDateTime redeemedAt, EventStatus eventStatus) {
+}
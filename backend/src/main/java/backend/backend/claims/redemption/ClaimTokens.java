@@ -0,0 +1,24 @@
+package backend.backend.claims.redemption;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Random, unguessable claim tokens: 128 bits, URL-safe Base64 without padding (22 characters).
+ */
+public final class ClaimTokens {
+
+    static final int LENGTH = 22;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private ClaimTokens() {
+    }
+
+    public static String next() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+}
@@ -0,0 +1,392 @@
+package backend.backend.claims.redemption;
+
+import backend.backend.claims.ClaimPlaced;
+import backend.backend.claims.ClaimRejectedException;
+import backend.backend.claims.ClaimsRedeemed;
+import backend.backend.claims.dto.ClaimResponse;
+import backend.backend.claims.dto.RedemptionResponse;
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventChange;
+import backend.backend.repositories.ClaimRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Redeems claims by their opaque token at pickup, answering from memory and persisting in the background.
+ * <p>
+ * Open claims of active events are indexed by token in a hash map, filled once the application is ready and then
+ * from every committed claim, so a scan is one lookup and one compare-and-set on the claim's state. A token that
+ * is not in the index (a claim made on another instance, say) is looked up in the database once and then cached.
+ * The compare-and-set is what rejects a second scan of the same code, whether or not the first has been written
+ * yet. Accepted redemptions queue up and are written every {@code claims.redemption.flush-interval}, or as soon as
+ * {@code claims.redemption.batch-size} are waiting, in one transaction per batch. Shutdown stops the flusher and
+ * writes whatever is still queued before the connection pool closes.
+ * <p>
+ * The guarantee against double redemption holds within one instance. Pickup for an event is expected to go
+ * through one instance; a redemption the database refuses is logged and counted as a conflict.
+ */
+@Service
+public class RedemptionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RedemptionService.class);
+
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final String MARK_REDEEMED = """
+            update claims set status = 'REDEEMED', redeemed_at = :redeemedAt
+            where claim_id = :claimId and status in ('CLAIMED', 'EXPIRED')""";
+    private static final String FIND_UNREDEEMED = """
+            select claim_id from claims where claim_id in (:claimIds) and status <> 'REDEEMED'""";
+
+    private final ClaimRepository claimRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+
+    private final Map<String, Redeemable> byToken = new ConcurrentHashMap<>();
+    private final Map<Long, Redeemable> byClaim = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Redeemable>> byEvent = new ConcurrentHashMap<>();
+    private final LinkedBlockingDeque<Redeemable> queue = new LinkedBlockingDeque<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redemption-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter redeemed;
+    private final Counter duplicates;
+    private final Counter rejected;
+    private final Counter unknown;
+    private final Counter conflicts;
+
+    private enum State {
+        OPEN, REDEEMED, CLOSED
+    }
+
+    private record Mark(State state, LocalDateTime redeemedAt) {
+        static final Mark OPEN = new Mark(State.OPEN, null);
+        static final Mark CLOSED = new Mark(State.CLOSED, null);
+    }
+
+    /**
+     * One claim as the pickup table sees it. State and redemption time change together in one compare-and-set.
+     */
+    private static final class Redeemable {
+        private final ClaimTicket ticket;
+        private final AtomicReference<Mark> mark;
+        private volatile boolean persisted = true;
+
+        Redeemable(ClaimTicket ticket) {
+            this.ticket = ticket;
+            Mark initial;
+            if (ticket.status() == ClaimStatus.REDEEMED) {
+                initial = new Mark(State.REDEEMED, ticket.redeemedAt());
+            } else if (ticket.status() == ClaimStatus.CLAIMED && ticket.eventStatus() == EventStatus.ACTIVE) {
+                initial = Mark.OPEN;
+            } else {
+                initial = Mark.CLOSED;
+            }
+            this.mark = new AtomicReference<>(initial);
+        }
+
+        boolean pending() {
+            return mark.get().state() == State.REDEEMED && !persisted;
+        }
+    }
+
+    public RedemptionService(ClaimRepository claimRepository,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher publisher,
+                             MeterRegistry registry,
+                             @Value("${claims.redemption.flush-interval:200ms}") Duration flushInterval,
+                             @Value("${claims.redemption.batch-size:500}") int batchSize) {
+        this.claimRepository = claimRepository;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.publisher = publisher;
+        this.batchSize = Math.max(1, batchSize);
+        this.redeemed = result(registry, "redeemed");
+        this.duplicates = result(registry, "duplicate");
+        this.rejected = result(registry, "rejected");
+        this.unknown = result(registry, "unknown");
+        this.conflicts = Counter.builder("claims.redemptions.conflicts")
+                .description("Accepted redemptions the database refused because the claim had been cancelled")
+                .register(registry);
+        Gauge.builder("claims.redemptions.pending", queue, LinkedBlockingDeque::size)
+                .description("Accepted redemptions not yet written to the database")
+                .register(registry);
+
+        scheduler.scheduleWithFixedDelay(this::flushSafely,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter result(MeterRegistry registry, String result) {
+        return Counter.builder("claims.redemptions").tag("result", result)
+                .description("Redemption attempts by outcome")
+                .register(registry);
+    }
+
+    /**
+     * Redeems the claim behind {@code token}, failing with {@link ClaimRejectedException} if it was already redeemed
+     * or is no longer valid.
+     */
+    public RedemptionResponse redeem(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token is required");
+        }
+        Redeemable entry = find(token.trim());
+        if (entry == null) {
+            unknown.increment();
+            throw new EntityNotFoundException("Unknown claim token");
+        }
+        Mark current = entry.mark.get();
+        if (current.state() == State.OPEN) {
+            Mark redemption = new Mark(State.REDEEMED, LocalDateTime.now());
+            if (entry.mark.compareAndSet(current, redemption)) {
+                entry.persisted = false;
+                queue.add(entry);
+                redeemed.increment();
+                if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+                    scheduler.execute(this::flushSafely);
+                }
+                return response(entry, redemption);
+            }
+            current = entry.mark.get();
+        }
+        if (current.state() == State.REDEEMED) {
+            duplicates.increment();
+            throw new ClaimRejectedException("Already redeemed at %s".formatted(current.redeemedAt()));
+        }
+        rejected.increment();
+        throw new ClaimRejectedException("Claim is no longer valid");
+    }
+
+    /**
+     * Stops a claim from being redeemed while the caller cancels it, failing if it has already been redeemed.
+     * Must run inside the cancelling transaction; if that rolls back, the claim is re-read on its next scan.
+     */
+    public void closeForCancel(Long claimId) {
+        Redeemable entry = byClaim.get(claimId);
+        if (entry == null) {
+            return;
+        }
+        if (!entry.mark.compareAndSet(Mark.OPEN, Mark.CLOSED) && entry.mark.get().state() == State.REDEEMED) {
+            throw new ClaimRejectedException("Claim has already been redeemed");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        evict(entry);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Shows a redemption that is accepted but not yet written, so claim reads agree with the pickup table. The
+     * read may also have started just before the writer committed it, so any accepted redemption counts.
+     */
+    public ClaimResponse overlay(ClaimResponse claim) {
+        Redeemable entry = byClaim.get(claim.id());
+        if (entry == null || entry.mark.get().state() != State.REDEEMED
+                || !ClaimStatus.CLAIMED.name().equals(claim.status())) {
+            return claim;
+        }
+        return new ClaimResponse(claim.id(), claim.eventId(), claim.eventItemId(), claim.userId(), claim.quantity(),
+                ClaimStatus.REDEEMED.name(), claim.claimedAt(), entry.mark.get().redeemedAt());
+    }
+
+    @TransactionalEventListener
+    public void onClaimPlaced(ClaimPlaced placed) {
+        if (placed.ticket().token() != null) {
+            index(new Redeemable(placed.ticket()));
+        }
+    }
+
+    /**
+     * Once an event stops being active its claims can no longer be redeemed; drop them unless a redemption is
+     * still waiting to be written.
+     */
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        if (change.snapshot() != null && EventStatus.ACTIVE.name().equals(change.snapshot().status())) {
+            return;
+        }
+        Set<Redeemable> entries = byEvent.get(change.eventId());
+        if (entries != null) {
+            for (Redeemable entry : List.copyOf(entries)) {
+                if (!entry.pending()) {
+                    evict(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the open and redeemed claims of every active event.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        List<ClaimTicket> tickets = readOnlyTransaction.execute(status -> claimRepository.findTickets(
+                EventStatus.ACTIVE, List.of(ClaimStatus.CLAIMED, ClaimStatus.REDEEMED)));
+        // Anything indexed meanwhile is at least as fresh as the load.
+        tickets.forEach(ticket -> index(new Redeemable(ticket)));
+        log.info("Redemption index loaded with {} claims", tickets.size());
+    }
+
+    /**
+     * Writes every queued redemption. Called by the writer thread; public so tests need not wait for it.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        while (!queue.isEmpty()) {
+            List<Redeemable> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException ex) {
+                // Put them back in order at the head; the next flush retries.
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    queue.addFirst(batch.get(i));
+                }
+                throw ex;
+            }
+            batch.forEach(entry -> entry.persisted = true);
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Runs after the web server has stopped taking requests and before the connection pool closes.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        for (int attempt = 1; attempt <= SHUTDOWN_ATTEMPTS && !queue.isEmpty(); attempt++) {
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.warn("Writing {} queued redemptions failed (attempt {} of {})",
+                        queue.size(), attempt, SHUTDOWN_ATTEMPTS, ex);
+                Thread.sleep(500L * attempt);
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.error("Lost {} redemptions on shutdown, claims {}", queue.size(),
+                    queue.stream().map(entry -> entry.ticket.claimId()).toList());
+        }
+    }
+
+    private void write(List<Redeemable> batch) {
+        List<Map<String, Object>> rows = new ArrayList<>(batch.size());
+        for (Redeemable entry : batch) {
+            rows.add(Map.of("claimId", entry.ticket.claimId(), "redeemedAt", entry.mark.get().redeemedAt()));
+        }
+        jdbcTemplate.batchUpdate(MARK_REDEEMED, rows.toArray(Map[]::new));
+
+        // Batched update counts are not reliable across drivers, so check which claims did not take.
+        Set<Long> ids = new HashSet<>();
+        Set<Long> eventIds = new HashSet<>();
+        for (Redeemable entry : batch) {
+            ids.add(entry.ticket.claimId());
+            eventIds.add(entry.ticket.eventId());
+        }
+        List<Long> refused = jdbcTemplate.queryForList(FIND_UNREDEEMED, Map.of("claimIds", ids), Long.class);
+        if (!refused.isEmpty()) {
+            conflicts.increment(refused.size());
+            log.warn("Redemptions of claims {} were refused; they were cancelled before being written", refused);
+        }
+        publisher.publishEvent(new ClaimsRedeemed(eventIds));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Writing redemptions failed; {} stay queued", queue.size(), ex);
+        }
+    }
+
+    private Redeemable find(String token) {
+        Redeemable entry = byToken.get(token);
+        if (entry != null || token.length() > MAX_TOKEN_LENGTH) {
+            return entry;
+        }
+        ClaimTicket ticket = readOnlyTransaction.execute(status -> claimRepository.findTicketByToken(token).orElse(null));
+        return ticket == null ? null : index(new Redeemable(ticket));
+    }
+
+    /**
+     * Adds the entry unless its token is already indexed, returning whichever is in the index.
+     */
+    private Redeemable index(Redeemable entry) {
+        Redeemable existing = byToken.putIfAbsent(entry.ticket.token(), entry);
+        if (existing != null) {
+            return existing;
+        }
+        byClaim.put(entry.ticket.claimId(), entry);
+        byEvent.computeIfAbsent(entry.ticket.eventId(), id -> ConcurrentHashMap.newKeySet()).add(entry);
+        return entry;
+    }
+
+    private void evict(Redeemable entry) {
+        byToken.remove(entry.ticket.token(), entry);
+        byClaim.remove(entry.ticket.claimId(), entry);
+        byEvent.computeIfPresent(entry.ticket.eventId(), (id, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static RedemptionResponse response(Redeemable entry, Mark redemption) {
+        ClaimTicket ticket = entry.ticket;
+        return new RedemptionResponse(ticket.claimId(), ticket.eventId(), ticket.eventItemId(), ticket.quantity(),
+                redemption.redeemedAt());
+    }
+}
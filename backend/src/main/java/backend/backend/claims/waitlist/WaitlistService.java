@@ -0,0 +1,533 @@
+package backend.backend.claims.waitlist;
+
+import backend.backend.claims.ClaimPlaced;
+import backend.backend.claims.ClaimRejectedException;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.claims.dto.WaitlistResponse;
+import backend.backend.claims.redemption.ClaimTicket;
+import backend.backend.claims.redemption.ClaimTokens;
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event;
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.WaitlistEntry;
+import backend.backend.entities.WaitlistEntry.WaitlistStatus;
+import backend.backend.events.EventChange;
+import backend.backend.events.PortionsChanged;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventItemRepository;
+import backend.backend.repositories.UserRepository;
+import backend.backend.repositories.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * First-come-first-served waitlist per {@link EventItem}, handing out portions as they come back.
+ * <p>
+ * The {@code waitlist_entries} table is the durable queue; each item's waiting entries are also held in memory,
+ * ordered by entry id, and reloaded from the table once the application is ready. Committed portion changes
+ * (a cancelled claim, a larger item) mark the item dirty. Every {@code waitlist.allocate-interval} the allocator
+ * walks each dirty line in order and, in one transaction per {@code waitlist.batch-size} waiters, reserves
+ * portions with the same conditional update as a claim and turns each waiter into a claim. Nothing rescans the
+ * claims table: the item row says how much is left and the line says who is next. A waiter who wants more than is
+ * left keeps their place and is served first once enough comes back; until then the portions go to the next waiters
+ * whose requests fit, so one large request cannot hold up the whole line. Direct claims on an item are refused
+ * until a pass has offered its returned portions to everyone waiting; what that pass leaves is less than any waiter
+ * wants, so it may be claimed directly.
+ * <p>
+ * When an event stops being active its waiting entries are closed.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final List<ClaimStatus> HELD_STATUSES = List.of(ClaimStatus.CLAIMED, ClaimStatus.REDEEMED);
+    private static final String MARK_ALLOCATED = """
+            update waitlist_entries set status = 'ALLOCATED' where waitlist_id in (:ids) and status = 'WAITING'""";
+    private static final String FIND_UNLINKED = """
+            select waitlist_id from waitlist_entries
+            where waitlist_id in (:ids) and status = 'ALLOCATED' and claim_id is null""";
+    private static final String INSERT_CLAIM = """
+            insert into claims (event_id, event_item_id, user_id, quantity, status, claimed_at, token)
+            values (:eventId, :itemId, :userId, :quantity, 'CLAIMED', :claimedAt, :token)""";
+    private static final String LINK_CLAIM = """
+            update waitlist_entries set claim_id = :claimId where waitlist_id = :id""";
+
+    private final WaitlistRepository waitlistRepository;
+    private final EventItemRepository eventItemRepository;
+    private final ClaimRepository claimRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher publisher;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Map<Long, Line> lines = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> closing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter allocated;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-allocator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Waiter(Long entryId, Long userId, int quantity) {
+    }
+
+    /**
+     * @param exhausted nothing is left to offer, or the pass has to start over
+     */
+    private record Round(List<Long> settled, int allocated, boolean exhausted) {
+    }
+
+    /**
+     * The waiting entries of one item, by entry id. Guarded by itself.
+     */
+    private final class Line {
+        private final Long eventId;
+        private final TreeMap<Long, Waiter> waiters = new TreeMap<>();
+        private final Set<Long> users = new HashSet<>();
+        // Whether the last pass offered what was left to every waiter. Only the allocator writes it.
+        private volatile boolean offered;
+
+        Line(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        synchronized boolean reserveUser(Long userId) {
+            return users.add(userId);
+        }
+
+        synchronized void releaseUser(Long userId) {
+            users.remove(userId);
+        }
+
+        synchronized void add(Waiter waiter) {
+            users.add(waiter.userId());
+            if (waiters.put(waiter.entryId(), waiter) == null) {
+                waiting.incrementAndGet();
+            }
+        }
+
+        synchronized void remove(Long entryId) {
+            Waiter removed = waiters.remove(entryId);
+            if (removed != null) {
+                users.remove(removed.userId());
+                waiting.decrementAndGet();
+            }
+        }
+
+        /**
+         * Up to {@code count} waiters in line order, starting after entry {@code after} (from the front if null).
+         */
+        synchronized List<Waiter> next(Long after, int count) {
+            Map<Long, Waiter> rest = after == null ? waiters : waiters.tailMap(after, false);
+            List<Waiter> next = new ArrayList<>(Math.min(count, rest.size()));
+            for (Iterator<Waiter> it = rest.values().iterator(); it.hasNext() && next.size() < count; ) {
+                next.add(it.next());
+            }
+            return next;
+        }
+
+        // Counted on request, so it costs one step per waiter ahead; only the entry's own GET asks for it.
+        synchronized Integer position(Long entryId) {
+            return waiters.containsKey(entryId) ? waiters.headMap(entryId).size() + 1 : null;
+        }
+
+        synchronized boolean isEmpty() {
+            return waiters.isEmpty();
+        }
+
+        synchronized void clear() {
+            waiting.addAndGet(-waiters.size());
+            waiters.clear();
+            users.clear();
+        }
+    }
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           EventItemRepository eventItemRepository,
+                           ClaimRepository claimRepository,
+                           UserRepository userRepository,
+                           ApplicationEventPublisher publisher,
+                           DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry registry,
+                           @Value("${waitlist.allocate-interval:100ms}") Duration allocateInterval,
+                           @Value("${waitlist.batch-size:100}") int batchSize) {
+        this.waitlistRepository = waitlistRepository;
+        this.eventItemRepository = eventItemRepository;
+        this.claimRepository = claimRepository;
+        this.userRepository = userRepository;
+        this.publisher = publisher;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.allocated = Counter.builder("waitlist.allocations")
+                .description("Waitlist entries turned into claims")
+                .register(registry);
+        Gauge.builder("waitlist.waiting", waiting, AtomicInteger::get)
+                .description("Entries waiting for portions")
+                .register(registry);
+        scheduler.scheduleWithFixedDelay(this::allocateSafely,
+                allocateInterval.toMillis(), allocateInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether anyone is waiting for the item, in which case returned portions belong to them.
+     */
+    public boolean hasWaiters(Long itemId) {
+        Line line = lines.get(itemId);
+        return line != null && !line.isEmpty();
+    }
+
+    /**
+     * Whether a direct claim on the item has to give way to the line: someone is waiting and the portions freed last
+     * have not yet been offered to them.
+     */
+    public boolean isHeldForWaiters(Long itemId) {
+        Line line = lines.get(itemId);
+        return line != null && !line.isEmpty() && (!line.offered || dirty.contains(itemId));
+    }
+
+    /**
+     * Puts a user at the back of the line for a sold-out item. Portions are allocated by the next allocator pass.
+     */
+    public WaitlistResponse join(ClaimRequest request) {
+        if (request.userId() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        if (request.eventId() == null && request.eventItemId() == null) {
+            throw new IllegalArgumentException("Event or event item is required");
+        }
+        int quantity = request.quantity() == null ? 1 : request.quantity();
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+
+        WaitlistEntry entry = transactionTemplate.execute(status -> {
+            EventItem item = resolveItem(request);
+            Event event = item.getEvent();
+            if (request.eventId() != null && !request.eventId().equals(event.getId())) {
+                throw new IllegalArgumentException("Event item does not belong to the provided event");
+            }
+            if (event.getStatus() != EventStatus.ACTIVE) {
+                throw new ClaimRejectedException("Event is not open for claims");
+            }
+            if (!userRepository.existsById(request.userId())) {
+                throw new EntityNotFoundException("User %d not found".formatted(request.userId()));
+            }
+            int limit = item.getPerUserLimit() == null ? 0 : item.getPerUserLimit();
+            if (limit > 0 && quantity > limit) {
+                throw new ClaimRejectedException("Limit of %d portions per person reached".formatted(limit));
+            }
+            // A waiter the item could never satisfy would hold up everyone behind them.
+            if (quantity > item.getPortionsAvailable()) {
+                throw new ClaimRejectedException("Only %d portions are offered".formatted(item.getPortionsAvailable()));
+            }
+            // Returned portions waiting for the allocator belong to the line, so joining it is still right then.
+            if (item.getPortionsAvailable() > item.getPortionsClaimed() && !hasWaiters(item.getEventItemId())) {
+                throw new ClaimRejectedException("Portions are still available; claim them instead");
+            }
+            return new WaitlistEntry(event.getId(), item.getEventItemId(), request.userId(), quantity);
+        });
+
+        Line line = lines.computeIfAbsent(entry.getEventItemId(), id -> new Line(entry.getEventId()));
+        if (!line.reserveUser(entry.getUserId())) {
+            throw new ClaimRejectedException("Already on the waitlist for this item");
+        }
+        try {
+            waitlistRepository.save(entry);
+        } catch (RuntimeException ex) {
+            line.releaseUser(entry.getUserId());
+            throw ex;
+        }
+        line.add(new Waiter(entry.getWaitlistId(), entry.getUserId(), entry.getQuantity()));
+        dirty.add(entry.getEventItemId());
+        return WaitlistResponse.fromEntity(entry, line.position(entry.getWaitlistId()));
+    }
+
+    public WaitlistResponse get(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Waitlist entry %d not found".formatted(entryId)));
+        Line line = lines.get(entry.getEventItemId());
+        Integer position = entry.getStatus() == WaitlistStatus.WAITING && line != null ? line.position(entryId) : null;
+        return WaitlistResponse.fromEntity(entry, position);
+    }
+
+    /**
+     * Takes a waiting entry out of line.
+     */
+    public WaitlistResponse leave(Long entryId) {
+        WaitlistEntry entry = transactionTemplate.execute(status -> {
+            WaitlistEntry found = waitlistRepository.findById(entryId)
+                    .orElseThrow(() -> new EntityNotFoundException("Waitlist entry %d not found".formatted(entryId)));
+            if (waitlistRepository.transition(entryId, WaitlistStatus.WAITING, WaitlistStatus.LEFT) == 0) {
+                throw new ClaimRejectedException("Only waiting entries can leave the waitlist");
+            }
+            found.setStatus(WaitlistStatus.LEFT);
+            return found;
+        });
+        Line line = lines.get(entry.getEventItemId());
+        if (line != null) {
+            line.remove(entryId);
+        }
+        return WaitlistResponse.fromEntity(entry, null);
+    }
+
+    @TransactionalEventListener
+    public void onPortionsChanged(PortionsChanged change) {
+        // Taking portions frees nothing for the line.
+        if (change.returned() && hasWaiters(change.eventItemId())) {
+            dirty.add(change.eventItemId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        boolean active = change.snapshot() != null && EventStatus.ACTIVE.name().equals(change.snapshot().status());
+        if (!active) {
+            closing.add(change.eventId());
+            return;
+        }
+        // An edit may have added portions.
+        lines.forEach((itemId, line) -> {
+            if (change.eventId().equals(line.eventId)) {
+                dirty.add(itemId);
+            }
+        });
+    }
+
+    /**
+     * Loads every waiting entry into memory and gives each line a first allocation pass.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        List<WaitlistEntry> entries = waitlistRepository.findByStatusOrderByWaitlistIdAsc(WaitlistStatus.WAITING);
+        for (WaitlistEntry entry : entries) {
+            lines.computeIfAbsent(entry.getEventItemId(), id -> new Line(entry.getEventId()))
+                    .add(new Waiter(entry.getWaitlistId(), entry.getUserId(), entry.getQuantity()));
+        }
+        // Portions may have come back while the application was down.
+        dirty.addAll(lines.keySet());
+        log.info("Waitlist loaded {} waiting entries for {} items", entries.size(), lines.size());
+    }
+
+    /**
+     * Closes the lines of events that stopped being active and allocates to every dirty line. Called by the
+     * allocator; public so tests need not wait for it.
+     */
+    public synchronized void allocate() {
+        for (Iterator<Long> it = closing.iterator(); it.hasNext(); ) {
+            Long eventId = it.next();
+            it.remove();
+            close(eventId);
+        }
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long itemId = it.next();
+            it.remove();
+            Line line = lines.get(itemId);
+            if (line != null) {
+                allocate(itemId, line);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void allocateSafely() {
+        try {
+            allocate();
+        } catch (RuntimeException ex) {
+            log.warn("Waitlist allocation failed", ex);
+        }
+    }
+
+    private void close(Long eventId) {
+        int closed = transactionTemplate.execute(status -> waitlistRepository.closeForEvent(eventId));
+        lines.values().removeIf(line -> {
+            if (!eventId.equals(line.eventId)) {
+                return false;
+            }
+            line.clear();
+            return true;
+        });
+        if (closed > 0) {
+            log.info("Closed {} waitlist entries of event {}", closed, eventId);
+        }
+    }
+
+    private void allocate(Long itemId, Line line) {
+        line.offered = false;
+        Long after = null;
+        while (true) {
+            List<Waiter> batch = line.next(after, batchSize);
+            if (batch.isEmpty()) {
+                line.offered = true;
+                return;
+            }
+            Round round = transactionTemplate.execute(status -> allocateRound(itemId, batch));
+            round.settled().forEach(line::remove);
+            allocated.increment(round.allocated());
+            if (round.exhausted()) {
+                // With nothing left there is nothing to hold back from direct claims either.
+                line.offered = !dirty.contains(itemId);
+                return;
+            }
+            after = batch.get(batch.size() - 1).entryId();
+        }
+    }
+
+    /**
+     * Turns waiters into claims, in line order, passing over those who want more than is left, until the portions
+     * run out or the batch is done. Whatever the round size, it costs one conditional update for the portions, one
+     * for the entries and one JDBC batch each to insert the claims and link them back.
+     */
+    private Round allocateRound(Long itemId, List<Waiter> head) {
+        EventItem item = eventItemRepository.findWithEventById(itemId).orElse(null);
+        if (item == null || item.getEvent().getStatus() != EventStatus.ACTIVE) {
+            // The event listener closes these lines.
+            return new Round(List.of(), 0, true);
+        }
+        Event event = item.getEvent();
+        int limit = item.getPerUserLimit() == null ? 0 : item.getPerUserLimit();
+        int remaining = item.getPortionsAvailable() - item.getPortionsClaimed();
+
+        List<Long> settled = new ArrayList<>(head.size());
+        List<Waiter> served = new ArrayList<>(head.size());
+        int portions = 0;
+        boolean exhausted = false;
+        for (Waiter waiter : head) {
+            if (waiter.quantity() > item.getPortionsAvailable()) {
+                // The item was made smaller than this request since they joined; it can never be served.
+                waitlistRepository.transition(waiter.entryId(), WaitlistStatus.WAITING, WaitlistStatus.CLOSED);
+                settled.add(waiter.entryId());
+                continue;
+            }
+            if (limit > 0 && claimRepository.sumQuantityByItemAndUser(itemId, waiter.userId(), HELD_STATUSES)
+                    + waiter.quantity() > limit) {
+                // They got portions some other way in the meantime.
+                waitlistRepository.transition(waiter.entryId(), WaitlistStatus.WAITING, WaitlistStatus.CLOSED);
+                settled.add(waiter.entryId());
+                continue;
+            }
+            if (portions >= remaining) {
+                exhausted = true;
+                break;
+            }
+            if (portions + waiter.quantity() > remaining) {
+                // They keep their place; a later, smaller request may still fit.
+                continue;
+            }
+            portions += waiter.quantity();
+            served.add(waiter);
+        }
+        if (served.isEmpty()) {
+            return new Round(settled, 0, exhausted);
+        }
+        if (eventItemRepository.reservePortions(itemId, portions) == 0) {
+            // A claim already in flight took some; try again on the next pass.
+            dirty.add(itemId);
+            return new Round(settled, 0, true);
+        }
+
+        List<Long> ids = served.stream().map(Waiter::entryId).toList();
+        settled.addAll(ids);
+        if (jdbcTemplate.update(MARK_ALLOCATED, Map.of("ids", ids)) < ids.size()) {
+            // Some left the line while we were allocating; their portions go back for the next pass.
+            Set<Long> won = new HashSet<>(jdbcTemplate.queryForList(FIND_UNLINKED, Map.of("ids", ids), Long.class));
+            int returned = served.stream().filter(waiter -> !won.contains(waiter.entryId()))
+                    .mapToInt(Waiter::quantity).sum();
+            eventItemRepository.releasePortions(itemId, returned);
+            served = served.stream().filter(waiter -> won.contains(waiter.entryId())).toList();
+            dirty.add(itemId);
+            if (served.isEmpty()) {
+                return new Round(settled, 0, false);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> tokens = new ArrayList<>(served.size());
+        MapSqlParameterSource[] claimRows = new MapSqlParameterSource[served.size()];
+        for (int i = 0; i < claimRows.length; i++) {
+            Waiter waiter = served.get(i);
+            tokens.add(ClaimTokens.next());
+            claimRows[i] = new MapSqlParameterSource()
+                    .addValue("eventId", event.getId())
+                    .addValue("itemId", itemId)
+                    .addValue("userId", waiter.userId())
+                    .addValue("quantity", waiter.quantity())
+                    .addValue("claimedAt", now)
+                    .addValue("token", tokens.get(i));
+        }
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_CLAIM, claimRows, keys, new String[]{"claim_id"});
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != claimRows.length) {
+            throw new IllegalStateException("Expected %d generated claim ids but the driver returned %d"
+                    .formatted(claimRows.length, generated.size()));
+        }
+
+        MapSqlParameterSource[] links = new MapSqlParameterSource[served.size()];
+        for (int i = 0; i < links.length; i++) {
+            Waiter waiter = served.get(i);
+            long claimId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            links[i] = new MapSqlParameterSource().addValue("claimId", claimId).addValue("id", waiter.entryId());
+            publisher.publishEvent(new ClaimPlaced(new ClaimTicket(claimId, tokens.get(i), event.getId(), itemId,
+                    waiter.quantity(), ClaimStatus.CLAIMED, null, event.getStatus())));
+        }
+        jdbcTemplate.batchUpdate(LINK_CLAIM, links);
+        publisher.publishEvent(new PortionsChanged(event.getId(), itemId, false));
+        return new Round(settled, served.size(), exhausted);
+    }
+
+    private EventItem resolveItem(ClaimRequest request) {
+        if (request.eventItemId() != null) {
+            return eventItemRepository.findWithEventById(request.eventItemId())
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Event item %d not found".formatted(request.eventItemId())));
+        }
+        return eventItemRepository.findFirstByEventIdOrderByEventItemIdAsc(request.eventId())
+                .flatMap(item -> eventItemRepository.findWithEventById(item.getEventItemId()))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Event %d has no claimable items".formatted(request.eventId())));
+    }
+}
@@ -5,21 +5,30 @@ import backend.backend.repositories.*;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Configuration
 public class DataInitializer {
     
     @Bean
+    @Profile("!synthetic")
     CommandLineRunner initDatabase(
             UserRepository userRepository,
             OrganizationRepository organizationRepository,
             LocationRepository locationRepository,
-            EventRepository eventRepository) {
-        return args -> {
-            // Only initialize if database is empty
-            if (eventRepository.count() > 0) {
+            EventRepository eventRepository,
+            PlatformTransactionManager transactionManager) {
+        // One transaction for the whole seed, so startup pays for a single commit rather than one per save.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return args -> transaction.executeWithoutResult(status -> {
+            // Only initialize if database is empty; an existence probe stops at the first row, count() does not.
+            if (eventRepository.existsByIdNotNull()) {
                 return;
             }
             
@@ -41,14 +50,20 @@ public class DataInitializer {
             // Create locations
             Location skutt = new Location(diningOrg, "Skutt Student Center");
             skutt.setBuilding("Skutt Student Center");
+            skutt.setLatitude(new BigDecimal("41.265960"));
+            skutt.setLongitude(new BigDecimal("-95.946720"));
             locationRepository.save(skutt);
             
             Location harper = new Location(clubOrg, "Harper Center");
             harper.setBuilding("Harper Center");
             harper.setRoom("405");
+            harper.setLatitude(new BigDecimal("41.263580"));
+            harper.setLongitude(new BigDecimal("-95.944130"));
             locationRepository.save(harper);
             
             Location quad = new Location(clubOrg, "Campus Quad");
+            quad.setLatitude(new BigDecimal("41.265070"));
+            quad.setLongitude(new BigDecimal("-95.947900"));
             locationRepository.save(quad);
             
             // Create events
@@ -62,12 +77,10 @@ public class DataInitializer {
             event1.setDescription("Community food drive");
             event1.setEndTime(LocalDateTime.now().plusDays(3).plusHours(2));
             event1.setStatus(Event.EventStatus.ACTIVE);
-            eventRepository.save(event1);
             
             // Add event item for food drive
             EventItem foodItem = new EventItem(event1, "Food Portions", 150);
             event1.getEventItems().add(foodItem);
-            eventRepository.save(event1);
             
             Event event2 = new Event(
                 clubOrg,
@@ -79,12 +92,10 @@ public class DataInitializer {
             event2.setDescription("Meet local AI Engineers");
             event2.setEndTime(LocalDateTime.now().plusDays(7).plusHours(2));
             event2.setStatus(Event.EventStatus.ACTIVE);
-            eventRepository.save(event2);
             
             // Add event item for mentorship
             EventItem mentorshipItem = new EventItem(event2, "Meal Portions", 75);
             event2.getEventItems().add(mentorshipItem);
-            eventRepository.save(event2);
             
             Event event3 = new Event(
                 clubOrg,
@@ -96,9 +107,11 @@ public class DataInitializer {
             event3.setDescription("Help clean up campus grounds");
             event3.setEndTime(LocalDateTime.now().minusDays(2).plusHours(3));
             event3.setStatus(Event.EventStatus.ENDED);
-            eventRepository.save(event3);
+            
+            // Items cascade with their event, so each event is written once.
+            eventRepository.saveAll(List.of(event1, event2, event3));
             
             System.out.println("✅ Sample data initialized successfully!");
-        };
+        });
     }
 }
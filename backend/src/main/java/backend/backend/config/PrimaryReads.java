@@ -0,0 +1,43 @@
+package backend.backend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see the primary's latest commit even though they run read-only: loads that fill a shared
+ * cache, and reads that fan a just-committed write out to every client. A replica's copy may still predate that
+ * commit, and once cached or pushed it would outlive the lag. {@link ReadWriteRoutingDataSource} sends
+ * connections taken inside {@link #call(Supplier)} to the primary without pinning the client to it.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Runs {@code read} with its transactions routed to the primary. Nested calls are allowed.
+     */
+    public static <T> T call(Supplier<T> read) {
+        if (ACTIVE.get() != null) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static void run(Runnable read) {
+        call(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,126 @@
+package backend.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Active when {@code datasource.replica.urls} lists one or more read replicas. The application's
+ * {@link DataSource} then becomes a {@link LazyConnectionDataSourceProxy} over a
+ * {@link ReadWriteRoutingDataSource}: read-only transactions go to a replica whose lag is within
+ * {@code datasource.replica.max-lag}, everything else to the primary at {@code spring.datasource.url}. Every pool
+ * takes its settings from {@code spring.datasource.hikari.*}, and the replicas share the primary's credentials
+ * unless {@code datasource.replica.username}/{@code password} are set.
+ * <p>
+ * Requires {@code spring.jpa.open-in-view=false}: an entity manager held open for the whole request keeps the
+ * connection of its first transaction, so a write following a read would be sent to the replica.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties,
+                                                 Environment environment,
+                                                 MeterRegistry registry,
+                                                 @Value("${datasource.replica.urls}") List<String> urls,
+                                                 @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                 @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                 @Value("${datasource.replica.max-lag:2s}") Duration maxLag) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Replica routing requires spring.jpa.open-in-view=false");
+        }
+        DataSource primary = pool(properties.getUrl(), properties.getUsername(), properties.getPassword(),
+                "primary", properties, environment, registry);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            replicas.put(name, pool(urls.get(i).trim(), username, password, name, properties, environment, registry));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    ScheduledExecutorService replicaHeartbeat(ReadWriteRoutingDataSource routingDataSource,
+                                              @Value("${datasource.replica.heartbeat-interval:1s}") Duration interval) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(routingDataSource::probe, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${datasource.replica.sticky-for:5s}") Duration stickyFor) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyFor));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    @Bean
+    MeterBinder replicaLagMetrics(ReadWriteRoutingDataSource routingDataSource) {
+        return registry -> {
+            for (ReadWriteRoutingDataSource.Replica replica : routingDataSource.replicas()) {
+                // NaN while the replica is unreachable or not yet probed.
+                Gauge.builder("db.replica.lag", replica,
+                                r -> r.lagMillis() == Long.MAX_VALUE ? Double.NaN : r.lagMillis())
+                        .tag("replica", replica.name())
+                        .baseUnit("milliseconds")
+                        .description("Replication lag measured by the heartbeat")
+                        .strongReference(true)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static DataSource pool(String url, String username, String password, String name,
+                                   DataSourceProperties properties, Environment environment, MeterRegistry registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        // Mirrors VirtualThreadConfig, whose post-processor only sees HikariDataSource beans.
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+        }
+        return pool;
+    }
+}
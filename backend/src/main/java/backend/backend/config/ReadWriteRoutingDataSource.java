@@ -0,0 +1,173 @@
+package backend.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The routing decision is made when a connection is first needed, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}; by then the transaction's read-only flag is known. A replica is only
+ * used while its measured lag is within {@code maxLag}: {@link #probe()} writes the current time into
+ * {@code replica_heartbeat} on the primary and reads it back from every replica, and the difference between
+ * the newest beat written and the one a replica returns is its lag. A replica that cannot be read, or has not
+ * been probed yet, counts as unusable. Requests that {@link ReadYourWritesFilter} pins to the primary, and any
+ * read that follows a write in the same request, also stay on the primary, as do reads marked with
+ * {@link PrimaryReads}. Only a read-write transaction counts as a write; a connection taken outside any transaction
+ * goes to the primary without pinning the client.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final String CREATE_HEARTBEAT =
+            "create table if not exists replica_heartbeat (id tinyint not null primary key, beat_millis bigint not null)";
+    private static final String UPDATE_HEARTBEAT = "update replica_heartbeat set beat_millis = ? where id = 1";
+    private static final String INSERT_HEARTBEAT = "insert into replica_heartbeat (id, beat_millis) values (1, ?)";
+    private static final String READ_HEARTBEAT = "select beat_millis from replica_heartbeat where id = 1";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long lastBeat;
+    private volatile boolean heartbeatTableCreated;
+
+    static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Long.MAX_VALUE until a probe succeeds
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return name;
+        }
+
+        long lagMillis() {
+            return lagMillis;
+        }
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Lookups are by key only; a typo must not silently fall back to the primary.
+        setLenientFallback(false);
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesFilter.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWritesFilter.isPinned() || PrimaryReads.isActive()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMillis <= maxLagMillis) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Closes the primary and replica pools.
+     */
+    public void close() {
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private static void close(DataSource dataSource) {
+        DataSource target = dataSource instanceof DelegatingDataSource delegating
+                ? delegating.getTargetDataSource()
+                : dataSource;
+        if (target instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.warn("Could not close data source", ex);
+            }
+        }
+    }
+
+    /**
+     * Writes a heartbeat to the primary and measures every replica's lag against it.
+     */
+    void probe() {
+        long beat = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection()) {
+            connection.setAutoCommit(true);
+            // Once per process; later beats only update the row.
+            if (!heartbeatTableCreated) {
+                try (Statement create = connection.createStatement()) {
+                    create.execute(CREATE_HEARTBEAT);
+                }
+                heartbeatTableCreated = true;
+            }
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_HEARTBEAT)) {
+                update.setLong(1, beat);
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT_HEARTBEAT)) {
+                        insert.setLong(1, beat);
+                        insert.executeUpdate();
+                    }
+                }
+            }
+            lastBeat = beat;
+        } catch (SQLException ex) {
+            log.warn("Could not write replica heartbeat", ex);
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(READ_HEARTBEAT)) {
+                replica.lagMillis = rs.next() ? Math.max(0, lastBeat - rs.getLong(1)) : Long.MAX_VALUE;
+            } catch (SQLException ex) {
+                if (replica.lagMillis != Long.MAX_VALUE) {
+                    log.warn("Replica {} is unreachable; reading from the primary", replica.name, ex);
+                }
+                replica.lagMillis = Long.MAX_VALUE;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package backend.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica routing. The first write a request makes sets a cookie that pins that client's
+ * reads to the primary for {@code stickyFor}, long enough for replicas within the lag limit to catch up; the
+ * rest of the request stays on the primary as well. Requests arriving with an unexpired cookie are pinned from
+ * the start. Cross-origin clients only send the cookie back when they fetch with credentials.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "rw-primary-until";
+
+    private static final ThreadLocal<Pin> CURRENT = new ThreadLocal<>();
+
+    private final Duration stickyFor;
+
+    private static final class Pin {
+        private final HttpServletResponse response;
+        private final Duration stickyFor;
+        private boolean pinned;
+        private boolean wrote;
+
+        private Pin(HttpServletResponse response, Duration stickyFor, boolean pinned) {
+            this.response = response;
+            this.stickyFor = stickyFor;
+            this.pinned = pinned;
+        }
+    }
+
+    public ReadYourWritesFilter(Duration stickyFor) {
+        this.stickyFor = stickyFor;
+    }
+
+    /**
+     * Whether the current request's reads must go to the primary.
+     */
+    static boolean isPinned() {
+        Pin pin = CURRENT.get();
+        return pin != null && pin.pinned;
+    }
+
+    /**
+     * Called when the current thread takes a primary connection for writing.
+     */
+    static void recordWrite() {
+        Pin pin = CURRENT.get();
+        if (pin == null || pin.wrote) {
+            return;
+        }
+        pin.wrote = true;
+        pin.pinned = true;
+        // Writes run inside the handler, before the body is written, so headers can still be added.
+        if (!pin.response.isCommitted()) {
+            long until = System.currentTimeMillis() + pin.stickyFor.toMillis();
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, pin.stickyFor.toSeconds()));
+            pin.response.addCookie(cookie);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Pin previous = CURRENT.get();
+        CURRENT.set(new Pin(response, stickyFor, pinnedByCookie(request)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static boolean pinnedByCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package backend.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}: Tomcat then runs each request, and with it every
+ * {@code @Transactional} service call, on its own virtual thread. The connection pool becomes the only limit on
+ * database concurrency, so it is fronted by a {@link ConnectionLimitingDataSource} sized to the pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimiter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionLimitingDataSource(
+                            hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            if (dataSource.getIfAvailable() instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("db.connection.limiter.queued", limiter, ConnectionLimitingDataSource::queueLength)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,10 +1,14 @@
 package backend.backend.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "claims")
+@Table(name = "claims", uniqueConstraints = {
+        @UniqueConstraint(name = "uniq_claim_token", columnNames = "token")
+})
 public class Claim {
     
     @Id
@@ -12,12 +16,15 @@ public class Claim {
     @Column(name = "claim_id")
     private Long claimId;
     
+    // Matches fk_claim_event and fk_claim_item in Script.sql, so generated schemas delete the same way.
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Event event;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_item_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private EventItem eventItem;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +44,10 @@ public class Claim {
     @Column(name = "redeemed_at")
     private LocalDateTime redeemedAt;
     
+    // Opaque code shown at pickup; null for claims made before tokens existed.
+    @Column(length = 32, updatable = false)
+    private String token;
+    
     public enum ClaimStatus {
         CLAIMED, REDEEMED, CANCELLED, EXPIRED
     }
@@ -116,6 +127,14 @@ public class Claim {
         this.redeemedAt = redeemedAt;
     }
     
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
     // Helper methods
     public void redeem() {
         this.status = ClaimStatus.REDEEMED;
@@ -1,14 +1,22 @@
 package backend.backend.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_evt_start", columnList = "start_time, event_id"),
+        @Index(name = "idx_evt_time", columnList = "status, start_time"),
+        @Index(name = "idx_evt_updated", columnList = "updated_at, event_id")
+})
 public class Event {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a");
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,10 +58,27 @@ public class Event {
     private LocalDateTime updatedAt = LocalDateTime.now();
     
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<EventItem> eventItems = new ArrayList<>();
     
     public enum EventStatus {
-        DRAFT, PUBLISHED, ACTIVE, ENDED, CANCELLED
+        DRAFT, PUBLISHED, ACTIVE, ENDED, CANCELLED;
+
+        /**
+         * Lenient parse of client-supplied status text; blank or unknown values become {@link #DRAFT}.
+         */
+        public static EventStatus parse(String status) {
+            if (status == null || status.isBlank()) {
+                return DRAFT;
+            }
+            return switch (status.trim().toUpperCase()) {
+                case "ACTIVE" -> ACTIVE;
+                case "PUBLISHED" -> PUBLISHED;
+                case "ENDED", "COMPLETED" -> ENDED;
+                case "CANCELLED" -> CANCELLED;
+                default -> DRAFT;
+            };
+        }
     }
     
     // Constructors
@@ -168,10 +193,13 @@ public class Event {
     // Helper methods for compatibility with old code
     @Transient
     public String getTime() {
+        return formatTime(startTime);
+    }
+
+    public static String formatTime(LocalDateTime startTime) {
         if (startTime == null)
             return "";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a");
-        return startTime.format(formatter);
+        return startTime.format(TIME_FORMAT);
     }
     
     @Transient
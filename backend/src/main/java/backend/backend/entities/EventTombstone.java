@@ -0,0 +1,47 @@
+package backend.backend.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted event so delta-sync clients learn to drop it. Kept for the sync token retention, then purged.
+ */
+@Entity
+@Table(name = "event_tombstones", indexes = {
+        @Index(name = "idx_tomb_deleted", columnList = "deleted_at, event_id")
+})
+public class EventTombstone {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public EventTombstone() {
+    }
+
+    public EventTombstone(Long eventId, LocalDateTime deletedAt) {
+        this.eventId = eventId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
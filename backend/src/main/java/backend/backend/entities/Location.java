@@ -1,10 +1,19 @@
 package backend.backend.entities;
 
+import backend.backend.events.search.EventSearchListener;
+import backend.backend.locations.LocationGeoListener;
+import backend.backend.reference.ReferenceDataListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.util.Locale;
 
 @Entity
-@Table(name = "locations")
+@EntityListeners({ReferenceDataListener.class, LocationGeoListener.class, EventSearchListener.class})
+@Table(name = "locations", uniqueConstraints = {
+        // room_key rather than room: a unique index never treats two NULL rooms as duplicates. name_key rather
+        // than name, so names differing only in case collide under any collation.
+        @UniqueConstraint(name = "uniq_loc_key", columnNames = {"org_id", "name_key", "room_key"})
+})
 public class Location {
     
     @Id
@@ -19,12 +28,18 @@ public class Location {
     @Column(nullable = false, length = 120)
     private String name;
     
+    @Column(name = "name_key", nullable = false, length = 120)
+    private String nameKey = "";
+    
     @Column(length = 120)
     private String building;
     
     @Column(length = 40)
     private String room;
     
+    @Column(name = "room_key", nullable = false, length = 40)
+    private String roomKey = "";
+    
     @Column(precision = 9, scale = 6)
     private BigDecimal latitude;
     
@@ -97,8 +112,27 @@ public class Location {
         this.longitude = longitude;
     }
     
+    @PrePersist
+    @PreUpdate
+    protected void syncKeys() {
+        nameKey = nameKey(name);
+        roomKey = room == null ? "" : room;
+    }
+    
+    /**
+     * The form of a name that {@code uniq_loc_key} compares: lower-cased, so spellings that differ only in case
+     * are one location.
+     */
+    public static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+    
     // Helper method to get full location string
     public String getFullLocation() {
+        return formatFullLocation(name, building, room);
+    }
+
+    public static String formatFullLocation(String name, String building, String room) {
         StringBuilder sb = new StringBuilder(name);
         if (building != null) {
             sb.append(", ").append(building);
@@ -1,9 +1,12 @@
 package backend.backend.entities;
 
+import backend.backend.events.search.EventSearchListener;
+import backend.backend.reference.ReferenceDataListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({ReferenceDataListener.class, EventSearchListener.class})
 @Table(name = "organizations")
 public class Organization {
     
@@ -1,9 +1,11 @@
 package backend.backend.entities;
 
+import backend.backend.reference.ReferenceDataListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ReferenceDataListener.class)
 @Table(name = "users")
 public class User {
     
@@ -0,0 +1,124 @@
+package backend.backend.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A user's place in line for portions of an event item. Entries are ordered by id, so the table itself is the
+ * durable FIFO; references are plain ids to keep the queue table cheap to append to.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_item_status", columnList = "event_item_id, status, waitlist_id"),
+        @Index(name = "idx_waitlist_event", columnList = "event_id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_id")
+    private Long waitlistId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "event_item_id", nullable = false)
+    private Long eventItemId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer quantity = 1;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "joined_at", nullable = false, updatable = false)
+    private LocalDateTime joinedAt = LocalDateTime.now();
+
+    // The claim the portions were allocated to, once status is ALLOCATED.
+    @Column(name = "claim_id")
+    private Long claimId;
+
+    public enum WaitlistStatus {
+        WAITING, ALLOCATED, LEFT, CLOSED
+    }
+
+    // Constructors
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(Long eventId, Long eventItemId, Long userId, Integer quantity) {
+        this.eventId = eventId;
+        this.eventItemId = eventItemId;
+        this.userId = userId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getWaitlistId() {
+        return waitlistId;
+    }
+
+    public void setWaitlistId(Long waitlistId) {
+        this.waitlistId = waitlistId;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getEventItemId() {
+        return eventItemId;
+    }
+
+    public void setEventItemId(Long eventItemId) {
+        this.eventItemId = eventItemId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    public Long getClaimId() {
+        return claimId;
+    }
+
+    public void setClaimId(Long claimId) {
+        this.claimId = claimId;
+    }
+}
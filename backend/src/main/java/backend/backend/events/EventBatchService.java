@@ -0,0 +1,430 @@
+package backend.backend.events;
+
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventService.References;
+import backend.backend.events.dto.BatchGetResult;
+import backend.backend.events.dto.BatchResult;
+import backend.backend.events.dto.EventIds;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventRow;
+import backend.backend.events.dto.EventUpdate;
+import backend.backend.repositories.EventRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batch reads and writes for tooling that edits many events at once.
+ * <p>
+ * A batch read is one {@code IN} query. A batch write first validates every entry the way the single-event call
+ * would, answering the ones that fail with the same status, and then writes the rest in one transaction with JDBC
+ * batches, so each table costs one round trip (a multi-row statement under {@code rewriteBatchedStatements})
+ * instead of one per event. If that transaction fails, nothing is written and every remaining entry reports it.
+ * A batch delete behaves like the single one: the event's claims and waitlist entries go with it
+ * ({@code ON DELETE CASCADE}) and a tombstone is left.
+ * An {@link EventChange} is published per event, exactly like single writes, so caches, indexes and streams follow.
+ */
+@Service
+public class EventBatchService {
+
+    private static final String UPDATE_EVENT = """
+            update events set org_id = ?, location_id = ?, created_by = ?, title = ?, description = ?,
+                              start_time = ?, end_time = ?, status = ?, updated_at = ?
+            where event_id = ?""";
+    // Never below what is claimed, so an edit cannot undo portions reserved since the batch read them.
+    private static final String UPDATE_MEALS =
+            "update event_items set portions_available = greatest(?, portions_claimed) where event_item_id = ?";
+    // The item a single update would change: the event's first, if it has any.
+    private static final String FIND_FIRST_ITEMS = """
+            select e.event_id, min(i.event_item_id) as event_item_id
+            from events e left join event_items i on i.event_id = e.event_id
+            where e.event_id in (:ids) group by e.event_id""";
+    private static final String FIND_EXISTING = "select event_id from events where event_id in (:ids)";
+    private static final String DELETE_ITEMS = "delete from event_items where event_id in (:ids)";
+    private static final String DELETE_EVENTS = "delete from events where event_id in (:ids)";
+    private static final String INSERT_TOMBSTONE = "insert into event_tombstones (event_id, deleted_at) values (?, ?)";
+
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher publisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int maxSize;
+
+    /**
+     * An entry that passed validation.
+     */
+    private record Prepared(int index, Long id, EventRequest request, String title, EventStatus status,
+                            References refs) {
+    }
+
+    public EventBatchService(EventService eventService,
+                             EventRepository eventRepository,
+                             ApplicationEventPublisher publisher,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${events.batch.max-size:500}") int maxSize) {
+        this.eventService = eventService;
+        this.eventRepository = eventRepository;
+        this.publisher = publisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads the given events with one query. Duplicate ids are returned once.
+     */
+    public BatchGetResult get(EventIds request) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(requireIds(request)));
+        Map<Long, EventRow> rows = readOnlyTransaction.execute(status -> eventRepository.findRowsByIdIn(ids)).stream()
+                .collect(Collectors.toMap(EventRow::id, Function.identity()));
+        List<EventResponse> events = new ArrayList<>(rows.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            EventRow row = rows.get(id);
+            if (row == null) {
+                missing.add(id);
+            } else {
+                events.add(EventMapper.toResponse(row));
+            }
+        }
+        return new BatchGetResult(events, missing);
+    }
+
+    public BatchResult create(List<EventRequest> requests) {
+        requireSize(requests);
+        BatchResult.Item[] items = new BatchResult.Item[requests.size()];
+        List<Prepared> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                pending.add(prepare(i, null, requests.get(i)));
+            } catch (IllegalArgumentException | EntityNotFoundException ex) {
+                items[i] = failure(i, null, ex);
+            }
+        }
+        if (!pending.isEmpty()) {
+            try {
+                List<EventResponse> created = writeTransaction.execute(status -> {
+                    List<Long> ids = insertEvents(pending);
+                    return snapshots(ids, EventChange::created);
+                });
+                for (int k = 0; k < pending.size(); k++) {
+                    int index = pending.get(k).index();
+                    EventResponse event = created.get(k);
+                    items[index] = new BatchResult.Item(index, event.id(), 201, event, null);
+                }
+            } catch (DataAccessException ex) {
+                failAll(pending, items, ex);
+            }
+        }
+        return result(items);
+    }
+
+    public BatchResult update(List<EventUpdate> updates) {
+        requireSize(updates);
+        BatchResult.Item[] items = new BatchResult.Item[updates.size()];
+        List<Prepared> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            EventUpdate update = updates.get(i);
+            Long id = update == null ? null : update.id();
+            try {
+                if (id == null) {
+                    throw new IllegalArgumentException("Id is required");
+                }
+                if (!seen.add(id)) {
+                    throw new IllegalArgumentException("Event %d appears more than once".formatted(id));
+                }
+                pending.add(prepare(i, id, update.event()));
+            } catch (IllegalArgumentException | EntityNotFoundException ex) {
+                items[i] = failure(i, id, ex);
+            }
+        }
+        if (!pending.isEmpty()) {
+            try {
+                Map<Long, EventResponse> updated = writeTransaction.execute(status -> updateEvents(pending));
+                for (Prepared prepared : pending) {
+                    EventResponse event = updated.get(prepared.id());
+                    items[prepared.index()] = event != null
+                            ? new BatchResult.Item(prepared.index(), prepared.id(), 200, event, null)
+                            : notFound(prepared.index(), prepared.id());
+                }
+            } catch (DataAccessException ex) {
+                failAll(pending, items, ex);
+            }
+        }
+        return result(items);
+    }
+
+    public BatchResult delete(EventIds request) {
+        List<Long> ids = requireIds(request);
+        BatchResult.Item[] items = new BatchResult.Item[ids.size()];
+        List<Prepared> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                items[i] = failure(i, null, new IllegalArgumentException("Id is required"));
+            } else if (!seen.add(id)) {
+                items[i] = failure(i, id, new IllegalArgumentException("Event %d appears more than once".formatted(id)));
+            } else {
+                pending.add(new Prepared(i, id, null, null, null, null));
+            }
+        }
+        if (!pending.isEmpty()) {
+            try {
+                Set<Long> deleted = writeTransaction.execute(status ->
+                        deleteEvents(pending.stream().map(Prepared::id).toList()));
+                for (Prepared prepared : pending) {
+                    items[prepared.index()] = deleted.contains(prepared.id())
+                            ? new BatchResult.Item(prepared.index(), prepared.id(), 204, null, null)
+                            : notFound(prepared.index(), prepared.id());
+                }
+            } catch (DataAccessException ex) {
+                failAll(pending, items, ex);
+            }
+        }
+        return result(items);
+    }
+
+    private Prepared prepare(int index, Long id, EventRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Event is required");
+        }
+        References refs = eventService.resolve(request);
+        String title = EventService.requireTitle(request);
+        return new Prepared(index, id, request, title, EventStatus.parse(request.status()), refs);
+    }
+
+    /**
+     * Inserts the events and their meal items, returning the generated ids in order.
+     */
+    private List<Long> insertEvents(List<Prepared> events) {
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(EventSql.INSERT_EVENT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setEventColumns(ps, events.get(i));
+                        ps.setObject(9, now);
+                        ps.setObject(10, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != events.size()) {
+            throw new IncorrectResultSizeDataAccessException("Expected %d generated ids but the driver returned %d"
+                    .formatted(events.size(), generated.size()), events.size(), generated.size());
+        }
+        List<Long> ids = new ArrayList<>(events.size());
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            long id = ((Number) generated.get(i).values().iterator().next()).longValue();
+            ids.add(id);
+            Integer meals = events.get(i).request().meals();
+            if (meals != null) {
+                items.add(new Object[]{id, EventSql.DEFAULT_ITEM_NAME, Math.max(0, meals), 0, 0});
+            }
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(EventSql.INSERT_ITEM, items);
+        }
+        return ids;
+    }
+
+    /**
+     * Updates the events that exist and returns their snapshots by id. Meals go to the event's first item, which
+     * is created if there is none, like a single update.
+     */
+    private Map<Long, EventResponse> updateEvents(List<Prepared> events) {
+        Map<Long, Long> firstItems = new HashMap<>();
+        namedJdbcTemplate.query(FIND_FIRST_ITEMS, Map.of("ids", events.stream().map(Prepared::id).toList()),
+                rs -> {
+                    firstItems.put(rs.getLong(1), rs.getObject(2, Long.class));
+                });
+        List<Prepared> found = events.stream().filter(event -> firstItems.containsKey(event.id())).toList();
+        if (found.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setEventColumns(ps, found.get(i));
+                ps.setObject(9, now);
+                ps.setLong(10, found.get(i).id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return found.size();
+            }
+        });
+
+        List<Long> ids = new ArrayList<>(found.size());
+        List<Object[]> mealUpdates = new ArrayList<>();
+        List<Object[]> newItems = new ArrayList<>();
+        for (int i = 0; i < found.size(); i++) {
+            // Deleted since the lookup; Statement.SUCCESS_NO_INFO (-2) still counts as written.
+            if (counts[i] == 0) {
+                continue;
+            }
+            Prepared event = found.get(i);
+            ids.add(event.id());
+            Integer meals = event.request().meals();
+            if (meals == null) {
+                continue;
+            }
+            Long itemId = firstItems.get(event.id());
+            if (itemId == null) {
+                newItems.add(new Object[]{event.id(), EventSql.DEFAULT_ITEM_NAME, Math.max(0, meals), 0, 0});
+            } else {
+                mealUpdates.add(new Object[]{Math.max(0, meals), itemId});
+            }
+        }
+        if (!mealUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_MEALS, mealUpdates);
+        }
+        if (!newItems.isEmpty()) {
+            jdbcTemplate.batchUpdate(EventSql.INSERT_ITEM, newItems);
+        }
+        List<EventResponse> snapshots = snapshots(ids, EventChange::updated);
+        return snapshots.stream().collect(Collectors.toMap(EventResponse::id, Function.identity()));
+    }
+
+    /**
+     * Deletes the events that exist, leaving a tombstone for each, and returns their ids.
+     */
+    private Set<Long> deleteEvents(List<Long> ids) {
+        List<Long> existing = namedJdbcTemplate.queryForList(FIND_EXISTING, Map.of("ids", ids), Long.class);
+        if (existing.isEmpty()) {
+            return Set.of();
+        }
+        Map<String, Object> params = Map.of("ids", existing);
+        namedJdbcTemplate.update(DELETE_ITEMS, params);
+        namedJdbcTemplate.update(DELETE_EVENTS, params);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, existing.stream().map(id -> new Object[]{id, now}).toList());
+        for (Long id : existing) {
+            publisher.publishEvent(EventChange.deleted(id));
+        }
+        return new HashSet<>(existing);
+    }
+
+    private static void setEventColumns(PreparedStatement ps, Prepared event) throws SQLException {
+        ps.setLong(1, event.refs().organization().id());
+        ps.setLong(2, event.refs().location().id());
+        ps.setLong(3, event.refs().creator().id());
+        ps.setString(4, event.title());
+        ps.setString(5, event.request().description());
+        ps.setObject(6, event.request().startsAt());
+        if (event.request().endsAt() == null) {
+            ps.setNull(7, Types.TIMESTAMP);
+        } else {
+            ps.setObject(7, event.request().endsAt());
+        }
+        ps.setString(8, event.status().name());
+    }
+
+    /**
+     * Reads back the written events in one query and publishes a change for each, in the given order.
+     */
+    private List<EventResponse> snapshots(List<Long> ids, Function<EventResponse, EventChange> change) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventRow> rows = eventRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EventRow::id, Function.identity()));
+        List<EventResponse> responses = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            EventResponse response = EventMapper.toResponse(rows.get(id));
+            publisher.publishEvent(change.apply(response));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private List<Long> requireIds(EventIds request) {
+        List<Long> ids = request == null ? null : request.ids();
+        requireSize(ids);
+        return ids;
+    }
+
+    private void requireSize(List<?> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one entry is required");
+        }
+        if (entries.size() > maxSize) {
+            throw new IllegalArgumentException("At most %d entries per batch".formatted(maxSize));
+        }
+    }
+
+    private static BatchResult.Item failure(int index, Long id, RuntimeException ex) {
+        int status = ex instanceof EntityNotFoundException ? 404 : 400;
+        return new BatchResult.Item(index, id, status, null, ex.getMessage());
+    }
+
+    private static BatchResult.Item notFound(int index, Long id) {
+        return new BatchResult.Item(index, id, 404, null, "Event %d not found".formatted(id));
+    }
+
+    private static void failAll(List<Prepared> pending, BatchResult.Item[] items, DataAccessException ex) {
+        String message = "Batch was not written: " + ex.getMostSpecificCause().getMessage();
+        for (Prepared prepared : pending) {
+            items[prepared.index()] = new BatchResult.Item(prepared.index(), prepared.id(), 500, null, message);
+        }
+    }
+
+    private static BatchResult result(BatchResult.Item[] items) {
+        int succeeded = 0;
+        for (BatchResult.Item item : items) {
+            if (item.error() == null) {
+                succeeded++;
+            }
+        }
+        return new BatchResult(succeeded, items.length - succeeded, List.of(items));
+    }
+}
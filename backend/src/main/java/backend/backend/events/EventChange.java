@@ -0,0 +1,28 @@
+package backend.backend.events;
+
+import backend.backend.events.dto.EventResponse;
+
+/**
+ * Published by {@link EventService} for every successful write. Listeners should use
+ * {@code @TransactionalEventListener} so they only react once the change has committed.
+ *
+ * @param snapshot the event as it looks after the write, or null for deletes
+ */
+public record EventChange(Type type, Long eventId, EventResponse snapshot) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static EventChange created(EventResponse snapshot) {
+        return new EventChange(Type.CREATED, snapshot.id(), snapshot);
+    }
+
+    public static EventChange updated(EventResponse snapshot) {
+        return new EventChange(Type.UPDATED, snapshot.id(), snapshot);
+    }
+
+    public static EventChange deleted(Long eventId) {
+        return new EventChange(Type.DELETED, eventId, null);
+    }
+}
@@ -1,7 +1,13 @@
 package backend.backend.events;
 
+import backend.backend.events.dto.BatchGetResult;
+import backend.backend.events.dto.BatchResult;
+import backend.backend.events.dto.EventIds;
+import backend.backend.events.dto.EventPage;
 import backend.backend.events.dto.EventRequest;
 import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventUpdate;
+import backend.backend.events.dto.NearbyEvent;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -18,14 +24,39 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000")
 public class EventController {
     private final EventService service;
+    private final EventBatchService batchService;
 
-    public EventController(EventService service) {
+    public EventController(EventService service, EventBatchService batchService) {
         this.service = service;
+        this.batchService = batchService;
     }
 
     @GetMapping
-    public List<EventResponse> list(@RequestParam(required = false) String q) {
-        return service.list(q);
+    public EventPage list(@RequestParam(required = false) String q,
+                          @RequestParam(required = false) String cursor,
+                          @RequestParam(required = false) Integer limit) {
+        return service.list(q, cursor, limit);
+    }
+
+    @GetMapping("/upcoming")
+    public List<EventResponse> upcoming(@RequestParam(required = false) Integer hours,
+                                        @RequestParam(required = false) String status,
+                                        @RequestParam(required = false) Integer limit) {
+        return service.upcoming(hours, status, limit);
+    }
+
+    @GetMapping("/today")
+    public List<EventResponse> today(@RequestParam(required = false) String status,
+                                     @RequestParam(required = false) Integer limit) {
+        return service.today(status, limit);
+    }
+
+    @GetMapping("/nearby")
+    public List<NearbyEvent> nearby(@RequestParam(required = false) Double lat,
+                                    @RequestParam(required = false) Double lng,
+                                    @RequestParam(required = false) Double radius,
+                                    @RequestParam(required = false) Integer limit) {
+        return service.nearby(lat, lng, radius, limit);
     }
 
     @GetMapping("/{id}")
@@ -53,6 +84,29 @@ public class EventController {
         service.delete(id);
     }
 
+    @PostMapping("/batch-get")
+    public BatchGetResult batchGet(@RequestBody EventIds request) {
+        return batchService.get(request);
+    }
+
+    /**
+     * Batch writes answer 200 with a per-entry status; see {@link BatchResult}.
+     */
+    @PostMapping("/batch-create")
+    public BatchResult batchCreate(@RequestBody List<EventRequest> requests) {
+        return batchService.create(requests);
+    }
+
+    @PostMapping("/batch-update")
+    public BatchResult batchUpdate(@RequestBody List<EventUpdate> updates) {
+        return batchService.update(updates);
+    }
+
+    @PostMapping("/batch-delete")
+    public BatchResult batchDelete(@RequestBody EventIds request) {
+        return batchService.delete(request);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidation(IllegalArgumentException ex) {
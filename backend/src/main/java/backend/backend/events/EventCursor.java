@@ -0,0 +1,40 @@
+package backend.backend.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (start_time, event_id) ordering, as issued by the database listing. Clients only ever see
+ * the encoded token; its {@code key|} tag tells it apart from a {@link SearchCursor}.
+ */
+record EventCursor(LocalDateTime startTime, Long id) {
+
+    private static final String PREFIX = "key|";
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = PREFIX + startTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            raw = raw.substring(PREFIX.length());
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new EventCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.valueOf(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
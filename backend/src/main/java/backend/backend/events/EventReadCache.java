@@ -0,0 +1,100 @@
+package backend.backend.events;
+
+import backend.backend.cache.BoundedCache;
+import backend.backend.cache.CacheStats;
+import backend.backend.events.dto.EventPage;
+import backend.backend.events.dto.EventResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through caches for single events and list pages.
+ * <p>
+ * A write fences the affected event (and every cached page, since any write can reorder or change a page)
+ * as soon as it is published, and lifts the fence once its transaction has completed. Reads in between go
+ * to the database, so a cached response never predates a committed write.
+ */
+@Component
+public class EventReadCache {
+
+    private final BoundedCache<Long, EventResponse> events;
+    private final BoundedCache<PageKey, EventPage> pages;
+
+    private record PageKey(String q, String cursor, Integer limit) {
+    }
+
+    public EventReadCache(@Value("${events.cache.max-entries:10000}") int maxEntries,
+                          @Value("${events.cache.max-pages:1000}") int maxPages,
+                          @Value("${events.cache.ttl:5m}") Duration ttl) {
+        this.events = new BoundedCache<>(maxEntries, ttl);
+        this.pages = new BoundedCache<>(maxPages, ttl);
+    }
+
+    EventResponse get(Long id, Function<Long, EventResponse> loader) {
+        return events.get(id, loader);
+    }
+
+    EventPage page(String q, String cursor, Integer limit, Supplier<EventPage> loader) {
+        PageKey key = new PageKey(
+                q == null || q.isBlank() ? null : q.trim(),
+                cursor == null || cursor.isBlank() ? null : cursor,
+                limit);
+        return pages.get(key, k -> loader.get());
+    }
+
+    public CacheStats eventStats() {
+        return events.stats();
+    }
+
+    public CacheStats pageStats() {
+        return pages.stats();
+    }
+
+    @EventListener
+    public void fence(EventChange change) {
+        fence(change.eventId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void unfence(EventChange change) {
+        unfence(change.eventId());
+    }
+
+    @EventListener
+    public void fence(PortionsChanged change) {
+        fence(change.eventId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void unfence(PortionsChanged change) {
+        unfence(change.eventId());
+    }
+
+    @EventListener
+    public void fence(EventsImported imported) {
+        // New ids are never cached, but any page may now be missing them.
+        pages.fenceAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void unfence(EventsImported imported) {
+        pages.unfenceAll();
+    }
+
+    private void fence(Long eventId) {
+        events.fence(eventId);
+        pages.fenceAll();
+    }
+
+    private void unfence(Long eventId) {
+        events.unfence(eventId);
+        pages.unfenceAll();
+    }
+}
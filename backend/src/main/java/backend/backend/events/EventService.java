@@ -3,22 +3,48 @@ package backend.backend.events;
 import backend.backend.entities.Event;
 import backend.backend.entities.Event.EventStatus;
 import backend.backend.entities.EventItem;
-import backend.backend.entities.Location;
-import backend.backend.entities.Organization;
-import backend.backend.entities.User;
+import backend.backend.entities.EventTombstone;
+import backend.backend.config.PrimaryReads;
+import backend.backend.events.calendar.EventCalendarIndex;
 import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventPage;
 import backend.backend.events.dto.EventRequest;
 import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventRow;
+import backend.backend.events.dto.NearbyEvent;
+import backend.backend.events.search.EventSearchIndex;
+import backend.backend.locations.LocationGeoIndex;
+import backend.backend.locations.LocationUpserter;
+import backend.backend.reference.LocationRef;
+import backend.backend.reference.OrganizationRef;
+import backend.backend.reference.ReferenceDataCache;
+import backend.backend.reference.UserRef;
+import backend.backend.repositories.EventItemRepository;
 import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.EventTombstoneRepository;
 import backend.backend.repositories.LocationRepository;
 import backend.backend.repositories.OrganizationRepository;
 import backend.backend.repositories.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Coordinates event CRUD operations while enforcing organization/location/user relationships.
@@ -27,133 +53,402 @@ import java.util.Optional;
 @Service
 public class EventService {
 
+    private static final List<EventStatus> NOT_UPCOMING = List.of(EventStatus.ENDED, EventStatus.CANCELLED);
+
     private final EventRepository eventRepository;
+    private final EventItemRepository eventItemRepository;
+    private final EventTombstoneRepository tombstoneRepository;
     private final OrganizationRepository organizationRepository;
     private final LocationRepository locationRepository;
     private final UserRepository userRepository;
+    private final ReferenceDataCache references;
+    private final LocationUpserter locationUpserter;
+    private final EventSearchIndex searchIndex;
+    private final ApplicationEventPublisher publisher;
+    private final EventReadCache readCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final LocationGeoIndex geoIndex;
+    private final EventCalendarIndex calendarIndex;
+    private final int defaultUpcomingHours;
+    private final int maxUpcomingHours;
+    private final double defaultNearbyRadiusKm;
+    private final double maxNearbyRadiusKm;
 
     public EventService(EventRepository eventRepository,
+                        EventItemRepository eventItemRepository,
+                        EventTombstoneRepository tombstoneRepository,
                         OrganizationRepository organizationRepository,
                         LocationRepository locationRepository,
-                        UserRepository userRepository) {
+                        UserRepository userRepository,
+                        ReferenceDataCache references,
+                        LocationUpserter locationUpserter,
+                        EventSearchIndex searchIndex,
+                        ApplicationEventPublisher publisher,
+                        EventReadCache readCache,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${events.page.default-size:50}") int defaultPageSize,
+                        @Value("${events.page.max-size:200}") int maxPageSize,
+                        LocationGeoIndex geoIndex,
+                        @Value("${events.nearby.default-radius-km:2}") double defaultNearbyRadiusKm,
+                        @Value("${events.nearby.max-radius-km:50}") double maxNearbyRadiusKm,
+                        EventCalendarIndex calendarIndex,
+                        @Value("${events.calendar.default-hours:3}") int defaultUpcomingHours,
+                        @Value("${events.calendar.max-hours:168}") int maxUpcomingHours) {
         this.eventRepository = eventRepository;
+        this.eventItemRepository = eventItemRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.organizationRepository = organizationRepository;
         this.locationRepository = locationRepository;
         this.userRepository = userRepository;
+        this.references = references;
+        this.locationUpserter = locationUpserter;
+        this.searchIndex = searchIndex;
+        this.publisher = publisher;
+        this.readCache = readCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.geoIndex = geoIndex;
+        this.defaultNearbyRadiusKm = defaultNearbyRadiusKm;
+        this.maxNearbyRadiusKm = maxNearbyRadiusKm;
+        this.calendarIndex = calendarIndex;
+        this.defaultUpcomingHours = defaultUpcomingHours;
+        this.maxUpcomingHours = maxUpcomingHours;
     }
 
     /**
-     * Returns matching events, eager-loading the relationships needed by the frontend cards.
+     * Returns one page of events as flat projections (no entity hydration) with meals summed in SQL.
+     * Without a query the page is keyset-ordered by start time; with one it is ranked by the search index.
+     * Pass the previous page's {@code nextCursor} to continue. Pages are served from {@link EventReadCache}.
      */
-    @Transactional(readOnly = true)
-    public List<EventResponse> list(String q) {
-        List<Event> events = (q == null || q.isBlank())
-                ? eventRepository.findAll()
-                : eventRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(q, q);
+    public EventPage list(String q, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        return readCache.page(q, cursor, pageSize,
+                () -> loadForCache(status -> loadPage(q, cursor, pageSize)));
+    }
 
-        return events.stream()
+    /**
+     * Fetches a single event with related data or null if it does not exist.
+     */
+    public EventResponse get(Long id) {
+        return readCache.get(id, key -> loadForCache(status -> eventRepository.findRowById(key)
                 .map(EventMapper::toResponse)
+                .orElse(null)));
+    }
+
+    /**
+     * Cached results are shared by every client until the next write, so they are read from the primary; a
+     * lagging replica's copy would otherwise be served for the whole TTL once the write's fence lifts.
+     */
+    private <T> T loadForCache(TransactionCallback<T> load) {
+        return PrimaryReads.call(() -> readOnlyTransaction.execute(load));
+    }
+
+    /**
+     * Returns upcoming (not ended or cancelled) events within {@code radiusKm} of a point, nearest first and
+     * then by start time. Candidate locations come from {@link LocationGeoIndex}; their events are read with
+     * one query.
+     */
+    public List<NearbyEvent> nearby(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required");
+        }
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("Coordinates are out of range");
+        }
+        double radius = radiusKm == null ? defaultNearbyRadiusKm : radiusKm;
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        radius = Math.min(radius, maxNearbyRadiusKm);
+        int pageSize = resolvePageSize(limit);
+
+        Map<Long, Double> distances = geoIndex.within(latitude, longitude, radius);
+        if (distances.isEmpty()) {
+            return List.of();
+        }
+        List<EventRow> rows = readOnlyTransaction.execute(status -> eventRepository.findUpcomingRowsAt(
+                distances.keySet(), NOT_UPCOMING, LocalDateTime.now()));
+        // Rows arrive in start order and the sort is stable, so ties on distance keep it.
+        return rows.stream()
+                .sorted(Comparator.comparingDouble(row -> distances.get(row.locationId())))
+                .limit(pageSize)
+                .map(row -> new NearbyEvent(EventMapper.toResponse(row), distances.get(row.locationId())))
                 .toList();
     }
 
     /**
-     * Fetches a single event with related data or null if it does not exist.
+     * Events with the given status (default {@code ACTIVE}) starting within the next {@code hours} hours.
      */
-    @Transactional(readOnly = true)
-    public EventResponse get(Long id) {
-        return eventRepository.findById(id)
+    public List<EventResponse> upcoming(Integer hours, String status, Integer limit) {
+        int span = hours == null ? defaultUpcomingHours : hours;
+        if (span < 1 || span > maxUpcomingHours) {
+            throw new IllegalArgumentException("Hours must be between 1 and %d".formatted(maxUpcomingHours));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return window(status, now, now.plusHours(span), limit);
+    }
+
+    /**
+     * Events with the given status (default {@code ACTIVE}) starting today, server time.
+     */
+    public List<EventResponse> today(String status, Integer limit) {
+        LocalDateTime midnight = LocalDate.now().atStartOfDay();
+        return window(status, midnight, midnight.plusDays(1), limit);
+    }
+
+    /**
+     * Events with the given status starting in {@code [from, to)}, by start time. Ids come from
+     * {@link EventCalendarIndex}; until it has warmed up the range is read through {@code idx_evt_time}.
+     */
+    public List<EventResponse> window(String status, LocalDateTime from, LocalDateTime to, Integer limit) {
+        EventStatus eventStatus = parseStatusFilter(status);
+        int pageSize = resolvePageSize(limit);
+        List<EventRow> rows = readOnlyTransaction.execute(tx -> {
+            if (!calendarIndex.isReady()) {
+                return eventRepository.findRowsStartingBetween(eventStatus, from, to, Limit.of(pageSize));
+            }
+            List<Long> ids = calendarIndex.window(eventStatus, from, to, pageSize);
+            if (ids.isEmpty()) {
+                return List.<EventRow>of();
+            }
+            Map<Long, EventRow> byId = eventRepository.findRowsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(EventRow::id, Function.identity()));
+            // The index follows commits, so a row read now may already have moved on; keep only current matches.
+            return ids.stream().map(byId::get).filter(Objects::nonNull)
+                    .filter(row -> row.status() == eventStatus)
+                    .filter(row -> !row.startTime().isBefore(from) && row.startTime().isBefore(to))
+                    .toList();
+        });
+        return rows.stream().map(EventMapper::toResponse).toList();
+    }
+
+    private static EventStatus parseStatusFilter(String status) {
+        if (status == null || status.isBlank()) {
+            return EventStatus.ACTIVE;
+        }
+        try {
+            return EventStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+    }
+
+    private EventPage loadPage(String q, String cursor, int pageSize) {
+        boolean hasQuery = q != null && !q.isBlank();
+        boolean firstPage = cursor == null || cursor.isBlank();
+        // Later pages stay with whichever source issued the cursor, even if the index became ready in between.
+        if (hasQuery && (firstPage ? searchIndex.isReady() : SearchCursor.isRanked(cursor))) {
+            return search(q, cursor, pageSize);
+        }
+
+        EventCursor after = firstPage ? null : EventCursor.decode(cursor);
+        // Fetch one extra row so we know whether another page exists without a count query.
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<EventRow> rows;
+        if (hasQuery) {
+            rows = eventRepository.searchRows(q.trim(),
+                    after != null ? after.startTime() : null,
+                    after != null ? after.id() : null,
+                    fetch);
+        } else if (after == null) {
+            rows = eventRepository.findFirstRows(fetch);
+        } else {
+            rows = eventRepository.findRowsAfter(after.startTime(), after.id(), fetch);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            EventRow last = rows.get(pageSize - 1);
+            nextCursor = new EventCursor(last.startTime(), last.id()).encode();
+        }
+        return new EventPage(rows.stream().map(EventMapper::toResponse).toList(), nextCursor);
+    }
+
+    private EventPage search(String q, String cursor, int pageSize) {
+        if (!searchIndex.isReady()) {
+            // Only after a restart: the index that ranked the earlier pages is being rebuilt.
+            throw new IllegalArgumentException("Search cursor is no longer valid; search again");
+        }
+        int offset = (cursor == null || cursor.isBlank()) ? 0 : SearchCursor.decode(cursor).offset();
+        List<Long> ranked = searchIndex.search(q, offset + pageSize + 1);
+        if (ranked.size() <= offset) {
+            return new EventPage(List.of(), null);
+        }
+        List<Long> pageIds = ranked.subList(offset, Math.min(ranked.size(), offset + pageSize));
+        String nextCursor = ranked.size() > offset + pageSize
+                ? new SearchCursor(offset + pageSize).encode()
+                : null;
+
+        // One IN query for the page, then restore the index's ranking.
+        Map<Long, EventRow> byId = eventRepository.findRowsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(EventRow::id, Function.identity()));
+        List<EventResponse> items = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(EventMapper::toResponse)
-                .orElse(null);
+                .toList();
+        return new EventPage(items, nextCursor);
     }
 
     /**
      * Creates a new event after applying validation/mapping rules.
      */
-    @Transactional
     public EventResponse create(EventRequest request) {
-        Event event = new Event();
-        apply(event, request);
-        return EventMapper.toResponse(eventRepository.save(event));
+        References refs = resolve(request);
+        return writeTransaction.execute(status -> {
+            Event event = new Event();
+            apply(event, request, refs);
+            addMeals(event, request.meals());
+            EventResponse response = toResponse(eventRepository.save(event), refs);
+            publisher.publishEvent(EventChange.created(response));
+            return response;
+        });
     }
 
     /**
      * Updates an existing event, preserving referential integrity.
      */
-    @Transactional
     public EventResponse update(Long id, EventRequest request) {
-        Event event = eventRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Event %d not found".formatted(id)));
-        apply(event, request);
-        return EventMapper.toResponse(eventRepository.save(event));
+        References refs = resolve(request);
+        return writeTransaction.execute(status -> {
+            Event event = eventRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Event %d not found".formatted(id)));
+            apply(event, request, refs);
+            // @PreUpdate only fires when the event row itself is dirty; an items-only edit must still show up in sync.
+            event.setUpdatedAt(LocalDateTime.now());
+            eventRepository.save(event);
+            EventResponse response;
+            if (request.meals() == null || event.getEventItems().isEmpty()) {
+                addMeals(event, request.meals());
+                response = toResponse(event, refs);
+            } else {
+                // Claims reserve portions with a conditional UPDATE, so the loaded item may already be behind;
+                // writing it back would undo them. Change only what is on offer, and read the result back.
+                eventItemRepository.setPortionsAvailable(
+                        event.getEventItems().get(0).getEventItemId(), Math.max(0, request.meals()));
+                response = eventRepository.findRowById(id).map(EventMapper::toResponse).orElseThrow();
+            }
+            publisher.publishEvent(EventChange.updated(response));
+            return response;
+        });
     }
 
     /**
-     * Removes an event by id.
+     * Removes an event by id, leaving a tombstone for delta sync.
      */
     @Transactional
     public void delete(Long id) {
-        eventRepository.deleteById(id);
+        eventRepository.findById(id).ifPresent(event -> {
+            eventRepository.delete(event);
+            tombstoneRepository.save(new EventTombstone(id, LocalDateTime.now()));
+        });
+        publisher.publishEvent(EventChange.deleted(id));
     }
 
     /**
-     * Applies incoming data to the entity instance (new or existing).
+     * The reference rows an event points at, as resolved from {@link ReferenceDataCache}.
      */
-    private void apply(Event event, EventRequest request) {
-        String title = Optional.ofNullable(request.title())
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .orElseThrow(() -> new IllegalArgumentException("Title is required"));
-        event.setTitle(title);
+    record References(OrganizationRef organization, LocationRef location, UserRef creator) {
+    }
+
+    /**
+     * Validates the request and resolves its organization, location and creator from the reference cache.
+     * Runs before the write transaction opens, because resolving a location by name may create it.
+     */
+    References resolve(EventRequest request) {
+        // Cheap checks first, so an invalid request never creates a location.
+        requireTitle(request);
+        requireStart(request);
+        OrganizationRef organization = resolveOrganization(request.organizationId());
+        LocationRef location = resolveLocation(request.locationId(), request.locationName(), organization);
+        UserRef creator = resolveCreator(request.createdById());
+        return new References(organization, location, creator);
+    }
+
+    /**
+     * Applies incoming data to the entity instance (new or existing). The resolved references are attached
+     * unloaded, so they cost no queries.
+     */
+    private void apply(Event event, EventRequest request, References refs) {
+        event.setTitle(requireTitle(request));
         event.setDescription(request.description());
+        event.setStartTime(requireStart(request));
+        event.setEndTime(request.endsAt());
+        event.setStatus(EventStatus.parse(request.status()));
+
+        event.setOrganization(organizationRepository.getReferenceById(refs.organization().id()));
+        event.setLocation(locationRepository.getReferenceById(refs.location().id()));
+        event.setCreatedBy(userRepository.getReferenceById(refs.creator().id()));
+    }
+
+    static String requireTitle(EventRequest request) {
+        return EventSql.requireTitle(request.title());
+    }
 
+    private static LocalDateTime requireStart(EventRequest request) {
         if (request.startsAt() == null) {
             throw new IllegalArgumentException("Start time is required");
         }
-        event.setStartTime(request.startsAt());
-        event.setEndTime(request.endsAt());
-        event.setStatus(parseStatus(request.status()));
-
-        Organization organization = resolveOrganization(request.organizationId());
-        Location location = resolveLocation(request.locationId(), request.locationName(), organization);
-        event.setOrganization(organization);
-        event.setLocation(location);
-
-        User creator = resolveCreator(request.createdById());
-        event.setCreatedBy(creator);
+        return request.startsAt();
+    }
 
-        syncMeals(event, request.meals());
+    /**
+     * Builds the response from the saved event and its resolved references without touching the (unloaded)
+     * associations.
+     */
+    private static EventResponse toResponse(Event event, References refs) {
+        return EventMapper.toResponse(new EventRow(
+                event.getId(),
+                event.getTitle(),
+                event.getDescription(),
+                event.getStatus(),
+                event.getStartTime(),
+                event.getEndTime(),
+                refs.organization().id(),
+                refs.organization().name(),
+                refs.location().id(),
+                refs.location().name(),
+                refs.location().building(),
+                refs.location().room(),
+                refs.creator().id(),
+                refs.creator().displayName(),
+                (long) event.getMeals()));
     }
 
-    private EventStatus parseStatus(String status) {
-        if (status == null || status.isBlank()) {
-            return EventStatus.DRAFT;
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
         }
-        return switch (status.trim().toUpperCase()) {
-            case "ACTIVE" -> EventStatus.ACTIVE;
-            case "PUBLISHED" -> EventStatus.PUBLISHED;
-            case "ENDED", "COMPLETED" -> EventStatus.ENDED;
-            case "CANCELLED" -> EventStatus.CANCELLED;
-            default -> EventStatus.DRAFT;
-        };
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
     }
 
-    private Organization resolveOrganization(Long organizationId) {
+    private OrganizationRef resolveOrganization(Long organizationId) {
         if (organizationId == null) {
             throw new IllegalArgumentException("Organization is required");
         }
-        return organizationRepository.findById(organizationId)
+        return references.organization(organizationId)
                 .orElseThrow(() -> new EntityNotFoundException("Organization %d not found".formatted(organizationId)));
     }
 
     /**
      * Returns an organization-scoped location, creating one if only a name is provided.
      */
-    private Location resolveLocation(Long locationId, String locationName, Organization organization) {
+    private LocationRef resolveLocation(Long locationId, String locationName, OrganizationRef organization) {
         if (locationId != null) {
-            Location location = locationRepository.findById(locationId)
+            LocationRef location = references.location(locationId)
                     .orElseThrow(() -> new EntityNotFoundException("Location %d not found".formatted(locationId)));
-            if (location.getOrganization() == null
-                    || !location.getOrganization().getOrgId().equals(organization.getOrgId())) {
+            if (!organization.id().equals(location.organizationId())) {
                 throw new IllegalArgumentException("Location does not belong to the provided organization");
             }
             return location;
@@ -164,46 +459,32 @@ public class EventService {
                 .filter(s -> !s.isEmpty())
                 .orElseThrow(() -> new IllegalArgumentException("Location name is required"));
 
-        return locationRepository
-                .findByOrganizationOrgIdAndNameIgnoreCase(organization.getOrgId(), sanitizedName)
-                .orElseGet(() -> {
-                    Location location = new Location(organization, sanitizedName);
-                    return locationRepository.save(location);
-                });
+        return references.location(organization.id(), sanitizedName)
+                .orElseGet(() -> locationUpserter.getOrCreate(organization.id(), sanitizedName));
     }
 
-    private User resolveCreator(Long createdById) {
+    private UserRef resolveCreator(Long createdById) {
         if (createdById != null) {
-            return userRepository.findById(createdById)
+            return references.user(createdById)
                     .orElseThrow(() -> new EntityNotFoundException("User %d not found".formatted(createdById)));
         }
-        return userRepository.findFirstByOrderByUserIdAsc()
+        return references.defaultUser()
                 .orElseThrow(() -> new IllegalStateException("No users available"));
     }
 
-    private void syncMeals(Event event, Integer meals) {
+    /**
+     * Gives an event without items its default item, offering {@code meals} portions.
+     */
+    private static void addMeals(Event event, Integer meals) {
         if (meals == null) {
             return;
         }
-        int sanitizedMeals = Math.max(0, meals);
-        EventItem eventItem = event.getEventItems().isEmpty()
-                ? null
-                : event.getEventItems().get(0);
-        if (eventItem == null) {
-            eventItem = new EventItem();
-            eventItem.setEvent(event);
-            eventItem.setName("General Portions");
-            event.getEventItems().add(eventItem);
-        }
-        eventItem.setPortionsAvailable(sanitizedMeals);
-        if (eventItem.getPortionsClaimed() == null) {
-            eventItem.setPortionsClaimed(0);
-        }
-        if (eventItem.getPerUserLimit() == null) {
-            eventItem.setPerUserLimit(0);
-        }
-        if (eventItem.getPortionsClaimed() > sanitizedMeals) {
-            eventItem.setPortionsClaimed(sanitizedMeals);
-        }
+        EventItem eventItem = new EventItem();
+        eventItem.setEvent(event);
+        eventItem.setName(EventSql.DEFAULT_ITEM_NAME);
+        eventItem.setPortionsAvailable(Math.max(0, meals));
+        eventItem.setPortionsClaimed(0);
+        eventItem.setPerUserLimit(0);
+        event.getEventItems().add(eventItem);
     }
 }
@@ -0,0 +1,40 @@
+package backend.backend.events;
+
+/**
+ * Limits and statements shared by every path that writes events, so the single, batch, bulk and synthetic writers
+ * agree on what a valid row is.
+ */
+public final class EventSql {
+
+    /** Matches {@code events.title VARCHAR(160)}. */
+    public static final int MAX_TITLE_LENGTH = 160;
+    /** The item that carries an event's meals when it is given as a plain count. */
+    public static final String DEFAULT_ITEM_NAME = "General Portions";
+
+    /** Parameters: org, location, creator, title, description, start, end, status, created_at, updated_at. */
+    public static final String INSERT_EVENT = """
+            insert into events (org_id, location_id, created_by, title, description, start_time, end_time,
+                                status, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    /** Parameters: event, name, portions available, portions claimed, per-user limit. */
+    public static final String INSERT_ITEM = """
+            insert into event_items (event_id, name, portions_available, portions_claimed, per_user_limit)
+            values (?, ?, ?, ?, ?)""";
+
+    private EventSql() {
+    }
+
+    /**
+     * Trims the title and checks it is present and fits the column.
+     */
+    public static String requireTitle(String title) {
+        String trimmed = title == null ? "" : title.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (trimmed.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title is longer than %d characters".formatted(MAX_TITLE_LENGTH));
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,13 @@
+package backend.backend.events;
+
+import backend.backend.events.calendar.CalendarEntry;
+import backend.backend.events.search.SearchDocument;
+
+import java.util.List;
+
+/**
+ * Published once per committed chunk of a bulk import instead of one {@link EventChange} per event, carrying
+ * just what the search and calendar indexes need. Listeners should react after commit.
+ */
+public record EventsImported(List<SearchDocument> documents, List<CalendarEntry> entries) {
+}
@@ -0,0 +1,10 @@
+package backend.backend.events;
+
+/**
+ * Published whenever portions of an event item are taken or returned outside of {@link EventService}
+ * (claims, cancellations). Like {@link EventChange}, listeners should react after commit.
+ *
+ * @param returned whether portions went back to the item rather than being taken
+ */
+public record PortionsChanged(Long eventId, Long eventItemId, boolean returned) {
+}
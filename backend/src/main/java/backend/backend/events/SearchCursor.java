@@ -0,0 +1,45 @@
+package backend.backend.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a relevance-ranked search result, as issued by the search index. Ranked results have no stable
+ * keyset, so this is an offset.
+ */
+record SearchCursor(int offset) {
+
+    private static final String PREFIX = "rank|";
+
+    String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether the token was issued by the search index, so the next page must come from it as well.
+     */
+    static boolean isRanked(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).startsWith(PREFIX);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(offset);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
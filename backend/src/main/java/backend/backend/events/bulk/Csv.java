@@ -0,0 +1,108 @@
+package backend.backend.events.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reading and writing: comma separated, double-quoted fields may contain commas, quotes
+ * ({@code ""}) and line breaks.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * A parsed record and the (1-based) line it started on.
+     */
+    record Row(long line, List<String> fields) {
+    }
+
+    static final class Reader {
+        private final BufferedReader in;
+        private long lineNumber;
+
+        Reader(BufferedReader in) {
+            this.in = in;
+        }
+
+        /**
+         * Returns the next record, or null at end of input. Blank lines are skipped.
+         */
+        Row next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            long start = lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        fields.add(field.toString());
+                        return new Row(start, fields);
+                    }
+                    // A quoted field continues on the next physical line.
+                    line = in.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + start);
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+        }
+    }
+
+    static void writeRow(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                out.write(escape(value.toString()));
+            }
+        }
+        out.write('\n');
+    }
+
+    private static String escape(String value) {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,85 @@
+package backend.backend.events.bulk;
+
+import backend.backend.events.dto.ImportResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Bulk event transfer. Both directions stream, so request and response size are not bounded by memory.
+ */
+@RestController
+@RequestMapping("api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventBulkController {
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EventBulkService service;
+
+    public EventBulkController(EventBulkService service) {
+        this.service = service;
+    }
+
+    @PostMapping(path = "/import", consumes = {NDJSON, CSV})
+    public ImportResult importEvents(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                     HttpServletRequest request) throws IOException {
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return contentType.isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? service.importCsv(in)
+                : service.importNdjson(in);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format.toLowerCase()) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+        };
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (csv) {
+                service.exportCsv(writer);
+            } else {
+                service.exportNdjson(writer);
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"events.%s\"".formatted(csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleValidation(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
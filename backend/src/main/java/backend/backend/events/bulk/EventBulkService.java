@@ -0,0 +1,514 @@
+package backend.backend.events.bulk;
+
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventSql;
+import backend.backend.events.EventsImported;
+import backend.backend.events.calendar.CalendarEntry;
+import backend.backend.events.dto.BulkEvent;
+import backend.backend.events.dto.BulkEventItem;
+import backend.backend.events.dto.ImportResult;
+import backend.backend.events.search.SearchDocument;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk NDJSON/CSV import and streaming export of events with their items.
+ * <p>
+ * Imports bypass JPA: entities use {@code IDENTITY} ids, which stops Hibernate from batching inserts, so
+ * validated lines are written with plain JDBC batches of {@code events.bulk.batch-size} rows, one transaction
+ * per batch. With {@code rewriteBatchedStatements=true} the MySQL driver sends each batch as a single
+ * multi-row {@code INSERT} and still returns every generated id, which the item batch then references.
+ * Exports stream one result set straight to the response, holding only the current event in memory.
+ */
+@Service
+public class EventBulkService {
+
+    static final String[] CSV_COLUMNS = {
+            "id", "title", "description", "organizationId", "locationId", "createdById",
+            "startsAt", "endsAt", "status", "meals"};
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_ITEM_NAME_LENGTH = 140;
+
+    private static final String EXPORT = """
+            select e.event_id, e.title, e.description, e.org_id, e.location_id, e.created_by,
+                   e.start_time, e.end_time, e.status,
+                   i.event_item_id, i.name, i.portions_available, i.portions_claimed, i.per_user_limit
+            from events e left join event_items i on i.event_id = e.event_id
+            order by e.event_id, i.event_item_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public EventBulkService(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher publisher,
+                            ObjectMapper objectMapper,
+                            @Value("${events.bulk.batch-size:1000}") int batchSize,
+                            @Value("${events.bulk.export-fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL only streams rows with Integer.MIN_VALUE; other drivers treat it as a plain fetch-size hint.
+        this.exportJdbcTemplate.setFetchSize(exportFetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports one {@link BulkEvent} JSON object per line.
+     */
+    public ImportResult importNdjson(BufferedReader in) throws IOException {
+        Importer importer = new Importer(loadReferences());
+        String line;
+        long lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                importer.add(lineNumber, objectMapper.readValue(line, BulkEvent.class));
+            } catch (JsonProcessingException ex) {
+                importer.reject(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Imports CSV with a header row naming the columns (any order, see {@link #CSV_COLUMNS}; {@code id} is
+     * ignored and {@code locationName} may stand in for {@code locationId}). Each row becomes an event with a
+     * single item of {@code meals} portions.
+     */
+    public ImportResult importCsv(BufferedReader in) throws IOException {
+        Csv.Reader csv = new Csv.Reader(in);
+        Csv.Row header = csv.next();
+        if (header == null) {
+            return new ImportResult(0, 0, List.of());
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            columns.put(header.fields().get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("title", "organizationid", "startsat")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+            }
+        }
+
+        Importer importer = new Importer(loadReferences());
+        Csv.Row row;
+        while (true) {
+            try {
+                row = csv.next();
+            } catch (IllegalArgumentException ex) {
+                importer.reject(header.line() + 1, ex.getMessage());
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            try {
+                importer.add(row.line(), fromCsv(row.fields(), columns));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                importer.reject(row.line(), ex.getMessage());
+            }
+        }
+        return importer.finish();
+    }
+
+    public void exportNdjson(Writer out) {
+        export(event -> {
+            out.write(objectMapper.writeValueAsString(event));
+            out.write('\n');
+        });
+    }
+
+    /**
+     * CSV flattens items into the {@code meals} column (portions still remaining), like the event listing.
+     */
+    public void exportCsv(Writer out) throws IOException {
+        Csv.writeRow(out, (Object[]) CSV_COLUMNS);
+        export(event -> Csv.writeRow(out, event.id(), event.title(), event.description(),
+                event.organizationId(), event.locationId(), event.createdById(),
+                event.startsAt(), event.endsAt(), event.status(), event.meals()));
+    }
+
+    private interface EventSink {
+        void accept(BulkEvent event) throws IOException;
+    }
+
+    private void export(EventSink sink) {
+        ExportRowHandler handler = new ExportRowHandler(sink);
+        exportJdbcTemplate.query(EXPORT, handler::processRow);
+        handler.finish();
+    }
+
+    /**
+     * Rows arrive ordered by event, one per item; an event is emitted as soon as the next one starts.
+     */
+    private static final class ExportRowHandler {
+        private final EventSink sink;
+        private BulkEvent current;
+        private List<BulkEventItem> items;
+        private int meals;
+
+        ExportRowHandler(EventSink sink) {
+            this.sink = sink;
+        }
+
+        void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("event_id");
+            if (current == null || current.id() != id) {
+                finish();
+                current = new BulkEvent(id,
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        rs.getLong("org_id"),
+                        rs.getLong("location_id"),
+                        null,
+                        rs.getLong("created_by"),
+                        rs.getObject("start_time", LocalDateTime.class),
+                        rs.getObject("end_time", LocalDateTime.class),
+                        rs.getString("status"),
+                        null,
+                        null);
+                items = new ArrayList<>();
+                meals = 0;
+            }
+            rs.getLong("event_item_id");
+            if (!rs.wasNull()) {
+                BulkEventItem item = new BulkEventItem(
+                        rs.getString("name"),
+                        rs.getInt("portions_available"),
+                        rs.getInt("portions_claimed"),
+                        rs.getInt("per_user_limit"));
+                items.add(item);
+                meals += item.portionsAvailable() - item.portionsClaimed();
+            }
+        }
+
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            BulkEvent event = current;
+            current = null;
+            try {
+                sink.accept(new BulkEvent(event.id(), event.title(), event.description(), event.organizationId(),
+                        event.locationId(), null, event.createdById(), event.startsAt(), event.endsAt(),
+                        event.status(), meals, items));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private static BulkEvent fromCsv(List<String> fields, Map<String, Integer> columns) {
+        String startsAt = csvValue(fields, columns, "startsat");
+        String endsAt = csvValue(fields, columns, "endsat");
+        String meals = csvValue(fields, columns, "meals");
+        return new BulkEvent(null,
+                csvValue(fields, columns, "title"),
+                csvValue(fields, columns, "description"),
+                parseId(csvValue(fields, columns, "organizationid"), "organizationId"),
+                parseId(csvValue(fields, columns, "locationid"), "locationId"),
+                csvValue(fields, columns, "locationname"),
+                parseId(csvValue(fields, columns, "createdbyid"), "createdById"),
+                startsAt == null ? null : LocalDateTime.parse(startsAt),
+                endsAt == null ? null : LocalDateTime.parse(endsAt),
+                csvValue(fields, columns, "status"),
+                meals == null ? null : parseInt(meals, "meals"),
+                null);
+    }
+
+    private static String csvValue(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static Long parseId(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid %s: %s".formatted(column, value));
+        }
+    }
+
+    private static int parseInt(String value, String column) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid %s: %s".formatted(column, value));
+        }
+    }
+
+    /**
+     * Organizations, locations and users are small; loading them once lets every line be validated in memory.
+     */
+    private record References(Map<Long, String> organizations,
+                              Map<Long, LocationRef> locations,
+                              Map<String, Long> locationsByName,
+                              Set<Long> users,
+                              Long defaultUser) {
+    }
+
+    private record LocationRef(long organizationId, String name) {
+    }
+
+    private References loadReferences() {
+        Map<Long, String> organizations = new HashMap<>();
+        jdbcTemplate.query("select org_id, name from organizations", rs -> {
+            organizations.put(rs.getLong(1), rs.getString(2));
+        });
+        Map<Long, LocationRef> locations = new HashMap<>();
+        Map<String, Long> locationsByName = new HashMap<>();
+        jdbcTemplate.query("select location_id, org_id, name from locations", rs -> {
+            LocationRef location = new LocationRef(rs.getLong(2), rs.getString(3));
+            locations.put(rs.getLong(1), location);
+            locationsByName.putIfAbsent(locationKey(location.organizationId(), location.name()), rs.getLong(1));
+        });
+        Set<Long> users = new HashSet<>(jdbcTemplate.queryForList("select user_id from users", Long.class));
+        Long defaultUser = users.stream().min(Long::compare).orElse(null);
+        return new References(organizations, locations, locationsByName, users, defaultUser);
+    }
+
+    private static String locationKey(long organizationId, String name) {
+        return organizationId + ":" + name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A line that passed validation, resolved to the ids it will be written with.
+     */
+    private record Prepared(long line, BulkEvent source, String title, long organizationId, long locationId,
+                            long createdBy, EventStatus status, List<BulkEventItem> items) {
+    }
+
+    /**
+     * Validates lines as they stream in and writes them out one batch at a time.
+     */
+    private final class Importer {
+        private final References references;
+        private final List<Prepared> batch = new ArrayList<>(batchSize);
+        private final List<ImportResult.LineError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        Importer(References references) {
+            this.references = references;
+        }
+
+        void add(long line, BulkEvent event) {
+            try {
+                batch.add(prepare(line, event));
+            } catch (IllegalArgumentException ex) {
+                reject(line, ex.getMessage());
+                return;
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.LineError(line, message));
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            return new ImportResult(imported, rejected, List.copyOf(errors));
+        }
+
+        private Prepared prepare(long line, BulkEvent event) {
+            String title = EventSql.requireTitle(event.title());
+            if (event.startsAt() == null) {
+                throw new IllegalArgumentException("Start time is required");
+            }
+            Long organizationId = event.organizationId();
+            if (organizationId == null) {
+                throw new IllegalArgumentException("Organization is required");
+            }
+            if (!references.organizations().containsKey(organizationId)) {
+                throw new IllegalArgumentException("Organization %d not found".formatted(organizationId));
+            }
+
+            long locationId;
+            if (event.locationId() != null) {
+                LocationRef location = references.locations().get(event.locationId());
+                if (location == null) {
+                    throw new IllegalArgumentException("Location %d not found".formatted(event.locationId()));
+                }
+                if (location.organizationId() != organizationId) {
+                    throw new IllegalArgumentException("Location does not belong to the provided organization");
+                }
+                locationId = event.locationId();
+            } else if (event.locationName() != null && !event.locationName().isBlank()) {
+                Long found = references.locationsByName().get(locationKey(organizationId, event.locationName()));
+                if (found == null) {
+                    throw new IllegalArgumentException("Unknown location \"%s\"".formatted(event.locationName().trim()));
+                }
+                locationId = found;
+            } else {
+                throw new IllegalArgumentException("Location is required");
+            }
+
+            Long createdBy = event.createdById() != null ? event.createdById() : references.defaultUser();
+            if (createdBy == null || !references.users().contains(createdBy)) {
+                throw new IllegalArgumentException("User %s not found".formatted(createdBy));
+            }
+
+            return new Prepared(line, event, title, organizationId, locationId, createdBy,
+                    EventStatus.parse(event.status()), prepareItems(event));
+        }
+
+        private List<BulkEventItem> prepareItems(BulkEvent event) {
+            if (event.items() == null || event.items().isEmpty()) {
+                if (event.meals() == null) {
+                    return List.of();
+                }
+                return List.of(new BulkEventItem(EventSql.DEFAULT_ITEM_NAME, Math.max(0, event.meals()), 0, 0));
+            }
+            List<BulkEventItem> items = new ArrayList<>(event.items().size());
+            for (BulkEventItem item : event.items()) {
+                String name = item.name() == null ? "" : item.name().trim();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Item name is required");
+                }
+                if (name.length() > MAX_ITEM_NAME_LENGTH) {
+                    throw new IllegalArgumentException(
+                            "Item name is longer than %d characters".formatted(MAX_ITEM_NAME_LENGTH));
+                }
+                int available = item.portionsAvailable() == null ? 0 : Math.max(0, item.portionsAvailable());
+                int claimed = item.portionsClaimed() == null ? 0 : Math.clamp(item.portionsClaimed(), 0, available);
+                int limit = item.perUserLimit() == null ? 0 : Math.max(0, item.perUserLimit());
+                items.add(new BulkEventItem(name, available, claimed, limit));
+            }
+            return items;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                imported += batch.size();
+            } catch (DataAccessException ex) {
+                long first = batch.get(0).line();
+                long last = batch.get(batch.size() - 1).line();
+                rejected += batch.size();
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportResult.LineError(first, "Lines %d-%d were not imported: %s"
+                            .formatted(first, last, ex.getMostSpecificCause().getMessage())));
+                }
+            }
+            batch.clear();
+        }
+
+        private void insert(List<Prepared> events) {
+            LocalDateTime now = LocalDateTime.now();
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(EventSql.INSERT_EVENT, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Prepared event = events.get(i);
+                            ps.setLong(1, event.organizationId());
+                            ps.setLong(2, event.locationId());
+                            ps.setLong(3, event.createdBy());
+                            ps.setString(4, event.title());
+                            ps.setString(5, event.source().description());
+                            ps.setObject(6, event.source().startsAt());
+                            if (event.source().endsAt() == null) {
+                                ps.setNull(7, Types.TIMESTAMP);
+                            } else {
+                                ps.setObject(7, event.source().endsAt());
+                            }
+                            ps.setString(8, event.status().name());
+                            ps.setObject(9, now);
+                            ps.setObject(10, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return events.size();
+                        }
+                    },
+                    keys);
+
+            List<Map<String, Object>> generated = keys.getKeyList();
+            if (generated.size() != events.size()) {
+                // A DataAccessException, so flush() reports the batch instead of failing the whole import.
+                throw new IncorrectResultSizeDataAccessException("Expected %d generated ids but the driver returned %d"
+                        .formatted(events.size(), generated.size()), events.size(), generated.size());
+            }
+            List<Object[]> items = new ArrayList<>();
+            List<SearchDocument> documents = new ArrayList<>(events.size());
+            List<CalendarEntry> entries = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                long id = ((Number) generated.get(i).values().iterator().next()).longValue();
+                Prepared event = events.get(i);
+                for (BulkEventItem item : event.items()) {
+                    items.add(new Object[]{id, item.name(), item.portionsAvailable(), item.portionsClaimed(),
+                            item.perUserLimit()});
+                }
+                documents.add(new SearchDocument(id, event.title(), event.source().description(),
+                        references.organizations().get(event.organizationId()),
+                        references.locations().get(event.locationId()).name(),
+                        event.source().startsAt()));
+                entries.add(new CalendarEntry(id, event.status(), event.source().startsAt()));
+            }
+            if (!items.isEmpty()) {
+                jdbcTemplate.batchUpdate(EventSql.INSERT_ITEM, items);
+            }
+            publisher.publishEvent(new EventsImported(documents, entries));
+        }
+    }
+}
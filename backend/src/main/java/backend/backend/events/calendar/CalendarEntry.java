@@ -0,0 +1,14 @@
+package backend.backend.events.calendar;
+
+import backend.backend.entities.Event.EventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the calendar index keeps per event.
+ */
+public record CalendarEntry(
+        Long id,
+        EventStatus status,
+        LocalDateTime startTime) {
+}
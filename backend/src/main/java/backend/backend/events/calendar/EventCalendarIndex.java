@@ -0,0 +1,199 @@
+package backend.backend.events.calendar;
+
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventChange;
+import backend.backend.events.EventsImported;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory calendar of event start times, bucketed by status and hour.
+ * <p>
+ * A window query visits one hash bucket per hour it spans and reads only the matching slots out of each, so
+ * "next few hours" and "today" cost O(hours + results) no matter how many events exist. Like the search index
+ * it is rebuilt from the database once the application is ready and kept current from committed
+ * {@link EventChange}s and {@link EventsImported} batches; it only sees writes made through this instance.
+ */
+@Component
+public class EventCalendarIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCalendarIndex.class);
+
+    private static final Comparator<Slot> SLOT_ORDER =
+            Comparator.comparing(Slot::startTime).thenComparing(Slot::id);
+
+    private final EventRepository eventRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // status -> hour -> events starting in that hour; guarded by lock
+    private Map<EventStatus, Map<LocalDateTime, NavigableSet<Slot>>> buckets = new EnumMap<>(EventStatus.class);
+    private Map<Long, CalendarEntry> entries = new HashMap<>();
+    // writes that arrive while a rebuild is loading; replayed onto the rebuilt index
+    private List<Runnable> pending;
+    private volatile boolean ready;
+
+    private record Slot(LocalDateTime startTime, Long id) {
+    }
+
+    public EventCalendarIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Whether the initial rebuild has finished. Until then callers should fall back to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns up to {@code limit} ids of events with this status starting in {@code [from, to)}, ordered by
+     * start time and then id.
+     */
+    public List<Long> window(EventStatus status, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (!from.isBefore(to) || limit <= 0) {
+            return ids;
+        }
+        Slot lower = new Slot(from, Long.MIN_VALUE);
+        Slot upper = new Slot(to, Long.MIN_VALUE);
+        lock.readLock().lock();
+        try {
+            Map<LocalDateTime, NavigableSet<Slot>> hours = buckets.get(status);
+            if (hours == null) {
+                return ids;
+            }
+            for (LocalDateTime hour = from.truncatedTo(ChronoUnit.HOURS); hour.isBefore(to); hour = hour.plusHours(1)) {
+                NavigableSet<Slot> slots = hours.get(hour);
+                if (slots == null) {
+                    continue;
+                }
+                for (Slot slot : slots.subSet(lower, true, upper, false)) {
+                    ids.add(slot.id());
+                    if (ids.size() == limit) {
+                        return ids;
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        EventResponse snapshot = change.snapshot();
+        CalendarEntry entry = change.type() == EventChange.Type.DELETED || snapshot == null || snapshot.startsAt() == null
+                ? null
+                : new CalendarEntry(snapshot.id(), EventStatus.parse(snapshot.status()), snapshot.startsAt());
+        write(() -> {
+            remove(change.eventId());
+            if (entry != null) {
+                add(entry);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onEventsImported(EventsImported imported) {
+        write(() -> imported.entries().forEach(this::add));
+    }
+
+    /**
+     * Reloads every event from the database and atomically swaps the result in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<CalendarEntry> loaded;
+        try {
+            loaded = eventRepository.findCalendarEntries();
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes made during the load already touched the old maps; run them again on the fresh ones.
+            buckets = new EnumMap<>(EventStatus.class);
+            entries = new HashMap<>();
+            loaded.forEach(this::add);
+            pending.forEach(Runnable::run);
+            pending = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Calendar index rebuilt with {} events", loaded.size());
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // callers hold the write lock
+    private void add(CalendarEntry entry) {
+        if (entry.startTime() == null || entry.status() == null) {
+            return;
+        }
+        remove(entry.id());
+        entries.put(entry.id(), entry);
+        buckets.computeIfAbsent(entry.status(), s -> new HashMap<>())
+                .computeIfAbsent(entry.startTime().truncatedTo(ChronoUnit.HOURS), h -> new TreeSet<>(SLOT_ORDER))
+                .add(new Slot(entry.startTime(), entry.id()));
+    }
+
+    // callers hold the write lock
+    private void remove(Long id) {
+        CalendarEntry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        Map<LocalDateTime, NavigableSet<Slot>> hours = buckets.get(previous.status());
+        LocalDateTime hour = previous.startTime().truncatedTo(ChronoUnit.HOURS);
+        NavigableSet<Slot> slots = hours.get(hour);
+        slots.remove(new Slot(previous.startTime(), id));
+        if (slots.isEmpty()) {
+            hours.remove(hour);
+        }
+    }
+}
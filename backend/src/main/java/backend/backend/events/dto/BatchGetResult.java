@@ -0,0 +1,9 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * Events found for a batch read, in request order, plus the requested ids that do not exist.
+ */
+public record BatchGetResult(List<EventResponse> events, List<Long> missing) {
+}
@@ -0,0 +1,17 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch write. Every request entry gets an item with the status its single-event call would have
+ * answered; only the entries that succeeded were written.
+ */
+public record BatchResult(int succeeded, int failed, List<Item> items) {
+
+    /**
+     * @param index position of the entry in the request
+     * @param event the event after the write; null for deletes and failures
+     */
+    public record Item(int index, Long id, int status, EventResponse event, String error) {
+    }
+}
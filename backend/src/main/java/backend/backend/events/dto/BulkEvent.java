@@ -0,0 +1,27 @@
+package backend.backend.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of a bulk NDJSON import or export. {@code id} is only filled in on export and ignored on import.
+ * An import line without {@code items} gets a single "General Portions" item of {@code meals} portions,
+ * the same as a regular create.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkEvent(
+        Long id,
+        String title,
+        String description,
+        Long organizationId,
+        Long locationId,
+        String locationName,
+        Long createdById,
+        LocalDateTime startsAt,
+        LocalDateTime endsAt,
+        String status,
+        Integer meals,
+        List<BulkEventItem> items) {
+}
@@ -0,0 +1,8 @@
+package backend.backend.events.dto;
+
+public record BulkEventItem(
+        String name,
+        Integer portionsAvailable,
+        Integer portionsClaimed,
+        Integer perUserLimit) {
+}
@@ -0,0 +1,14 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * Events created or updated, and ids of events deleted, since a sync token. Pass {@code next} back as
+ * {@code since}; while {@code hasMore} is true the next call returns more straight away.
+ */
+public record EventChanges(
+        List<EventResponse> changed,
+        List<Long> deleted,
+        String next,
+        boolean hasMore) {
+}
@@ -0,0 +1,9 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * Body of the id-only batch endpoints ({@code batch-get}, {@code batch-delete}).
+ */
+public record EventIds(List<Long> ids) {
+}
@@ -50,6 +50,35 @@ public final class EventMapper {
                 creatorName);
     }
 
+    public static EventResponse toResponse(EventRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        String status = row.status() != null ? row.status().name() : null;
+        String locationDetails = row.locationName() != null
+                ? Location.formatFullLocation(row.locationName(), row.locationBuilding(), row.locationRoom())
+                : null;
+
+        return new EventResponse(
+                row.id(),
+                row.title(),
+                row.description(),
+                status,
+                formatStatusLabel(status),
+                row.startTime(),
+                row.endTime(),
+                Event.formatTime(row.startTime()),
+                row.mealsRemaining() != null ? row.mealsRemaining().intValue() : 0,
+                row.organizationId(),
+                row.organizationName(),
+                row.locationId(),
+                row.locationName(),
+                locationDetails,
+                row.createdById(),
+                row.createdByName());
+    }
+
     private static String formatStatusLabel(String status) {
         if (status == null || status.isBlank()) {
             return "";
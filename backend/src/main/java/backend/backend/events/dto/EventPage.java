@@ -0,0 +1,11 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * One slice of the event listing. {@code nextCursor} is null once the last page has been served.
+ */
+public record EventPage(
+        List<EventResponse> items,
+        String nextCursor) {
+}
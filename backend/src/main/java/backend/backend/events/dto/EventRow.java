@@ -0,0 +1,27 @@
+package backend.backend.events.dto;
+
+import backend.backend.entities.Event.EventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of exactly the columns {@link EventResponse} needs, selected without hydrating entities.
+ * {@code mealsRemaining} is summed over the event's items by the database.
+ */
+public record EventRow(
+        Long id,
+        String title,
+        String description,
+        EventStatus status,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Long organizationId,
+        String organizationName,
+        Long locationId,
+        String locationName,
+        String locationBuilding,
+        String locationRoom,
+        Long createdById,
+        String createdByName,
+        Long mealsRemaining) {
+}
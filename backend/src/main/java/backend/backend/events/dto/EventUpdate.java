@@ -0,0 +1,7 @@
+package backend.backend.events.dto;
+
+/**
+ * One entry of a batch update: the event to change and its new contents, as a single {@code PUT} would send them.
+ */
+public record EventUpdate(Long id, EventRequest event) {
+}
@@ -0,0 +1,12 @@
+package backend.backend.events.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rejected lines are skipped, not fatal; {@code errors} lists the first few.
+ */
+public record ImportResult(long imported, long rejected, List<LineError> errors) {
+
+    public record LineError(long line, String message) {
+    }
+}
@@ -0,0 +1,9 @@
+package backend.backend.events.dto;
+
+/**
+ * An upcoming event and how far its location is from the point that was searched around.
+ */
+public record NearbyEvent(
+        EventResponse event,
+        double distanceKm) {
+}
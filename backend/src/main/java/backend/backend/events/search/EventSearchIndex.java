@@ -0,0 +1,316 @@
+package backend.backend.events.search;
+
+import backend.backend.config.PrimaryReads;
+import backend.backend.events.EventChange;
+import backend.backend.events.EventsImported;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over event title, description, organization name and location name.
+ * Query tokens are prefix-matched against indexed terms and every token must match (AND semantics);
+ * results are ranked by field-weighted term frequency, then by start time.
+ *
+ * <p>The index is rebuilt from the database once the application is ready and kept current from
+ * committed {@link EventChange}s. Events whose organization or location is updated are reloaded after that
+ * commit ({@link EventSearchListener}). It only sees writes made through this instance.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float ORGANIZATION_WEIGHT = 2f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // A prefix hit ("piz" -> "pizza") counts for less than the whole word.
+    private static final float PREFIX_FACTOR = 0.6f;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate reloadTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (event id -> term weight); guarded by lock
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, IndexedEvent> events = new HashMap<>();
+    // changes that arrive while a rebuild is loading; replayed onto the rebuilt index
+    private List<EventChange> pendingChanges;
+    private List<SearchDocument> pendingImports;
+    private volatile boolean ready;
+
+    public EventSearchIndex(EventRepository eventRepository, PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        // Reloads run after the renaming transaction has committed, so they need one of their own.
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransaction.setReadOnly(true);
+    }
+
+    private record IndexedEvent(Map<String, Float> terms, LocalDateTime startTime) {
+    }
+
+    private record Hit(Long id, float score, LocalDateTime startTime) {
+    }
+
+    /**
+     * Whether the initial rebuild has finished. Until then callers should fall back to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns up to {@code limit} matching event ids, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Float>> term
+                        : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                    float factor = term.getKey().equals(token) ? 1f : PREFIX_FACTOR;
+                    term.getValue().forEach((id, weight) -> tokenScores.merge(id, weight * factor, Math::max));
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score, events.get(id).startTime())));
+            return hits.stream()
+                    .sorted(Comparator.comparing(Hit::score).reversed()
+                            .thenComparing(Hit::startTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(Hit::id))
+                    .limit(limit)
+                    .map(Hit::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        lock.writeLock().lock();
+        try {
+            apply(change, postings, events);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEventsImported(EventsImported imported) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : imported.documents()) {
+                add(document, postings, events);
+            }
+            if (pendingImports != null) {
+                pendingImports.addAll(imported.documents());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void organizationUpdated(Long organizationId) {
+        reloadAfterCommit(() -> eventRepository.findSearchDocumentsByOrganization(organizationId));
+    }
+
+    void locationUpdated(Long locationId) {
+        reloadAfterCommit(() -> eventRepository.findSearchDocumentsByLocation(locationId));
+    }
+
+    /**
+     * Reloads every event from the database and atomically swaps the result in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            pendingImports = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Float>> freshPostings = new TreeMap<>();
+        Map<Long, IndexedEvent> freshEvents = new HashMap<>();
+        try {
+            for (SearchDocument document : eventRepository.findSearchDocuments()) {
+                add(document, freshPostings, freshEvents);
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+                pendingImports = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : pendingImports) {
+                replace(document, freshPostings, freshEvents);
+            }
+            for (EventChange change : pendingChanges) {
+                apply(change, freshPostings, freshEvents);
+            }
+            pendingChanges = null;
+            pendingImports = null;
+            postings = freshPostings;
+            events = freshEvents;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index rebuilt with {} events and {} terms", freshEvents.size(), freshPostings.size());
+    }
+
+    private void reloadAfterCommit(Supplier<List<SearchDocument>> query) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload(query);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload(query);
+            }
+        });
+    }
+
+    private void reload(Supplier<List<SearchDocument>> query) {
+        List<SearchDocument> documents;
+        try {
+            // From the primary, which is sure to have the rename that triggered this.
+            documents = PrimaryReads.call(() -> reloadTransaction.execute(status -> query.get()));
+        } catch (RuntimeException ex) {
+            log.warn("Reindexing events after a reference data update failed", ex);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : documents) {
+                replace(document, postings, events);
+            }
+            if (pendingImports != null) {
+                pendingImports.addAll(documents);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(EventChange change,
+                              NavigableMap<String, Map<Long, Float>> postings,
+                              Map<Long, IndexedEvent> events) {
+        remove(change.eventId(), postings, events);
+        EventResponse snapshot = change.snapshot();
+        if (change.type() != EventChange.Type.DELETED && snapshot != null) {
+            add(new SearchDocument(
+                    snapshot.id(),
+                    snapshot.title(),
+                    snapshot.description(),
+                    snapshot.organizationName(),
+                    snapshot.locationName(),
+                    snapshot.startsAt()), postings, events);
+        }
+    }
+
+    private static void add(SearchDocument document,
+                            NavigableMap<String, Map<Long, Float>> postings,
+                            Map<Long, IndexedEvent> events) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, document.title(), TITLE_WEIGHT);
+        addField(terms, document.organizationName(), ORGANIZATION_WEIGHT);
+        addField(terms, document.locationName(), LOCATION_WEIGHT);
+        addField(terms, document.description(), DESCRIPTION_WEIGHT);
+
+        events.put(document.id(), new IndexedEvent(terms, document.startTime()));
+        terms.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), weight));
+    }
+
+    private static void replace(SearchDocument document,
+                                NavigableMap<String, Map<Long, Float>> postings,
+                                Map<Long, IndexedEvent> events) {
+        remove(document.id(), postings, events);
+        add(document, postings, events);
+    }
+
+    private static void remove(Long id,
+                               NavigableMap<String, Map<Long, Float>> postings,
+                               Map<Long, IndexedEvent> events) {
+        IndexedEvent previous = events.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a field's contribution; repeated occurrences add with diminishing returns.
+     */
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        frequencies.forEach((term, tf) ->
+                terms.merge(term, weight * (1f + (float) Math.log(tf)), Float::sum));
+    }
+}
@@ -0,0 +1,34 @@
+package backend.backend.events.search;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener that reindexes an organization's or location's events when the row is updated, since their names
+ * are indexed with every event. Like {@code ReferenceDataListener}, the index is looked up lazily to stay out of
+ * the entity manager factory's dependency cycle.
+ */
+public class EventSearchListener {
+
+    private final ObjectProvider<EventSearchIndex> indexProvider;
+
+    public EventSearchListener(ObjectProvider<EventSearchIndex> indexProvider) {
+        this.indexProvider = indexProvider;
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        EventSearchIndex index = indexProvider.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        switch (entity) {
+            case Organization organization -> index.organizationUpdated(organization.getOrgId());
+            case Location location -> index.locationUpdated(location.getLocationId());
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package backend.backend.events.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * The searchable fields of one event, as loaded for a full index rebuild.
+ */
+public record SearchDocument(
+        Long id,
+        String title,
+        String description,
+        String organizationName,
+        String locationName,
+        LocalDateTime startTime) {
+}
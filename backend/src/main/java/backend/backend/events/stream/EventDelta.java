@@ -0,0 +1,23 @@
+package backend.backend.events.stream;
+
+import backend.backend.events.dto.EventResponse;
+
+/**
+ * The parts of an event that change often, pushed to stream subscribers. Clients that see an id they do not
+ * know yet should fetch the full event.
+ */
+public record EventDelta(
+        Long eventId,
+        String status,
+        String statusLabel,
+        Integer meals,
+        boolean deleted) {
+
+    static EventDelta of(EventResponse event) {
+        return new EventDelta(event.id(), event.status(), event.statusLabel(), event.meals(), false);
+    }
+
+    static EventDelta deleted(Long eventId) {
+        return new EventDelta(eventId, null, null, null, true);
+    }
+}
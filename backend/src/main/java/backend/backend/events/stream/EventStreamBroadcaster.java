@@ -0,0 +1,290 @@
+package backend.backend.events.stream;
+
+import backend.backend.config.PrimaryReads;
+import backend.backend.events.EventChange;
+import backend.backend.events.EventsImported;
+import backend.backend.events.PortionsChanged;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventRow;
+import backend.backend.repositories.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes {@link EventDelta}s to server-sent-event subscribers.
+ * <p>
+ * Committed writes only mark their event dirty. A flusher wakes every {@code events.stream.flush-interval},
+ * loads the current state of all dirty events in one query and fans the deltas out, so a burst of claims on
+ * one event costs one delta per interval rather than one per claim. Each subscriber keeps its own pending map
+ * keyed by event id with at most one send in flight: while a slow client is being written to, newer deltas
+ * simply replace older ones, and a client that falls too far behind is told to resync instead of buffering
+ * without bound. Sends run on virtual threads, one per subscriber with something to send, so a client whose
+ * socket blocks parks only its own thread instead of holding up everyone else's deltas. Idle subscribers hold
+ * no thread, only their emitter and an empty map.
+ */
+@Component
+public class EventStreamBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStreamBroadcaster.class);
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+    private final int maxPending;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean resyncRequested;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "event-stream-flusher"));
+    private final ExecutorService senders;
+
+    public EventStreamBroadcaster(EventRepository eventRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${events.stream.flush-interval:250ms}") Duration flushInterval,
+                                  @Value("${events.stream.heartbeat-interval:25s}") Duration heartbeatInterval,
+                                  @Value("${events.stream.timeout:30m}") Duration timeout,
+                                  @Value("${events.stream.max-pending:500}") int maxPending) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("event-stream-sender-", 0).factory());
+
+        scheduler.scheduleWithFixedDelay(this::flushSafely,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        // Registered first, so a client that has seen the headers is already counted and gets every later delta.
+        subscribers.add(subscriber);
+        try {
+            // Commits the response headers so the client's EventSource opens immediately.
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException ex) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(ex);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        dirty.add(change.eventId());
+    }
+
+    @TransactionalEventListener
+    public void onPortionsChanged(PortionsChanged change) {
+        dirty.add(change.eventId());
+    }
+
+    /**
+     * Ends open streams as soon as shutdown starts; graceful web server shutdown would otherwise wait on them.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeSubscribers() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * A bulk import can touch far more events than a client would want deltas for; have everyone reload instead.
+     */
+    @TransactionalEventListener
+    public void onEventsImported(EventsImported imported) {
+        resyncRequested = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Event stream flush failed", ex);
+        }
+    }
+
+    private void flush() {
+        if (resyncRequested) {
+            resyncRequested = false;
+            dirty.clear();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.requestResync();
+                schedule(subscriber);
+            }
+            return;
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Map<Long, EventRow> rows = new LinkedHashMap<>();
+        // From the primary: a replica may not have the write yet, and a missing row would go out as a deletion.
+        PrimaryReads.run(() -> readOnlyTransaction.executeWithoutResult(status ->
+                eventRepository.findRowsByIdIn(ids).forEach(row -> rows.put(row.id(), row))));
+        List<EventDelta> deltas = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            EventRow row = rows.get(id);
+            deltas.add(row != null ? EventDelta.of(EventMapper.toResponse(row)) : EventDelta.deleted(id));
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(deltas);
+            schedule(subscriber);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Subscriber.Batch batch = subscriber.take();
+            if (batch.isEmpty()) {
+                subscriber.sending.set(false);
+                // Something may have arrived between take() and clearing the flag.
+                if (!subscriber.hasWork() || !subscriber.sending.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                if (batch.resync()) {
+                    subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+                }
+                if (!batch.deltas().isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().name("deltas").data(batch.deltas()));
+                }
+                if (batch.heartbeat()) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the emitter callbacks may not fire for a broken pipe.
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(ex);
+                subscriber.sending.set(false);
+                return;
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        // guarded by this
+        private final LinkedHashMap<Long, EventDelta> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+
+        private record Batch(List<EventDelta> deltas, boolean resync, boolean heartbeat) {
+            boolean isEmpty() {
+                return deltas.isEmpty() && !resync && !heartbeat;
+            }
+        }
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(List<EventDelta> deltas) {
+            if (resync) {
+                return;
+            }
+            for (EventDelta delta : deltas) {
+                // Re-insert so the map stays ordered by most recent change.
+                pending.remove(delta.eventId());
+                pending.put(delta.eventId(), delta);
+            }
+            if (pending.size() > maxPending) {
+                pending.clear();
+                resync = true;
+            }
+        }
+
+        synchronized void requestResync() {
+            pending.clear();
+            resync = true;
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized boolean hasWork() {
+            return !pending.isEmpty() || resync || heartbeat;
+        }
+
+        synchronized Batch take() {
+            Batch batch = new Batch(new ArrayList<>(pending.values()), resync, heartbeat);
+            pending.clear();
+            resync = false;
+            heartbeat = false;
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package backend.backend.events.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventStreamController {
+
+    private final EventStreamBroadcaster broadcaster;
+
+    public EventStreamController(EventStreamBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Server-sent events: {@code deltas} carries a JSON array of {@link EventDelta}s, {@code resync} asks the
+     * client to refetch the list because it fell too far behind.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return broadcaster.subscribe();
+    }
+}
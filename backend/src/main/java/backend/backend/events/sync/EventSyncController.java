@@ -0,0 +1,41 @@
+package backend.backend.events.sync;
+
+import backend.backend.events.dto.EventChanges;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventSyncController {
+
+    private final EventSyncService service;
+
+    public EventSyncController(EventSyncService service) {
+        this.service = service;
+    }
+
+    /**
+     * Events changed since {@code since} (omit it for a full sync). Keep calling with {@code next} until
+     * {@code hasMore} is false, then poll with the last {@code next}. 410 means the token is too old to resume.
+     */
+    @GetMapping("/changes")
+    public EventChanges changes(@RequestParam(required = false) String since,
+                                @RequestParam(required = false) Integer limit) {
+        return service.changes(since, limit);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleValidation(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public Map<String, String> handleExpired(SyncTokenExpiredException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
@@ -0,0 +1,228 @@
+package backend.backend.events.sync;
+
+import backend.backend.events.PortionsChanged;
+import backend.backend.events.dto.EventChanges;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventRow;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.EventTombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for clients that keep a local copy of the events: everything created, updated or deleted after a
+ * sync token, in (changed_at, event_id) order, read through {@code idx_evt_updated} and {@code idx_tomb_deleted}
+ * so a poll costs O(changes) rather than O(table).
+ * <p>
+ * Only positions older than {@code events.changes.settle} are served. A write stamps {@code updated_at} before it
+ * commits, and a replica may still be catching up, so the newest positions can briefly be missing; holding them
+ * back until they settle keeps a token from skipping past them. Claims change an event's meals without touching
+ * the event row, so {@link PortionsChanged} marks the event dirty and a flusher bumps {@code updated_at} every
+ * {@code events.changes.touch-interval}. Tombstones older than {@code events.changes.tombstone-retention} are
+ * purged. A token ages by its {@link SyncToken#floor() floor}, the settled horizon of the last response that left
+ * nothing behind, not by its position: a client that synced recently is current even if the last row it saw
+ * changed years ago. Tokens whose floor is older than the retention are refused with
+ * {@link SyncTokenExpiredException}.
+ */
+@Service
+public class EventSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSyncService.class);
+
+    private static final int TOUCH_CHUNK = 1000;
+    private static final Comparator<SyncEntry> ORDER =
+            Comparator.comparing(SyncEntry::changedAt).thenComparing(SyncEntry::eventId);
+
+    private final EventRepository eventRepository;
+    private final EventTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Duration settle;
+    private final Duration retention;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EventSyncService(EventRepository eventRepository,
+                            EventTombstoneRepository tombstoneRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${events.changes.settle:5s}") Duration settle,
+                            @Value("${events.changes.tombstone-retention:30d}") Duration retention,
+                            @Value("${events.changes.touch-interval:1s}") Duration touchInterval,
+                            @Value("${events.page.default-size:50}") int defaultPageSize,
+                            @Value("${events.page.max-size:200}") int maxPageSize) {
+        this.eventRepository = eventRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.settle = settle;
+        this.retention = retention;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        scheduler.scheduleWithFixedDelay(this::touchSafely,
+                touchInterval.toMillis(), touchInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, 1, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Returns up to {@code limit} changes after {@code since}. Without a token every event is returned (a full
+     * sync, paged the same way); deletions from before it started are skipped, since the client never had those.
+     */
+    public EventChanges changes(String since, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(settle);
+        SyncToken from = since == null || since.isBlank()
+                ? new SyncToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0L, settled)
+                : SyncToken.decode(since);
+        if (from.floor().isBefore(now.minus(retention))) {
+            throw new SyncTokenExpiredException("Sync token has expired; sync again without since");
+        }
+        return readOnlyTransaction.execute(status -> load(from, settled, pageSize));
+    }
+
+    @TransactionalEventListener
+    public void onPortionsChanged(PortionsChanged change) {
+        dirty.add(change.eventId());
+    }
+
+    /**
+     * Bumps {@code updated_at} of every event marked dirty so far. Called by the flusher; public so tests need
+     * not wait for it.
+     */
+    public synchronized void touch() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (int from = 0; from < ids.size(); from += TOUCH_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + TOUCH_CHUNK));
+                writeTransaction.executeWithoutResult(status -> eventRepository.touch(chunk, now));
+            }
+        } catch (RuntimeException ex) {
+            dirty.addAll(ids);
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops tombstones no valid token can still need.
+     */
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        return writeTransaction.execute(status -> tombstoneRepository.purgeBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private EventChanges load(SyncToken from, LocalDateTime settled, int pageSize) {
+        // One extra from each side tells whether anything is left after this page.
+        Limit fetch = Limit.of(pageSize + 1);
+        List<SyncEntry> updated = eventRepository.findChangedSince(from.time(), from.id(), settled, fetch);
+        // Tombstones at or below the floor are already delivered or irrelevant, so start past whichever is later.
+        List<SyncEntry> deleted = from.floor().isBefore(from.time())
+                ? tombstoneRepository.findDeletedSince(from.time(), from.id(), settled, fetch)
+                : tombstoneRepository.findDeletedSince(from.floor(), Long.MAX_VALUE, settled, fetch);
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        SyncEntry last = null;
+        int u = 0;
+        int d = 0;
+        while (changedIds.size() + deletedIds.size() < pageSize && (u < updated.size() || d < deleted.size())) {
+            boolean takeDeleted = u == updated.size()
+                    || (d < deleted.size() && ORDER.compare(deleted.get(d), updated.get(u)) < 0);
+            last = takeDeleted ? deleted.get(d++) : updated.get(u++);
+            (takeDeleted ? deletedIds : changedIds).add(last.eventId());
+        }
+        boolean hasMore = u < updated.size() || d < deleted.size();
+
+        List<EventResponse> changed = List.of();
+        if (!changedIds.isEmpty()) {
+            Map<Long, EventRow> rows = eventRepository.findRowsByIdIn(changedIds).stream()
+                    .collect(Collectors.toMap(EventRow::id, Function.identity()));
+            changed = changedIds.stream().map(rows::get).filter(Objects::nonNull).map(EventMapper::toResponse).toList();
+        }
+
+        // Once nothing is left up to the settled horizon, every tombstone up to it has been delivered.
+        LocalDateTime floor = hasMore || settled.isBefore(from.floor()) ? from.floor() : settled;
+        SyncToken next;
+        if (last != null) {
+            next = SyncToken.after(last, floor);
+        } else if (from.time().isBefore(settled)) {
+            // Nothing changed up to the settled horizon, so the token can move up to it.
+            next = new SyncToken(settled, 0L, floor);
+        } else {
+            next = new SyncToken(from.time(), from.id(), floor);
+        }
+        return new EventChanges(changed, deletedIds, next.encode(), hasMore);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private void touchSafely() {
+        try {
+            touch();
+        } catch (RuntimeException ex) {
+            log.warn("Touching events for sync failed", ex);
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} event tombstones", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Tombstone purge failed", ex);
+        }
+    }
+}
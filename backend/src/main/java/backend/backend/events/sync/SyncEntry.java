@@ -0,0 +1,12 @@
+package backend.backend.events.sync;
+
+import java.time.LocalDateTime;
+
+/**
+ * One position in the (changed_at, event_id) sync ordering: an event's {@code updated_at} or a tombstone's
+ * {@code deleted_at}.
+ */
+public record SyncEntry(
+        Long eventId,
+        LocalDateTime changedAt) {
+}
@@ -0,0 +1,42 @@
+package backend.backend.events.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The last (changed_at, event_id) position a client has seen, plus {@code floor}: every tombstone deleted at or
+ * before it has already reached the client, or is for an event the client never had. The position can be old
+ * (it is the last row's {@code updated_at}); the floor is what ages the token. Clients only ever see the encoded
+ * token.
+ */
+record SyncToken(LocalDateTime time, Long id, LocalDateTime floor) {
+
+    private static final char SEPARATOR = '|';
+
+    static SyncToken after(SyncEntry entry, LocalDateTime floor) {
+        return new SyncToken(entry.changedAt(), entry.eventId(), floor);
+    }
+
+    String encode() {
+        String raw = time.toString() + SEPARATOR + id + SEPARATOR + floor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncToken(
+                    LocalDateTime.parse(parts[0]),
+                    Long.valueOf(parts[1]),
+                    LocalDateTime.parse(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package backend.backend.events.sync;
+
+/**
+ * The token predates the tombstone retention, so deletions since then may be lost; the client must resync fully.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package backend.backend.impact;
+
+import backend.backend.entities.Event.EventStatus;
+
+/**
+ * What one event adds to its organization's and location's impact counters.
+ */
+public record EventContribution(Long eventId, Long organizationId, Long locationId, EventStatus status,
+                                long portionsOffered, long portionsClaimed, long portionsRedeemed) {
+}
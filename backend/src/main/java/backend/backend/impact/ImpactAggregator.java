@@ -0,0 +1,286 @@
+package backend.backend.impact;
+
+import backend.backend.claims.ClaimsRedeemed;
+import backend.backend.config.PrimaryReads;
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventChange;
+import backend.backend.events.EventsImported;
+import backend.backend.events.PortionsChanged;
+import backend.backend.events.search.SearchDocument;
+import backend.backend.impact.dto.ImpactSummary;
+import backend.backend.repositories.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-organization and per-location impact counters, kept in memory so a dashboard read is a map lookup.
+ * <p>
+ * The contribution of every counted event is remembered next to the totals. Committed writes (event changes,
+ * claims, cancellations, redemptions, imports) only mark their event dirty; a flusher wakes every {@code impact.flush-interval},
+ * reloads the contributions of the dirty events in one query and applies the difference to the totals. Reapplying
+ * a contribution is idempotent, so a write seen twice, or seen both by a flush and a rebuild, is harmless.
+ * {@link #rebuild()} recomputes everything from the database; it runs once the application is ready and can be
+ * triggered again through the {@code impact} actuator endpoint if the counters are ever suspected to drift.
+ */
+@Component
+public class ImpactAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ImpactAggregator.class);
+
+    private static final int FLUSH_CHUNK = 1000;
+
+    static final Set<EventStatus> COUNTED = EnumSet.complementOf(EnumSet.of(EventStatus.DRAFT, EventStatus.CANCELLED));
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration flushInterval;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "impact-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // guarded by lock
+    private Map<Long, EventContribution> contributions = new HashMap<>();
+    private Map<Long, Counters> byOrganization = new HashMap<>();
+    private Map<Long, Counters> byLocation = new HashMap<>();
+    private volatile boolean ready;
+    // guarded by this
+    private boolean flushing;
+
+    private static final class Counters {
+        private long events;
+        private long eventsEnded;
+        private long portionsOffered;
+        private long portionsClaimed;
+        private long portionsRedeemed;
+
+        void add(EventContribution contribution, int sign) {
+            events += sign;
+            if (contribution.status() == EventStatus.ENDED) {
+                eventsEnded += sign;
+            }
+            portionsOffered += sign * contribution.portionsOffered();
+            portionsClaimed += sign * contribution.portionsClaimed();
+            portionsRedeemed += sign * contribution.portionsRedeemed();
+        }
+
+        boolean isEmpty() {
+            return events == 0;
+        }
+
+        ImpactSummary toSummary() {
+            return summary(events, eventsEnded, portionsOffered, portionsClaimed, portionsRedeemed);
+        }
+    }
+
+    public ImpactAggregator(EventRepository eventRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${impact.flush-interval:1s}") Duration flushInterval) {
+        this.eventRepository = eventRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Whether the initial rebuild has finished. Until then reads are summed from the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ImpactSummary organization(Long organizationId) {
+        if (!ready) {
+            return summarize(readOnlyTransaction.execute(status ->
+                    eventRepository.findContributionsByOrganization(organizationId, COUNTED)));
+        }
+        return read(byOrganization, organizationId);
+    }
+
+    public ImpactSummary location(Long locationId) {
+        if (!ready) {
+            return summarize(readOnlyTransaction.execute(status ->
+                    eventRepository.findContributionsByLocation(locationId, COUNTED)));
+        }
+        return read(byLocation, locationId);
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        dirty.add(change.eventId());
+    }
+
+    @TransactionalEventListener
+    public void onPortionsChanged(PortionsChanged change) {
+        dirty.add(change.eventId());
+    }
+
+    @TransactionalEventListener
+    public void onClaimsRedeemed(ClaimsRedeemed redeemed) {
+        dirty.addAll(redeemed.eventIds());
+    }
+
+    @TransactionalEventListener
+    public void onEventsImported(EventsImported imported) {
+        for (SearchDocument document : imported.documents()) {
+            dirty.add(document.id());
+        }
+    }
+
+    /**
+     * Applies every committed write seen so far. Called by the flusher; public so tests need not wait for it.
+     */
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        Map<Long, EventContribution> current = new HashMap<>();
+        try {
+            // A large import can dirty far more events than one IN list should carry.
+            for (int from = 0; from < ids.size(); from += FLUSH_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + FLUSH_CHUNK));
+                // From the primary: a replica may predate the write, and the totals would keep its stale figures.
+                PrimaryReads.call(() -> readOnlyTransaction.execute(status ->
+                                eventRepository.findContributionsByIdIn(chunk)))
+                        .forEach(contribution -> current.put(contribution.eventId(), contribution));
+            }
+        } catch (RuntimeException ex) {
+            dirty.addAll(ids);
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                EventContribution contribution = current.get(id);
+                // Deleted, drafted or cancelled events no longer count.
+                apply(id, contribution != null && COUNTED.contains(contribution.status()) ? contribution : null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recomputes every counter from the database and swaps the result in. The first run also starts the flusher.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        // Events dirtied before this point are covered by the load below; later ones by the next flush.
+        List<EventContribution> loaded = readOnlyTransaction.execute(status -> eventRepository.findContributions(COUNTED));
+
+        Map<Long, EventContribution> rebuiltContributions = new HashMap<>();
+        Map<Long, Counters> rebuiltOrganizations = new HashMap<>();
+        Map<Long, Counters> rebuiltLocations = new HashMap<>();
+        for (EventContribution contribution : loaded) {
+            rebuiltContributions.put(contribution.eventId(), contribution);
+            rebuiltOrganizations.computeIfAbsent(contribution.organizationId(), id -> new Counters()).add(contribution, 1);
+            rebuiltLocations.computeIfAbsent(contribution.locationId(), id -> new Counters()).add(contribution, 1);
+        }
+
+        lock.writeLock().lock();
+        try {
+            contributions = rebuiltContributions;
+            byOrganization = rebuiltOrganizations;
+            byLocation = rebuiltLocations;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Impact counters rebuilt from {} events", loaded.size());
+
+        // Until the first rebuild there are no totals to apply a flush to.
+        if (!flushing) {
+            flushing = true;
+            scheduler.scheduleWithFixedDelay(this::flushSafely,
+                    flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Impact counter flush failed", ex);
+        }
+    }
+
+    private ImpactSummary read(Map<Long, Counters> counters, Long id) {
+        lock.readLock().lock();
+        try {
+            Counters found = counters.get(id);
+            return found == null ? summary(0, 0, 0, 0, 0) : found.toSummary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // callers hold the write lock
+    private void apply(Long eventId, EventContribution contribution) {
+        EventContribution previous = contribution == null
+                ? contributions.remove(eventId)
+                : contributions.put(eventId, contribution);
+        if (previous != null) {
+            adjust(byOrganization, previous.organizationId(), previous, -1);
+            adjust(byLocation, previous.locationId(), previous, -1);
+        }
+        if (contribution != null) {
+            adjust(byOrganization, contribution.organizationId(), contribution, 1);
+            adjust(byLocation, contribution.locationId(), contribution, 1);
+        }
+    }
+
+    private static ImpactSummary summarize(List<EventContribution> contributions) {
+        Counters counters = new Counters();
+        contributions.forEach(contribution -> counters.add(contribution, 1));
+        return counters.toSummary();
+    }
+
+    private static void adjust(Map<Long, Counters> counters, Long id, EventContribution contribution, int sign) {
+        Counters target = counters.computeIfAbsent(id, key -> new Counters());
+        target.add(contribution, sign);
+        if (target.isEmpty()) {
+            counters.remove(id);
+        }
+    }
+
+    private static ImpactSummary summary(long events, long eventsEnded, long offered, long claimed, long redeemed) {
+        return new ImpactSummary(events, eventsEnded, offered, claimed, redeemed,
+                claimed == 0 ? 0 : (double) redeemed / claimed);
+    }
+}
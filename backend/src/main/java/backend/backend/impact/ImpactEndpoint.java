@@ -0,0 +1,28 @@
+package backend.backend.impact;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Recovery hook on the management port: {@code POST /actuator/impact} recomputes the impact counters from scratch.
+ */
+@Component
+@Endpoint(id = "impact")
+public class ImpactEndpoint {
+
+    private final ImpactAggregator aggregator;
+
+    public ImpactEndpoint(ImpactAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long started = System.nanoTime();
+        aggregator.rebuild();
+        return Map.of("rebuilt", true, "tookMillis", (System.nanoTime() - started) / 1_000_000);
+    }
+}
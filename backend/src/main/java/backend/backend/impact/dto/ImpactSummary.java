@@ -0,0 +1,15 @@
+package backend.backend.impact.dto;
+
+/**
+ * Lifetime totals for an organization or location. Drafts and cancelled events are not counted.
+ *
+ * @param redemptionRate redeemed portions over claimed portions, 0 when nothing has been claimed
+ */
+public record ImpactSummary(
+        long events,
+        long eventsEnded,
+        long portionsOffered,
+        long portionsClaimed,
+        long portionsRedeemed,
+        double redemptionRate) {
+}
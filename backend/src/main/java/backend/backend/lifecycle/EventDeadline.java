@@ -0,0 +1,14 @@
+package backend.backend.lifecycle;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * When an open event is due to end: its end time, or a fixed duration after its start if it has none.
+ */
+public record EventDeadline(Long eventId, LocalDateTime startTime, LocalDateTime endTime) {
+
+    LocalDateTime at(Duration openEndedDuration) {
+        return endTime != null ? endTime : startTime.plus(openEndedDuration);
+    }
+}
@@ -0,0 +1,249 @@
+package backend.backend.lifecycle;
+
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventChange;
+import backend.backend.events.EventsImported;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ends events whose time has passed and expires the claims nobody redeemed.
+ * <p>
+ * Upcoming deadlines sit in a priority queue and a single timer is armed for the earliest one. When it fires,
+ * a sweep ends <em>every</em> due event rather than just the queued ones, so the queue only decides when to
+ * look and a stale or missing entry costs at most one refill interval. Each sweep works in chunks of
+ * {@code lifecycle.chunk-size} ids, one short transaction per chunk: a conditional set-based {@code UPDATE} on
+ * the events, one on their open claims, then an {@link EventChange} per ended event so caches, indexes and live
+ * streams see the new status. Every refill interval the queue is topped up with deadlines in the next interval
+ * and a full sweep runs as a safety net. The queue holds at most one deadline per event: offering an event again
+ * replaces its entry, so repeated refills and edits do not pile up copies.
+ */
+@Component
+@ConditionalOnProperty(name = "lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class EventLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLifecycleScheduler.class);
+
+    private static final List<EventStatus> OPEN = List.of(EventStatus.PUBLISHED, EventStatus.ACTIVE);
+
+    private final EventRepository eventRepository;
+    private final ClaimRepository claimRepository;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration refillInterval;
+    private final Duration openEndedDuration;
+    private final Counter eventsEnded;
+    private final Counter claimsExpired;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // guarded by this
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparing(Deadline::at));
+    private final Map<Long, LocalDateTime> queued = new HashMap<>();
+    private ScheduledFuture<?> wakeup;
+    private LocalDateTime wakeupAt;
+
+    private record Deadline(LocalDateTime at, Long eventId) {
+    }
+
+    /**
+     * What one sweep changed.
+     */
+    public record SweepResult(int eventsEnded, int claimsExpired) {
+    }
+
+    public EventLifecycleScheduler(EventRepository eventRepository,
+                                   ClaimRepository claimRepository,
+                                   ApplicationEventPublisher publisher,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry,
+                                   @Value("${lifecycle.chunk-size:500}") int chunkSize,
+                                   @Value("${lifecycle.refill-interval:5m}") Duration refillInterval,
+                                   @Value("${lifecycle.open-ended-duration:2h}") Duration openEndedDuration) {
+        this.eventRepository = eventRepository;
+        this.claimRepository = claimRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.refillInterval = refillInterval;
+        this.openEndedDuration = openEndedDuration;
+        this.eventsEnded = Counter.builder("lifecycle.transitions").tag("to", "ENDED")
+                .description("Events and claims moved by the lifecycle scheduler")
+                .register(registry);
+        this.claimsExpired = Counter.builder("lifecycle.transitions").tag("to", "EXPIRED")
+                .description("Events and claims moved by the lifecycle scheduler")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refillSafely, 0, refillInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onEventChange(EventChange change) {
+        EventResponse snapshot = change.snapshot();
+        if (snapshot == null || snapshot.startsAt() == null || !OPEN.contains(EventStatus.parse(snapshot.status()))) {
+            return;
+        }
+        offer(new EventDeadline(snapshot.id(), snapshot.startsAt(), snapshot.endsAt()), LocalDateTime.now());
+    }
+
+    @TransactionalEventListener
+    public void onEventsImported(EventsImported imported) {
+        // Import entries carry no end time; reloading the next interval's deadlines is one indexed query.
+        scheduler.execute(this::refillSafely);
+    }
+
+    /**
+     * Ends every open event that is due as of {@code now}, one chunk per transaction.
+     */
+    public SweepResult sweep(LocalDateTime now) {
+        LocalDateTime openEndedCutoff = now.minus(openEndedDuration);
+        int ended = 0;
+        int expired = 0;
+        while (true) {
+            SweepResult chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = eventRepository.findDueIds(OPEN, now, openEndedCutoff, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                int events = eventRepository.endDue(ids, EventStatus.ENDED, OPEN, now, openEndedCutoff);
+                int claims = claimRepository.transitionForEvents(ids, EventStatus.ENDED,
+                        ClaimStatus.CLAIMED, ClaimStatus.EXPIRED);
+                // A concurrent edit may have kept some open; publishing for those too only costs a reload.
+                eventRepository.findRowsByIdIn(ids)
+                        .forEach(row -> publisher.publishEvent(EventChange.updated(EventMapper.toResponse(row))));
+                return new SweepResult(events, claims);
+            });
+            if (chunk == null) {
+                break;
+            }
+            ended += chunk.eventsEnded();
+            expired += chunk.claimsExpired();
+            eventsEnded.increment(chunk.eventsEnded());
+            claimsExpired.increment(chunk.claimsExpired());
+            if (chunk.eventsEnded() == 0) {
+                // Everything selected was changed under us; the next pass would select the same rows.
+                break;
+            }
+        }
+        if (ended > 0) {
+            log.info("Ended {} events and expired {} claims", ended, expired);
+        }
+        return new SweepResult(ended, expired);
+    }
+
+    private void refillSafely() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            sweep(now);
+            LocalDateTime horizon = now.plus(refillInterval);
+            List<EventDeadline> upcoming = transactionTemplate.execute(status ->
+                    eventRepository.findDeadlinesBefore(OPEN, horizon));
+            upcoming.forEach(deadline -> offer(deadline, now));
+        } catch (RuntimeException ex) {
+            log.warn("Lifecycle refill failed", ex);
+        }
+    }
+
+    private void runDue() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (this) {
+                while (!deadlines.isEmpty() && !deadlines.peek().at().isAfter(now)) {
+                    queued.remove(deadlines.poll().eventId());
+                }
+                wakeup = null;
+                wakeupAt = null;
+            }
+            sweep(now);
+        } catch (RuntimeException ex) {
+            log.warn("Lifecycle sweep failed", ex);
+        } finally {
+            synchronized (this) {
+                if (wakeup == null && !deadlines.isEmpty()) {
+                    arm(deadlines.peek().at());
+                }
+            }
+        }
+    }
+
+    private synchronized void offer(EventDeadline deadline, LocalDateTime now) {
+        LocalDateTime at = deadline.at(openEndedDuration);
+        boolean near = !at.isAfter(now.plus(refillInterval));
+        LocalDateTime previous = near ? queued.put(deadline.eventId(), at) : queued.remove(deadline.eventId());
+        if (at.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            // Linear, but the queue only holds the next refill interval's deadlines.
+            deadlines.remove(new Deadline(previous, deadline.eventId()));
+        }
+        if (!near) {
+            // Too far out; a later refill will queue it.
+            return;
+        }
+        deadlines.add(new Deadline(at, deadline.eventId()));
+        if (wakeupAt == null || at.isBefore(wakeupAt)) {
+            arm(at);
+        }
+    }
+
+    /**
+     * How many queued deadlines belong to the event.
+     */
+    synchronized int queuedDeadlines(Long eventId) {
+        return (int) deadlines.stream().filter(deadline -> deadline.eventId().equals(eventId)).count();
+    }
+
+    // callers hold this
+    private void arm(LocalDateTime at) {
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), at).toMillis());
+        wakeupAt = at;
+        wakeup = scheduler.schedule(this::runDue, delay, TimeUnit.MILLISECONDS);
+    }
+}
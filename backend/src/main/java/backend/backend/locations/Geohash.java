@@ -0,0 +1,95 @@
+package backend.backend.locations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash encoding, plus the set of cells that cover a bounding box. Cells at one precision share their hash
+ * as a prefix with every finer cell inside them, which is what lets {@link LocationGeoIndex} answer a box query
+ * with a handful of prefix range scans.
+ */
+final class Geohash {
+
+    static final int MAX_PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    static String encode(double latitude, double longitude, int precision) {
+        int latBits = latitudeBits(precision);
+        int lonBits = precision * 5 - latBits;
+        return encodeCell(cellIndex(latitude + 90, 180, latBits), cellIndex(longitude + 180, 360, lonBits), precision);
+    }
+
+    /**
+     * Returns the hashes of the cells, at the finest precision that needs no more than {@code maxCells} of them,
+     * that together cover the box. Longitudes may run past ±180 to describe a box crossing the antimeridian.
+     */
+    static List<String> cover(double minLat, double maxLat, double minLon, double maxLon, int maxCells) {
+        for (int precision = MAX_PRECISION; precision > 1; precision--) {
+            List<String> cells = cover(minLat, maxLat, minLon, maxLon, precision, maxCells);
+            if (cells != null) {
+                return cells;
+            }
+        }
+        // Precision 1 has 32 cells in total, so the world fits.
+        return cover(minLat, maxLat, minLon, maxLon, 1, Integer.MAX_VALUE);
+    }
+
+    private static List<String> cover(double minLat, double maxLat, double minLon, double maxLon,
+                                      int precision, int maxCells) {
+        int latBits = latitudeBits(precision);
+        int lonBits = precision * 5 - latBits;
+        long lonCells = 1L << lonBits;
+        long firstLat = cellIndex(Math.max(minLat, -90) + 90, 180, latBits);
+        long lastLat = cellIndex(Math.min(maxLat, 90) + 90, 180, latBits);
+        long firstLon = (long) Math.floor((minLon + 180) / 360 * lonCells);
+        long lastLon = (long) Math.floor((maxLon + 180) / 360 * lonCells);
+        if (lastLon - firstLon + 1 >= lonCells) {
+            firstLon = 0;
+            lastLon = lonCells - 1;
+        }
+        if ((lastLat - firstLat + 1) * (lastLon - firstLon + 1) > maxCells) {
+            return null;
+        }
+        Set<String> cells = new LinkedHashSet<>();
+        for (long lat = firstLat; lat <= lastLat; lat++) {
+            for (long lon = firstLon; lon <= lastLon; lon++) {
+                cells.add(encodeCell(lat, Math.floorMod(lon, lonCells), precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    private static int latitudeBits(int precision) {
+        // Bits alternate starting with longitude, so latitude gets the smaller half.
+        return precision * 5 / 2;
+    }
+
+    private static long cellIndex(double offset, double span, int bits) {
+        long cells = 1L << bits;
+        return Math.min(cells - 1, Math.max(0, (long) Math.floor(offset / span * cells)));
+    }
+
+    private static String encodeCell(long latIndex, long lonIndex, int precision) {
+        int latBits = latitudeBits(precision);
+        int lonBits = precision * 5 - latBits;
+        char[] hash = new char[precision];
+        int latBit = latBits;
+        int lonBit = lonBits;
+        for (int c = 0; c < precision; c++) {
+            int value = 0;
+            for (int b = 0; b < 5; b++) {
+                boolean longitude = (c * 5 + b) % 2 == 0;
+                long bit = longitude ? (lonIndex >> --lonBit) & 1 : (latIndex >> --latBit) & 1;
+                value = (value << 1) | (int) bit;
+            }
+            hash[c] = BASE32[value];
+        }
+        return new String(hash);
+    }
+}
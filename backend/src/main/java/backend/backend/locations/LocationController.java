@@ -1,8 +1,13 @@
 package backend.backend.locations;
 
+import backend.backend.impact.ImpactAggregator;
+import backend.backend.impact.dto.ImpactSummary;
+import backend.backend.reference.ReferenceDataCache;
 import backend.backend.repositories.LocationRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,9 +19,15 @@ import java.util.List;
 public class LocationController {
 
     private final LocationRepository locationRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ImpactAggregator impactAggregator;
 
-    public LocationController(LocationRepository locationRepository) {
+    public LocationController(LocationRepository locationRepository,
+                              ReferenceDataCache referenceDataCache,
+                              ImpactAggregator impactAggregator) {
         this.locationRepository = locationRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.impactAggregator = impactAggregator;
     }
 
     @GetMapping
@@ -25,4 +36,12 @@ public class LocationController {
                 .map(LocationResponse::fromEntity)
                 .toList();
     }
+
+    @GetMapping("/{id}/impact")
+    public ImpactSummary impact(@PathVariable Long id) {
+        if (referenceDataCache.location(id).isEmpty()) {
+            throw new EntityNotFoundException("Location %d not found".formatted(id));
+        }
+        return impactAggregator.location(id);
+    }
 }
@@ -0,0 +1,207 @@
+package backend.backend.locations;
+
+import backend.backend.repositories.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory geohash grid over the locations that have coordinates.
+ * <p>
+ * Every location is filed under its precision-9 geohash (a few metres across) in a sorted map. A radius query
+ * covers the radius's bounding box with at most {@value #MAX_CELLS} coarser cells and range-scans each one as a
+ * hash prefix, then drops candidates outside the circle by great-circle distance. The index is rebuilt once the
+ * application is ready and kept current by {@link LocationGeoListener} as locations are committed. Until the
+ * first rebuild finishes, queries fall back to a bounding-box query on the database.
+ */
+@Component
+public class LocationGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationGeoIndex.class);
+
+    private static final int MAX_CELLS = 16;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final LocationRepository locationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // geohash -> location ids; guarded by lock
+    private NavigableMap<String, Set<Long>> cells = new TreeMap<>();
+    private Map<Long, Indexed> points = new HashMap<>();
+    // changes that arrive while a rebuild is loading; replayed onto the rebuilt index
+    private List<Change> pendingChanges;
+    private volatile boolean ready;
+
+    private record Indexed(LocationPoint point, String hash) {
+    }
+
+    // point is null when the location was removed or lost its coordinates
+    private record Change(Long locationId, LocationPoint point) {
+    }
+
+    public LocationGeoIndex(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the distance in kilometres to every location within {@code radiusKm}, nearest first.
+     */
+    public Map<Long, Double> within(double latitude, double longitude, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + dLat)));
+        // Near the poles the box spans every longitude.
+        double dLon = cosLat < 1e-9 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE * cosLat));
+        double minLat = latitude - dLat;
+        double maxLat = latitude + dLat;
+
+        List<LocationPoint> candidates;
+        if (ready) {
+            candidates = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (String prefix : Geohash.cover(minLat, maxLat, longitude - dLon, longitude + dLon, MAX_CELLS)) {
+                    for (Set<Long> ids : cells.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                        ids.forEach(id -> candidates.add(points.get(id).point()));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            boolean wraps = longitude - dLon < -180 || longitude + dLon > 180;
+            candidates = locationRepository.findPointsWithin(minLat, maxLat,
+                    wraps ? -180 : longitude - dLon, wraps ? 180 : longitude + dLon);
+        }
+
+        Map<Long, Double> distances = new HashMap<>();
+        for (LocationPoint point : candidates) {
+            double distance = point.distanceKm(latitude, longitude);
+            if (distance <= radiusKm) {
+                distances.put(point.locationId(), distance);
+            }
+        }
+        Map<Long, Double> nearestFirst = new LinkedHashMap<>();
+        distances.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> nearestFirst.put(entry.getKey(), entry.getValue()));
+        return nearestFirst;
+    }
+
+    /**
+     * Reloads every located row from the database and atomically swaps the result in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Set<Long>> freshCells = new TreeMap<>();
+        Map<Long, Indexed> freshPoints = new HashMap<>();
+        try {
+            for (LocationPoint point : locationRepository.findPoints()) {
+                put(point, freshCells, freshPoints);
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Change change : pendingChanges) {
+                apply(change, freshCells, freshPoints);
+            }
+            pendingChanges = null;
+            cells = freshCells;
+            points = freshPoints;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Location index rebuilt with {} located rows in {} cells", freshPoints.size(), freshCells.size());
+    }
+
+    /**
+     * Records a location's coordinates (or their absence) once the surrounding transaction commits.
+     */
+    void locationSaved(Long locationId, LocationPoint point) {
+        afterCommit(new Change(locationId, point));
+    }
+
+    void locationRemoved(Long locationId) {
+        afterCommit(new Change(locationId, null));
+    }
+
+    private void afterCommit(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            apply(change, cells, points);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Change change, NavigableMap<String, Set<Long>> cells, Map<Long, Indexed> points) {
+        Indexed previous = points.remove(change.locationId());
+        if (previous != null) {
+            Set<Long> ids = cells.get(previous.hash());
+            ids.remove(change.locationId());
+            if (ids.isEmpty()) {
+                cells.remove(previous.hash());
+            }
+        }
+        if (change.point() != null) {
+            put(change.point(), cells, points);
+        }
+    }
+
+    private static void put(LocationPoint point, NavigableMap<String, Set<Long>> cells, Map<Long, Indexed> points) {
+        String hash = Geohash.encode(point.latitude(), point.longitude(), Geohash.MAX_PRECISION);
+        points.put(point.locationId(), new Indexed(point, hash));
+        cells.computeIfAbsent(hash, h -> new HashSet<>()).add(point.locationId());
+    }
+}
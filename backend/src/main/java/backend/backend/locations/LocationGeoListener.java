@@ -0,0 +1,42 @@
+package backend.backend.locations;
+
+import backend.backend.entities.Location;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener that keeps {@link LocationGeoIndex} in step with location writes. Like
+ * {@code ReferenceDataListener}, the index is looked up lazily to stay out of the entity manager factory's
+ * dependency cycle.
+ */
+public class LocationGeoListener {
+
+    private final ObjectProvider<LocationGeoIndex> indexProvider;
+
+    public LocationGeoListener(ObjectProvider<LocationGeoIndex> indexProvider) {
+        this.indexProvider = indexProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Location location) {
+        LocationGeoIndex index = indexProvider.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        LocationPoint point = location.getLatitude() == null || location.getLongitude() == null
+                ? null
+                : new LocationPoint(location.getLocationId(), location.getLatitude(), location.getLongitude());
+        index.locationSaved(location.getLocationId(), point);
+    }
+
+    @PostRemove
+    public void removed(Location location) {
+        LocationGeoIndex index = indexProvider.getIfAvailable();
+        if (index != null) {
+            index.locationRemoved(location.getLocationId());
+        }
+    }
+}
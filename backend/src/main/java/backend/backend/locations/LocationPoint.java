@@ -0,0 +1,28 @@
+package backend.backend.locations;
+
+import java.math.BigDecimal;
+
+/**
+ * A location's coordinates in degrees.
+ */
+public record LocationPoint(Long locationId, double latitude, double longitude) {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // Used by the JPQL constructor expression, which hands over the column types.
+    public LocationPoint(Long locationId, BigDecimal latitude, BigDecimal longitude) {
+        this(locationId, latitude.doubleValue(), longitude.doubleValue());
+    }
+
+    /**
+     * Great-circle (haversine) distance in kilometres.
+     */
+    public double distanceKm(double latitude, double longitude) {
+        double dLat = Math.toRadians(latitude - this.latitude);
+        double dLon = Math.toRadians(longitude - this.longitude);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(this.latitude)) * Math.cos(Math.toRadians(latitude))
+                * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
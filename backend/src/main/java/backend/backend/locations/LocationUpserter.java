@@ -0,0 +1,116 @@
+package backend.backend.locations;
+
+import backend.backend.entities.Location;
+import backend.backend.reference.LocationRef;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Get-or-create for name-only locations (no room), safe under concurrent callers.
+ * <p>
+ * Callers in this process asking for the same organization and name share one in-flight upsert, so a burst of
+ * event creates for a new location costs one insert rather than one per request. Across processes the
+ * {@code uniq_loc_key} index on the lower-cased {@code name_key} decides: the insert either creates the row or,
+ * through {@code ON DUPLICATE KEY UPDATE location_id = LAST_INSERT_ID(location_id)}, hands back the existing
+ * row's id, in the same round trip either way. Unlike {@code INSERT IGNORE} it does not turn other errors into
+ * warnings. The insert commits on its own, outside the caller's transaction, so the id it hands to waiting
+ * callers is already visible to them.
+ */
+@Component
+public class LocationUpserter {
+
+    private static final String INSERT = """
+            insert into locations (org_id, name, name_key, room_key) values (?, ?, ?, '')
+            on duplicate key update location_id = last_insert_id(location_id)""";
+    private static final String SELECT = """
+            select location_id, org_id, name, building, room from locations
+            where org_id = ? and name_key = ? and room_key = ''""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Key, CompletableFuture<LocationRef>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upserts;
+
+    private record Key(Long organizationId, String name) {
+    }
+
+    public LocationUpserter(DataSource dataSource, MeterRegistry registry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.upserts = Counter.builder("locations.upserts")
+                .description("Location get-or-create calls that reached the database")
+                .register(registry);
+    }
+
+    /**
+     * Returns the organization's room-less location with this name, creating it if needed. Must not be called
+     * inside a transaction that other callers could end up waiting on.
+     */
+    public LocationRef getOrCreate(Long organizationId, String name) {
+        Key key = new Key(organizationId, Location.nameKey(name));
+        CompletableFuture<LocationRef> mine = new CompletableFuture<>();
+        CompletableFuture<LocationRef> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            try {
+                return leader.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            LocationRef location = upsert(organizationId, name);
+            mine.complete(location);
+            return location;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private LocationRef upsert(Long organizationId, String name) {
+        upserts.increment();
+        KeyHolder keys = new GeneratedKeyHolder();
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, organizationId);
+                ps.setString(2, name);
+                ps.setString(3, Location.nameKey(name));
+                return ps;
+            }, keys);
+        } catch (DataIntegrityViolationException ex) {
+            // Only fk_loc_org is left to violate once the unique key is handled.
+            throw new EntityNotFoundException("Organization %d not found".formatted(organizationId));
+        }
+        // One affected row is a new location; zero means the key already existed under some spelling.
+        if (inserted == 1 && !keys.getKeyList().isEmpty()) {
+            long id = ((Number) keys.getKeyList().get(0).values().iterator().next()).longValue();
+            return new LocationRef(id, organizationId, name, null, null);
+        }
+
+        // The existing row keeps its own spelling and may have a building, so read it back.
+        List<LocationRef> existing = jdbcTemplate.query(SELECT, (rs, row) -> new LocationRef(
+                rs.getLong("location_id"), rs.getLong("org_id"), rs.getString("name"),
+                rs.getString("building"), rs.getString("room")), organizationId, Location.nameKey(name));
+        if (existing.isEmpty()) {
+            throw new EntityNotFoundException("Organization %d not found".formatted(organizationId));
+        }
+        return existing.get(0);
+    }
+}
@@ -0,0 +1,79 @@
+package backend.backend.metrics;
+
+import backend.backend.cache.CacheStats;
+import backend.backend.events.EventReadCache;
+import backend.backend.events.stream.EventStreamBroadcaster;
+import backend.backend.reference.ReferenceDataCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+/**
+ * Application meters on top of what Actuator already binds (HTTP server requests, Hikari, Hibernate
+ * statistics): per-request statement counts, the event and reference caches and the live stream.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public MeterBinder eventCacheMetrics(EventReadCache cache) {
+        return registry -> {
+            bindCache(registry, "events", cache, EventReadCache::eventStats);
+            bindCache(registry, "event-pages", cache, EventReadCache::pageStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder referenceCacheMetrics(ReferenceDataCache cache) {
+        return registry -> {
+            bindCache(registry, "organizations", cache, ReferenceDataCache::organizationStats);
+            bindCache(registry, "locations", cache, ReferenceDataCache::locationStats);
+            bindCache(registry, "users", cache, ReferenceDataCache::userStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder eventStreamMetrics(EventStreamBroadcaster broadcaster) {
+        return registry -> Gauge.builder("events.stream.subscribers", broadcaster, EventStreamBroadcaster::subscriberCount)
+                .description("Open event stream connections")
+                .register(registry);
+    }
+
+    /**
+     * Uses the same meter names as Micrometer's own cache binders so dashboards for {@code cache.gets} work as is.
+     * Meters only hold the owner weakly, so it must be the long-lived cache holder rather than a lambda.
+     */
+    private static <T> void bindCache(MeterRegistry registry, String name, T owner, Function<T, CacheStats> stats) {
+        counter(registry, "cache.gets", name, owner, stats.andThen(CacheStats::hits), "result", "hit");
+        counter(registry, "cache.gets", name, owner, stats.andThen(CacheStats::misses), "result", "miss");
+        counter(registry, "cache.evictions", name, owner, stats.andThen(s -> s.evictions() + s.expirations()));
+        counter(registry, "cache.invalidations", name, owner, stats.andThen(CacheStats::invalidations));
+        Gauge.builder("cache.size", owner, o -> stats.apply(o).size()).tag("cache", name).register(registry);
+        Gauge.builder("cache.hit.ratio", owner, o -> stats.apply(o).hitRatio()).tag("cache", name).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String meter, String name, T owner,
+                                    Function<T, Long> value, String... tags) {
+        FunctionCounter.builder(meter, owner, o -> value.apply(o))
+                .tag("cache", name)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package backend.backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open. Hibernate calls
+ * {@link #inspect(String)} once per statement, including each statement of a batch.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread. Must be paired with {@link #stop()}.
+     */
+    public static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on this thread and returns the number of statements seen since {@link #start()}.
+     */
+    public static int stop() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
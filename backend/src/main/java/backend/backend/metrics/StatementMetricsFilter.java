@@ -0,0 +1,51 @@
+package backend.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request executed, as {@code http.server.requests.statements} tagged
+ * with the same {@code method}/{@code uri} pair as {@code http.server.requests}, so an N+1 regression on an
+ * endpoint shows up as a jump in its statement count rather than only as extra latency.
+ */
+@Component
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public StatementMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // Unmatched requests (404s, static probes) would only add noise and unbounded tags.
+            if (pattern != null) {
+                DistributionSummary.builder("http.server.requests.statements")
+                        .description("SQL statements executed per request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern.toString())
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(statements);
+            }
+        }
+    }
+}
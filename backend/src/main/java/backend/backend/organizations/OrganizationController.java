@@ -1,8 +1,13 @@
 package backend.backend.organizations;
 
+import backend.backend.impact.ImpactAggregator;
+import backend.backend.impact.dto.ImpactSummary;
+import backend.backend.reference.ReferenceDataCache;
 import backend.backend.repositories.OrganizationRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,9 +19,15 @@ import java.util.List;
 public class OrganizationController {
 
     private final OrganizationRepository organizationRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ImpactAggregator impactAggregator;
 
-    public OrganizationController(OrganizationRepository organizationRepository) {
+    public OrganizationController(OrganizationRepository organizationRepository,
+                                  ReferenceDataCache referenceDataCache,
+                                  ImpactAggregator impactAggregator) {
         this.organizationRepository = organizationRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.impactAggregator = impactAggregator;
     }
 
     @GetMapping
@@ -25,4 +36,12 @@ public class OrganizationController {
                 .map(OrganizationResponse::fromEntity)
                 .toList();
     }
+
+    @GetMapping("/{id}/impact")
+    public ImpactSummary impact(@PathVariable Long id) {
+        if (referenceDataCache.organization(id).isEmpty()) {
+            throw new EntityNotFoundException("Organization %d not found".formatted(id));
+        }
+        return impactAggregator.organization(id);
+    }
 }
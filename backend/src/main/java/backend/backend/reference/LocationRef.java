@@ -0,0 +1,11 @@
+package backend.backend.reference;
+
+import backend.backend.entities.Location;
+
+public record LocationRef(Long id, Long organizationId, String name, String building, String room) {
+
+    public static LocationRef of(Location location) {
+        return new LocationRef(location.getLocationId(), location.getOrganization().getOrgId(),
+                location.getName(), location.getBuilding(), location.getRoom());
+    }
+}
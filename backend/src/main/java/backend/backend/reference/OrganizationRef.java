@@ -0,0 +1,10 @@
+package backend.backend.reference;
+
+import backend.backend.entities.Organization;
+
+public record OrganizationRef(Long id, String name) {
+
+    static OrganizationRef of(Organization organization) {
+        return new OrganizationRef(organization.getOrgId(), organization.getName());
+    }
+}
@@ -0,0 +1,150 @@
+package backend.backend.reference;
+
+import backend.backend.cache.BoundedCache;
+import backend.backend.cache.CacheStats;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Near-cache of the organization, location and user rows that event writes resolve against.
+ * <p>
+ * These rows are read on every write but almost never change, so lookups are served from memory and the
+ * entities are attached with {@code getReferenceById}. {@link ReferenceDataListener} fences a row as soon as
+ * Hibernate writes it and lifts the fence once the transaction completes, the same way {@code EventReadCache}
+ * handles events; {@link BoundedCache}'s generation counter keeps a lookup that raced the write from caching
+ * the old version. Misses are not cached, so a newly inserted row is visible immediately.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String FIRST_USER = "first";
+
+    private final OrganizationRepository organizationRepository;
+    private final LocationRepository locationRepository;
+    private final UserRepository userRepository;
+
+    private final BoundedCache<Long, OrganizationRef> organizations;
+    private final BoundedCache<Long, LocationRef> locations;
+    private final BoundedCache<LocationName, Long> locationIds;
+    private final BoundedCache<Long, UserRef> users;
+    private final BoundedCache<String, UserRef> firstUser;
+
+    private record LocationName(Long organizationId, String name) {
+    }
+
+    public ReferenceDataCache(OrganizationRepository organizationRepository,
+                              LocationRepository locationRepository,
+                              UserRepository userRepository,
+                              @Value("${reference.cache.max-entries:10000}") int maxEntries,
+                              @Value("${reference.cache.ttl:30m}") Duration ttl) {
+        this.organizationRepository = organizationRepository;
+        this.locationRepository = locationRepository;
+        this.userRepository = userRepository;
+        this.organizations = new BoundedCache<>(maxEntries, ttl);
+        this.locations = new BoundedCache<>(maxEntries, ttl);
+        this.locationIds = new BoundedCache<>(maxEntries, ttl);
+        this.users = new BoundedCache<>(maxEntries, ttl);
+        this.firstUser = new BoundedCache<>(1, ttl);
+    }
+
+    public Optional<OrganizationRef> organization(Long id) {
+        return Optional.ofNullable(organizations.get(id,
+                key -> organizationRepository.findById(key).map(OrganizationRef::of).orElse(null)));
+    }
+
+    public Optional<LocationRef> location(Long id) {
+        return Optional.ofNullable(locations.get(id, this::loadLocation));
+    }
+
+    /**
+     * Case-insensitive lookup of a location by name within an organization.
+     */
+    public Optional<LocationRef> location(Long organizationId, String name) {
+        LocationName key = new LocationName(organizationId, name.trim().toLowerCase(Locale.ROOT));
+        Long id = locationIds.get(key, k -> locationRepository
+                .findFirstByOrganizationOrgIdAndNameIgnoreCaseOrderByLocationIdAsc(k.organizationId(), k.name())
+                .map(location -> {
+                    locations.get(location.getLocationId(), ignored -> LocationRef.of(location));
+                    return location.getLocationId();
+                })
+                .orElse(null));
+        return id == null ? Optional.empty() : location(id);
+    }
+
+    public Optional<UserRef> user(Long id) {
+        return Optional.ofNullable(users.get(id,
+                key -> userRepository.findById(key).map(UserRef::of).orElse(null)));
+    }
+
+    /**
+     * The user new events are attributed to when the request names none.
+     */
+    public Optional<UserRef> defaultUser() {
+        return Optional.ofNullable(firstUser.get(FIRST_USER,
+                key -> userRepository.findFirstByOrderByUserIdAsc().map(UserRef::of).orElse(null)));
+    }
+
+    public CacheStats organizationStats() {
+        return organizations.stats();
+    }
+
+    public CacheStats locationStats() {
+        return locations.stats();
+    }
+
+    public CacheStats userStats() {
+        return users.stats();
+    }
+
+    void organizationChanging(Long id) {
+        fenceUntilCompletion(() -> organizations.fence(id), () -> organizations.unfence(id));
+    }
+
+    void locationChanging(Long id) {
+        // The old name is not known here, so drop every name lookup.
+        fenceUntilCompletion(() -> {
+            locations.fence(id);
+            locationIds.fenceAll();
+        }, () -> {
+            locations.unfence(id);
+            locationIds.unfenceAll();
+        });
+    }
+
+    void userChanging(Long id) {
+        fenceUntilCompletion(() -> {
+            users.fence(id);
+            firstUser.fenceAll();
+        }, () -> {
+            users.unfence(id);
+            firstUser.unfenceAll();
+        });
+    }
+
+    private LocationRef loadLocation(Long id) {
+        return locationRepository.findById(id).map(LocationRef::of).orElse(null);
+    }
+
+    private static void fenceUntilCompletion(Runnable fence, Runnable unfence) {
+        fence.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unfence.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unfence.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package backend.backend.reference;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener on the reference entities; Hibernate obtains it from the Spring context so it can reach the
+ * cache. The cache is looked up lazily because it depends on repositories, which depend on the entity manager
+ * factory that creates this listener. Inserts need no hook because the cache never remembers a miss.
+ */
+public class ReferenceDataListener {
+
+    private final ObjectProvider<ReferenceDataCache> cacheProvider;
+
+    public ReferenceDataListener(ObjectProvider<ReferenceDataCache> cacheProvider) {
+        this.cacheProvider = cacheProvider;
+    }
+
+    @PreUpdate
+    @PreRemove
+    public void changing(Object entity) {
+        ReferenceDataCache cache = cacheProvider.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        switch (entity) {
+            case Organization organization -> cache.organizationChanging(organization.getOrgId());
+            case Location location -> cache.locationChanging(location.getLocationId());
+            case User user -> cache.userChanging(user.getUserId());
+            default -> {
+            }
+        }
+    }
+}
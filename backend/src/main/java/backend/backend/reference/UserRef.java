@@ -0,0 +1,10 @@
+package backend.backend.reference;
+
+import backend.backend.entities.User;
+
+public record UserRef(Long id, String displayName) {
+
+    static UserRef of(User user) {
+        return new UserRef(user.getUserId(), user.getDisplayName());
+    }
+}
@@ -0,0 +1,59 @@
+package backend.backend.repositories;
+
+import backend.backend.claims.redemption.ClaimTicket;
+import backend.backend.entities.Claim;
+import backend.backend.entities.Claim.ClaimStatus;
+import backend.backend.entities.Event.EventStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClaimRepository extends JpaRepository<Claim, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"event", "eventItem", "user"})
+    Optional<Claim> findById(Long id);
+
+    @EntityGraph(attributePaths = {"event", "eventItem", "user"})
+    List<Claim> findByUserUserIdOrderByClaimedAtDesc(Long userId);
+
+    @Query("""
+            select coalesce(sum(c.quantity), 0) from Claim c
+            where c.eventItem.eventItemId = :itemId and c.user.userId = :userId and c.status in :statuses""")
+    int sumQuantityByItemAndUser(Long itemId, Long userId, Collection<ClaimStatus> statuses);
+
+    /**
+     * Moves a claim between states only if it is still in the expected one, so concurrent transitions cannot both win.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Claim c set c.status = :to where c.claimId = :id and c.status = :from")
+    int transition(Long id, ClaimStatus from, ClaimStatus to);
+
+    /**
+     * Moves the claims of those events that are now in {@code eventStatus}, leaving the others alone.
+     */
+    @Modifying
+    @Query("""
+            update Claim c set c.status = :to
+            where c.status = :from
+              and c.event.id in (select e.id from Event e where e.id in :eventIds and e.status = :eventStatus)""")
+    int transitionForEvents(Collection<Long> eventIds, EventStatus eventStatus, ClaimStatus from, ClaimStatus to);
+
+    String TICKET_SELECT = """
+            select new backend.backend.claims.redemption.ClaimTicket(
+                c.claimId, c.token, e.id, i.eventItemId, c.quantity, c.status, c.redeemedAt, e.status)
+            from Claim c join c.event e left join c.eventItem i
+            """;
+
+    @Query(TICKET_SELECT + "where c.token = :token")
+    Optional<ClaimTicket> findTicketByToken(String token);
+
+    @Query(TICKET_SELECT + "where c.token is not null and e.status = :eventStatus and c.status in :statuses")
+    List<ClaimTicket> findTickets(EventStatus eventStatus, Collection<ClaimStatus> statuses);
+}
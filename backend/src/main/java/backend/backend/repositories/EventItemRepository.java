@@ -0,0 +1,44 @@
+package backend.backend.repositories;
+
+import backend.backend.entities.EventItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EventItemRepository extends JpaRepository<EventItem, Long> {
+    @Query("select i from EventItem i join fetch i.event where i.eventItemId = :id")
+    Optional<EventItem> findWithEventById(Long id);
+
+    Optional<EventItem> findFirstByEventIdOrderByEventItemIdAsc(Long eventId);
+
+    @Query("select i.event.id from EventItem i where i.eventItemId = :id")
+    Optional<Long> findEventIdById(Long id);
+
+    /**
+     * Atomically takes {@code quantity} portions if that many remain. Returns 1 on success, 0 when sold out.
+     */
+    @Modifying
+    @Query("""
+            update EventItem i set i.portionsClaimed = i.portionsClaimed + :quantity
+            where i.eventItemId = :id and i.portionsAvailable - i.portionsClaimed >= :quantity""")
+    int reservePortions(Long id, int quantity);
+
+    /**
+     * Sets the portions on offer, but never below those already claimed. Returns 1 if the item exists.
+     */
+    @Modifying
+    @Query("""
+            update EventItem i set i.portionsAvailable = greatest(:portions, i.portionsClaimed)
+            where i.eventItemId = :id""")
+    int setPortionsAvailable(Long id, int portions);
+
+    @Modifying
+    @Query("""
+            update EventItem i set i.portionsClaimed = i.portionsClaimed - :quantity
+            where i.eventItemId = :id and i.portionsClaimed >= :quantity""")
+    int releasePortions(Long id, int quantity);
+}
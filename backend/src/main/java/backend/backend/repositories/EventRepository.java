@@ -2,10 +2,21 @@ package backend.backend.repositories;
 
 import backend.backend.entities.Event;
 import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.calendar.CalendarEntry;
+import backend.backend.events.dto.EventRow;
+import backend.backend.events.search.SearchDocument;
+import backend.backend.events.sync.SyncEntry;
+import backend.backend.impact.EventContribution;
+import backend.backend.lifecycle.EventDeadline;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +33,128 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @EntityGraph(attributePaths = {"organization", "location", "createdBy", "eventItems"})
     List<Event> findByStatus(EventStatus status);
 
-    @EntityGraph(attributePaths = {"organization", "location", "createdBy", "eventItems"})
-    List<Event> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String title, String description);
+    String SEARCH_DOCUMENT_SELECT = """
+            select new backend.backend.events.search.SearchDocument(
+                e.id, e.title, e.description, o.name, l.name, e.startTime)
+            from Event e join e.organization o join e.location l
+            """;
+
+    @Query(SEARCH_DOCUMENT_SELECT)
+    List<SearchDocument> findSearchDocuments();
+
+    @Query(SEARCH_DOCUMENT_SELECT + "where o.orgId = :organizationId")
+    List<SearchDocument> findSearchDocumentsByOrganization(Long organizationId);
+
+    @Query(SEARCH_DOCUMENT_SELECT + "where l.locationId = :locationId")
+    List<SearchDocument> findSearchDocumentsByLocation(Long locationId);
+
+    @Query("select new backend.backend.events.calendar.CalendarEntry(e.id, e.status, e.startTime) from Event e")
+    List<CalendarEntry> findCalendarEntries();
+
+    String CONTRIBUTION_SELECT = """
+            select new backend.backend.impact.EventContribution(e.id, e.organization.orgId, e.location.locationId,
+                e.status,
+                (select coalesce(sum(i.portionsAvailable), 0L) from EventItem i where i.event = e),
+                (select coalesce(sum(i.portionsClaimed), 0L) from EventItem i where i.event = e),
+                (select coalesce(sum(c.quantity), 0L) from Claim c
+                 where c.event = e and c.status = backend.backend.entities.Claim.ClaimStatus.REDEEMED))
+            from Event e
+            """;
+
+    @Query(CONTRIBUTION_SELECT + "where e.status in :statuses")
+    List<EventContribution> findContributions(Collection<EventStatus> statuses);
+
+    @Query(CONTRIBUTION_SELECT + "where e.id in :ids")
+    List<EventContribution> findContributionsByIdIn(Collection<Long> ids);
+
+    @Query(CONTRIBUTION_SELECT + "where e.status in :statuses and e.organization.orgId = :organizationId")
+    List<EventContribution> findContributionsByOrganization(Long organizationId, Collection<EventStatus> statuses);
+
+    @Query(CONTRIBUTION_SELECT + "where e.status in :statuses and e.location.locationId = :locationId")
+    List<EventContribution> findContributionsByLocation(Long locationId, Collection<EventStatus> statuses);
+
+    // Lifecycle sweeps: an open event is due once its end time has passed, or its start time for events without one.
+    String DUE = """
+            e.status in :statuses and e.startTime <= :now
+            and (e.endTime <= :now or (e.endTime is null and e.startTime <= :openEndedCutoff))
+            """;
+
+    @Query("select e.id from Event e where " + DUE + "order by e.startTime asc, e.id asc")
+    List<Long> findDueIds(Collection<EventStatus> statuses, LocalDateTime now, LocalDateTime openEndedCutoff,
+                          Limit limit);
+
+    /**
+     * Ends the given events, re-checking that each is still open and due so a concurrent edit is never overwritten.
+     */
+    @Modifying
+    @Query("update Event e set e.status = :ended, e.updatedAt = :now where e.id in :ids and " + DUE)
+    int endDue(Collection<Long> ids, EventStatus ended, Collection<EventStatus> statuses, LocalDateTime now,
+               LocalDateTime openEndedCutoff);
+
+    @Query("""
+            select new backend.backend.lifecycle.EventDeadline(e.id, e.startTime, e.endTime) from Event e
+            where e.status in :statuses and e.startTime <= :horizon and (e.endTime is null or e.endTime <= :horizon)""")
+    List<EventDeadline> findDeadlinesBefore(Collection<EventStatus> statuses, LocalDateTime horizon);
+
+    // Delta sync, served by idx_evt_updated (updated_at, event_id). The leading >= bounds the index range scan.
+    @Query("""
+            select new backend.backend.events.sync.SyncEntry(e.id, e.updatedAt) from Event e
+            where e.updatedAt >= :time and (e.updatedAt > :time or e.id > :id) and e.updatedAt <= :settled
+            order by e.updatedAt asc, e.id asc""")
+    List<SyncEntry> findChangedSince(LocalDateTime time, Long id, LocalDateTime settled, Limit limit);
+
+    /**
+     * Bumps {@code updated_at} for events whose items changed, so delta sync picks up their remaining meals.
+     */
+    @Modifying
+    @Query("update Event e set e.updatedAt = :now where e.id in :ids")
+    int touch(Collection<Long> ids, LocalDateTime now);
+
+    // Read paths select straight into EventRow: no managed entities, no item collection, meals summed in SQL.
+    String ROW_SELECT = """
+            select new backend.backend.events.dto.EventRow(
+                e.id, e.title, e.description, e.status, e.startTime, e.endTime,
+                o.orgId, o.name, l.locationId, l.name, l.building, l.room, u.userId, u.displayName,
+                (select coalesce(sum(i.portionsAvailable - i.portionsClaimed), 0L)
+                 from EventItem i where i.event = e))
+            from Event e join e.organization o join e.location l join e.createdBy u
+            """;
+
+    boolean existsByIdNotNull();
+
+    @Query(ROW_SELECT + "where e.id = :id")
+    Optional<EventRow> findRowById(Long id);
+
+    @Query(ROW_SELECT + "where e.id in :ids")
+    List<EventRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query(ROW_SELECT + "order by e.startTime asc, e.id asc")
+    List<EventRow> findFirstRows(Limit limit);
+
+    @Query(ROW_SELECT + """
+            where e.startTime > :startTime or (e.startTime = :startTime and e.id > :id)
+            order by e.startTime asc, e.id asc""")
+    List<EventRow> findRowsAfter(LocalDateTime startTime, Long id, Limit limit);
+
+    @Query(ROW_SELECT + """
+            where l.locationId in :locationIds and e.status not in :excluded
+              and (e.startTime >= :now or e.endTime >= :now)
+            order by e.startTime asc, e.id asc""")
+    List<EventRow> findUpcomingRowsAt(Collection<Long> locationIds, Collection<EventStatus> excluded,
+                                      LocalDateTime now);
+
+    // Served by idx_evt_time (status, start_time); the calendar index answers these once it is warm.
+    @Query(ROW_SELECT + """
+            where e.status = :status and e.startTime >= :from and e.startTime < :to
+            order by e.startTime asc, e.id asc""")
+    List<EventRow> findRowsStartingBetween(EventStatus status, LocalDateTime from, LocalDateTime to, Limit limit);
+
+    // Only used while the search index is warming up after startup.
+    @Query(ROW_SELECT + """
+            where (lower(e.title) like lower(concat('%', :q, '%'))
+                    or lower(e.description) like lower(concat('%', :q, '%')))
+              and (:startTime is null or e.startTime > :startTime
+                    or (e.startTime = :startTime and e.id > :id))
+            order by e.startTime asc, e.id asc""")
+    List<EventRow> searchRows(String q, LocalDateTime startTime, Long id, Limit limit);
 }
@@ -0,0 +1,27 @@
+package backend.backend.repositories;
+
+import backend.backend.entities.EventTombstone;
+import backend.backend.events.sync.SyncEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, Long> {
+
+    // Served by idx_tomb_deleted (deleted_at, event_id), like EventRepository.findChangedSince.
+    @Query("""
+            select new backend.backend.events.sync.SyncEntry(t.eventId, t.deletedAt) from EventTombstone t
+            where t.deletedAt >= :time and (t.deletedAt > :time or t.eventId > :id) and t.deletedAt <= :settled
+            order by t.deletedAt asc, t.eventId asc""")
+    List<SyncEntry> findDeletedSince(LocalDateTime time, Long id, LocalDateTime settled, Limit limit);
+
+    @Modifying
+    @Query("delete from EventTombstone t where t.deletedAt < :cutoff")
+    int purgeBefore(LocalDateTime cutoff);
+}
@@ -1,14 +1,37 @@
 package backend.backend.repositories;
 
 import backend.backend.entities.Location;
+import backend.backend.locations.LocationPoint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"organization"})
+    List<Location> findAll();
+
     Optional<Location> findFirstByNameIgnoreCase(String name);
 
-    Optional<Location> findByOrganizationOrgIdAndNameIgnoreCase(Long orgId, String name);
+    // Several rooms can share a name; the oldest one wins.
+    Optional<Location> findFirstByOrganizationOrgIdAndNameIgnoreCaseOrderByLocationIdAsc(Long orgId, String name);
+
+    String POINT_SELECT = """
+            select new backend.backend.locations.LocationPoint(l.locationId, l.latitude, l.longitude)
+            from Location l where l.latitude is not null and l.longitude is not null
+            """;
+
+    @Query(POINT_SELECT)
+    List<LocationPoint> findPoints();
+
+    // Only used while the geo index is warming up after startup.
+    @Query(POINT_SELECT + """
+            and l.latitude between :minLat and :maxLat
+            and l.longitude between :minLon and :maxLon""")
+    List<LocationPoint> findPointsWithin(double minLat, double maxLat, double minLon, double maxLon);
 }
@@ -0,0 +1,29 @@
+package backend.backend.repositories;
+
+import backend.backend.entities.WaitlistEntry;
+import backend.backend.entities.WaitlistEntry.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusOrderByWaitlistIdAsc(WaitlistStatus status);
+
+    /**
+     * Moves an entry between states only if it is still in the expected one, so leaving and allocation cannot both win.
+     */
+    @Modifying
+    @Query("update WaitlistEntry w set w.status = :to where w.waitlistId = :id and w.status = :from")
+    int transition(Long id, WaitlistStatus from, WaitlistStatus to);
+
+    @Modifying
+    @Query("""
+            update WaitlistEntry w set w.status = backend.backend.entities.WaitlistEntry.WaitlistStatus.CLOSED
+            where w.eventId = :eventId and w.status = backend.backend.entities.WaitlistEntry.WaitlistStatus.WAITING""")
+    int closeForEvent(Long eventId);
+}
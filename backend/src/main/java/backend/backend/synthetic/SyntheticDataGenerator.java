@@ -0,0 +1,458 @@
+package backend.backend.synthetic;
+
+import backend.backend.entities.Location;
+import backend.backend.events.EventSql;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with a large synthetic dataset for capacity and performance testing.
+ * <p>
+ * Only active under the {@code synthetic} profile, which also switches off the sample data. Sizes come from
+ * {@code synthetic.*}, and the same seed and sizes always produce the same rows, with times placed relative to
+ * the moment of the run. Like the bulk import, rows go out as plain JDBC batches of {@code synthetic.batch-size}
+ * that the MySQL driver rewrites into multi-row {@code INSERT}s. Events are generated one batch at a time along
+ * with their items and claims, so memory stays flat however many rows are asked for.
+ * <p>
+ * The distributions are skewed like real traffic. A few organizations post most events, and events cluster
+ * around lunch and dinner. Most items have no per-person limit, a few users claim far more than the rest, and
+ * claims on past events were mostly redeemed.
+ */
+@Component
+@Profile("synthetic")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String INSERT_ORGANIZATION = """
+            insert into organizations (name, type, created_at) values (?, ?, ?)""";
+    private static final String INSERT_LOCATION = """
+            insert into locations (org_id, name, name_key, building, room, room_key, latitude, longitude)
+            values (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_USER = """
+            insert into users (email, display_name, role, created_at) values (?, ?, ?, ?)""";
+    private static final String INSERT_CLAIM = """
+            insert into claims (event_id, event_item_id, user_id, quantity, status, claimed_at, redeemed_at)
+            values (?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final double CAMPUS_LATITUDE = 41.2650;
+    private static final double CAMPUS_LONGITUDE = -95.9460;
+    /** Roughly 700 m; most locations land within a couple of kilometres of campus. */
+    private static final double LOCATION_SPREAD_DEGREES = 0.006;
+
+    private static final String[] ORG_TYPES = {"DINING", "DEPARTMENT", "DEPARTMENT", "CLUB", "CLUB", "CLUB",
+            "CLUB", "EXTERNAL"};
+    private static final Map<String, String> ORG_NAMES = Map.of(
+            "DINING", "Dining Services",
+            "DEPARTMENT", "Department",
+            "CLUB", "Student Club",
+            "EXTERNAL", "Community Partner");
+    private static final String[] BUILDINGS = {"Skutt Student Center", "Harper Center", "Brandeis Hall",
+            "Reinert Library", "Hixson-Lied Science", "Kiewit Fitness Center", "Rigge Science", "Eppley Building",
+            "Criss Complex", "Heider College of Business", "Davis Square", "Campus Quad"};
+    private static final String[] TITLES = {"Pizza Night", "Leftover Lunch", "Bagel Breakfast", "Taco Tuesday",
+            "Study Break Snacks", "Catering Surplus", "Club Social", "Department Seminar Lunch", "Finals Fuel",
+            "Community Dinner", "Coffee and Donuts", "Sandwich Pickup", "Welcome Week BBQ", "Guest Lecture Reception"};
+    private static final String[] DESCRIPTIONS = {"Leftovers from an earlier event, first come first served.",
+            "Bring your own container if you can.", "Vegetarian options available.",
+            "Catering ordered too much, come grab a plate.", "Open to all students and staff."};
+    private static final String[] ITEM_NAMES = {"Pizza Slices", "Sandwiches", "Bagels", "Salad Bowls", "Tacos",
+            "Cookies", "Fruit Cups", "Meal Portions", "Burritos", "Pastries"};
+    private static final String[] FIRST_NAMES = {"Alex", "Jordan", "Taylor", "Sam", "Casey", "Riley", "Morgan",
+            "Jamie", "Avery", "Quinn", "Drew", "Reese", "Parker", "Rowan", "Emerson", "Hayden"};
+    private static final String[] LAST_NAMES = {"Nguyen", "Smith", "Garcia", "Johnson", "Kim", "Patel", "Brown",
+            "Martinez", "Lee", "Wilson", "Anderson", "Lopez", "Clark", "Young", "Hall", "Rivera"};
+    /** Start hours, repeated by weight: lunch and dinner dominate. */
+    private static final int[] START_HOURS = {8, 9, 10, 11, 11, 12, 12, 12, 13, 13, 14, 16, 17, 17, 18, 18, 19, 20};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+    private final int organizations;
+    private final int locations;
+    private final int users;
+    private final long events;
+    private final int maxItemsPerEvent;
+    private final double claimsPerEvent;
+    private final long seed;
+    private final int batchSize;
+    private final int pastDays;
+    private final int futureDays;
+    private final boolean exitWhenDone;
+
+    public record Summary(int organizations, int locations, int users, long events, long items, long claims,
+                          Duration elapsed) {
+    }
+
+    public SyntheticDataGenerator(DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${synthetic.organizations:50}") int organizations,
+                                  @Value("${synthetic.locations:400}") int locations,
+                                  @Value("${synthetic.users:20000}") int users,
+                                  @Value("${synthetic.events:100000}") long events,
+                                  @Value("${synthetic.max-items-per-event:3}") int maxItemsPerEvent,
+                                  @Value("${synthetic.claims-per-event:20}") double claimsPerEvent,
+                                  @Value("${synthetic.seed:42}") long seed,
+                                  @Value("${synthetic.batch-size:2000}") int batchSize,
+                                  @Value("${synthetic.past-days:365}") int pastDays,
+                                  @Value("${synthetic.future-days:60}") int futureDays,
+                                  @Value("${synthetic.exit-when-done:true}") boolean exitWhenDone) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.context = context;
+        this.organizations = organizations;
+        this.locations = locations;
+        this.users = users;
+        this.events = events;
+        this.maxItemsPerEvent = Math.max(1, maxItemsPerEvent);
+        this.claimsPerEvent = claimsPerEvent;
+        this.seed = seed;
+        this.batchSize = Math.max(1, batchSize);
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!jdbcTemplate.queryForList("select event_id from events limit 1", Long.class).isEmpty()) {
+            log.warn("Database already has events; not generating synthetic data");
+        } else {
+            Summary summary = generate();
+            log.info("Generated {} organizations, {} locations, {} users, {} events, {} items and {} claims in {}",
+                    summary.organizations(), summary.locations(), summary.users(), summary.events(),
+                    summary.items(), summary.claims(), summary.elapsed());
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    public Summary generate() {
+        if (organizations < 1 || users < 1) {
+            throw new IllegalArgumentException("synthetic.organizations and synthetic.users must be at least 1");
+        }
+        if (locations < organizations) {
+            throw new IllegalArgumentException("synthetic.locations must be at least synthetic.organizations");
+        }
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        long[] organizationIds = insertAll(INSERT_ORGANIZATION, organizations, i -> {
+            String type = ORG_TYPES[random.nextInt(ORG_TYPES.length)];
+            return new Object[]{ORG_NAMES.get(type) + " " + (i + 1), type, now.minusDays(random.nextInt(1000))};
+        });
+
+        // Every organization gets one location, the rest go mostly to the busiest organizations.
+        int[] locationOrganization = new int[locations];
+        long[] locationIds = insertAll(INSERT_LOCATION, locations, i -> {
+            int organization = i < organizations ? i : skewed(random, organizations, 2.0);
+            locationOrganization[i] = organization;
+            String building = BUILDINGS[random.nextInt(BUILDINGS.length)];
+            String room = String.valueOf(i + 1);
+            return new Object[]{organizationIds[organization], building, Location.nameKey(building),
+                    building, room, room,
+                    coordinate(CAMPUS_LATITUDE + random.nextGaussian() * LOCATION_SPREAD_DEGREES),
+                    coordinate(CAMPUS_LONGITUDE + random.nextGaussian() * LOCATION_SPREAD_DEGREES)};
+        });
+        int[][] locationsByOrganization = groupLocations(locationOrganization);
+
+        long[] userIds = insertAll(INSERT_USER, users, i -> {
+            double role = random.nextDouble();
+            return new Object[]{"user%d@synthetic.test".formatted(i + 1),
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    role < 0.9 ? "STUDENT" : role < 0.99 ? "STAFF" : "ADMIN",
+                    now.minusDays(random.nextInt(1500))};
+        });
+
+        EventWriter writer = new EventWriter(random, now, organizationIds, locationIds, locationsByOrganization,
+                userIds);
+        long written = 0;
+        long reportEvery = Math.max(1, events / 10);
+        long nextReport = reportEvery;
+        while (written < events) {
+            int size = (int) Math.min(batchSize, events - written);
+            transactionTemplate.executeWithoutResult(status -> writer.writeBatch(size));
+            written += size;
+            if (written >= nextReport && written < events) {
+                log.info("Generated {} of {} synthetic events", written, events);
+                nextReport = (written / reportEvery + 1) * reportEvery;
+            }
+        }
+        return new Summary(organizations, locations, users, written, writer.items, writer.claims,
+                Duration.ofNanos(System.nanoTime() - started).truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Builds and inserts {@code count} rows one batch at a time, returning their generated ids in row order.
+     */
+    private long[] insertAll(String sql, int count, IntFunction<Object[]> row) {
+        long[] ids = new long[count];
+        for (int from = 0; from < count; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + batchSize); i++) {
+                rows.add(row.apply(i));
+            }
+            long[] batch = transactionTemplate.execute(status -> insertReturningIds(sql, rows));
+            System.arraycopy(batch, 0, ids, from, batch.length);
+        }
+        return ids;
+    }
+
+    private long[] insertReturningIds(String sql, List<Object[]> rows) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            StatementCreatorUtils.setParameterValue(ps, column + 1, SqlTypeValue.TYPE_UNKNOWN,
+                                    row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != rows.size()) {
+            throw new IllegalStateException("Expected %d generated ids but the driver returned %d"
+                    .formatted(rows.size(), generated.size()));
+        }
+        long[] ids = new long[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) generated.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+
+    private void insertInBatches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private int[][] groupLocations(int[] locationOrganization) {
+        int[] counts = new int[organizations];
+        for (int organization : locationOrganization) {
+            counts[organization]++;
+        }
+        int[][] grouped = new int[organizations][];
+        for (int organization = 0; organization < organizations; organization++) {
+            grouped[organization] = new int[counts[organization]];
+        }
+        int[] filled = new int[organizations];
+        for (int location = 0; location < locationOrganization.length; location++) {
+            int organization = locationOrganization[location];
+            grouped[organization][filled[organization]++] = location;
+        }
+        return grouped;
+    }
+
+    /**
+     * An index in {@code [0, n)} where low indexes are far more likely; higher {@code skew} means a longer tail.
+     */
+    private static int skewed(SplittableRandom random, int n, double skew) {
+        return Math.min(n - 1, (int) (n * Math.pow(random.nextDouble(), skew)));
+    }
+
+    private static BigDecimal coordinate(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(6, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Writes events together with their items and claims; a claim needs its item's id, so each batch goes out
+     * in three inserts.
+     */
+    private final class EventWriter {
+        private final SplittableRandom random;
+        private final LocalDateTime now;
+        private final long[] organizationIds;
+        private final long[] locationIds;
+        private final int[][] locationsByOrganization;
+        private final long[] userIds;
+        private long items;
+        private long claims;
+
+        private record PendingClaim(int item, long eventId, long userId, int quantity, String status,
+                                    LocalDateTime claimedAt, LocalDateTime redeemedAt) {
+        }
+
+        EventWriter(SplittableRandom random, LocalDateTime now, long[] organizationIds, long[] locationIds,
+                    int[][] locationsByOrganization, long[] userIds) {
+            this.random = random;
+            this.now = now;
+            this.organizationIds = organizationIds;
+            this.locationIds = locationIds;
+            this.locationsByOrganization = locationsByOrganization;
+            this.userIds = userIds;
+        }
+
+        void writeBatch(int size) {
+            List<Object[]> eventRows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                eventRows.add(eventRow());
+            }
+            long[] eventIds = insertReturningIds(EventSql.INSERT_EVENT, eventRows);
+
+            List<Object[]> itemRows = new ArrayList<>();
+            List<PendingClaim> pending = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Object[] event = eventRows.get(i);
+                int itemCount = itemCount();
+                for (int n = 0; n < itemCount; n++) {
+                    itemRows.add(itemRow(eventIds[i], event, itemCount, itemRows.size(), pending));
+                }
+            }
+            long[] itemIds = insertReturningIds(EventSql.INSERT_ITEM, itemRows);
+
+            List<Object[]> claimRows = new ArrayList<>(pending.size());
+            for (PendingClaim claim : pending) {
+                claimRows.add(new Object[]{claim.eventId(), itemIds[claim.item()], claim.userId(), claim.quantity(),
+                        claim.status(), claim.claimedAt(), claim.redeemedAt()});
+            }
+            insertInBatches(INSERT_CLAIM, claimRows);
+            items += itemRows.size();
+            claims += claimRows.size();
+        }
+
+        private Object[] eventRow() {
+            int organization = skewed(random, organizationIds.length, 2.5);
+            int[] candidates = locationsByOrganization[organization];
+            int location = candidates[random.nextInt(candidates.length)];
+            LocalDateTime start = now.toLocalDate()
+                    .plusDays(random.nextInt(-pastDays, futureDays + 1))
+                    .atTime(START_HOURS[random.nextInt(START_HOURS.length)], 15 * random.nextInt(4));
+            // Some events are open-ended; the lifecycle scheduler gives those a default duration.
+            LocalDateTime end = random.nextDouble() < 0.85 ? start.plusMinutes(30L * (2 + random.nextInt(5))) : null;
+            LocalDateTime created = start.minusHours(1 + random.nextInt(14 * 24));
+            if (created.isAfter(now)) {
+                created = now.minusMinutes(random.nextInt(24 * 60));
+            }
+            String description = random.nextDouble() < 0.8 ? DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] : null;
+            return new Object[]{organizationIds[organization], locationIds[location],
+                    userIds[random.nextInt(userIds.length)], TITLES[random.nextInt(TITLES.length)], description,
+                    start, end, status(start, end), created, created};
+        }
+
+        private String status(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime over = end != null ? end : start.plusHours(2);
+            if (over.isBefore(now)) {
+                return random.nextDouble() < 0.95 ? "ENDED" : "CANCELLED";
+            }
+            if (!start.isAfter(now)) {
+                return "ACTIVE";
+            }
+            double roll = random.nextDouble();
+            return roll < 0.70 ? "ACTIVE" : roll < 0.85 ? "PUBLISHED" : roll < 0.95 ? "DRAFT" : "CANCELLED";
+        }
+
+        private int itemCount() {
+            int count = 1;
+            while (count < maxItemsPerEvent && random.nextDouble() < 0.3) {
+                count++;
+            }
+            return count;
+        }
+
+        private Object[] itemRow(long eventId, Object[] event, int itemCount, int itemIndex,
+                                 List<PendingClaim> pending) {
+            // Log-normal around 40 portions, the way catering orders come in.
+            int available = Math.clamp(Math.round(Math.exp(3.7 + 0.7 * random.nextGaussian())), 5, 1000);
+            int limit = random.nextDouble() < 0.7 ? 0 : 1 + random.nextInt(3);
+            String status = (String) event[7];
+            int claimed = 0;
+            if (status.equals("ACTIVE") || status.equals("ENDED")) {
+                claimed = claims(eventId, event, status, itemIndex, available, limit,
+                        claimsPerEvent / itemCount, pending);
+            }
+            return new Object[]{eventId, ITEM_NAMES[random.nextInt(ITEM_NAMES.length)], available, claimed, limit};
+        }
+
+        /**
+         * Adds claims for one item, one per user, and returns the portions they hold.
+         */
+        private int claims(long eventId, Object[] event, String eventStatus, int item, int available, int limit,
+                           double mean, List<PendingClaim> pending) {
+            LocalDateTime start = (LocalDateTime) event[5];
+            LocalDateTime end = event[6] != null ? (LocalDateTime) event[6] : start.plusHours(2);
+            LocalDateTime created = (LocalDateTime) event[8];
+            LocalDateTime latest = end.isBefore(now) ? end : now;
+            long window = Math.max(1, ChronoUnit.MINUTES.between(created, latest));
+
+            int wanted = (int) Math.min(Math.round(-mean * Math.log(1 - random.nextDouble())), userIds.length);
+            Set<Long> claimants = new HashSet<>();
+            int held = 0;
+            for (int attempt = 0; attempt < wanted * 2 && claimants.size() < wanted; attempt++) {
+                long userId = userIds[skewed(random, userIds.length, 1.5)];
+                if (!claimants.add(userId)) {
+                    continue;
+                }
+                int quantity = random.nextDouble() < 0.85 ? 1 : 2;
+                if (limit > 0) {
+                    quantity = Math.min(quantity, limit);
+                }
+                if (held + quantity > available) {
+                    break;
+                }
+                double roll = random.nextDouble();
+                String status;
+                if (eventStatus.equals("ENDED")) {
+                    status = roll < 0.75 ? "REDEEMED" : roll < 0.95 ? "EXPIRED" : "CANCELLED";
+                } else {
+                    status = roll < 0.9 ? "CLAIMED" : "CANCELLED";
+                }
+                LocalDateTime claimedAt = created.plusMinutes(random.nextLong(window));
+                LocalDateTime redeemedAt = status.equals("REDEEMED")
+                        ? start.plusMinutes(random.nextLong(Math.max(1, ChronoUnit.MINUTES.between(start, end))))
+                        : null;
+                if (!status.equals("CANCELLED")) {
+                    held += quantity;
+                }
+                pending.add(new PendingClaim(item, eventId, userId, quantity, status, claimedAt, redeemedAt));
+            }
+            return held;
+        }
+    }
+}
@@ -58,12 +58,14 @@ CREATE TABLE IF NOT EXISTS `creighton4good`.`locations` (
   `location_id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
   `org_id` BIGINT UNSIGNED NOT NULL,
   `name` VARCHAR(120) NOT NULL,
+  `name_key` VARCHAR(120) NOT NULL DEFAULT '',
   `building` VARCHAR(120) NULL DEFAULT NULL,
   `room` VARCHAR(40) NULL DEFAULT NULL,
+  `room_key` VARCHAR(40) NOT NULL DEFAULT '',
   `latitude` DECIMAL(9,6) NULL DEFAULT NULL,
   `longitude` DECIMAL(9,6) NULL DEFAULT NULL,
   PRIMARY KEY (`location_id`),
-  UNIQUE INDEX `uniq_loc` (`org_id` ASC, `name` ASC, `room` ASC) VISIBLE,
+  UNIQUE INDEX `uniq_loc_key` (`org_id` ASC, `name_key` ASC, `room_key` ASC) VISIBLE,
   INDEX `idx_loc_org` (`org_id` ASC) VISIBLE,
   CONSTRAINT `fk_loc_org`
     FOREIGN KEY (`org_id`)
@@ -92,6 +94,8 @@ CREATE TABLE IF NOT EXISTS `creighton4good`.`events` (
   `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   PRIMARY KEY (`event_id`),
   INDEX `idx_evt_time` (`status` ASC, `start_time` ASC) VISIBLE,
+  INDEX `idx_evt_start` (`start_time` ASC, `event_id` ASC) VISIBLE,
+  INDEX `idx_evt_updated` (`updated_at` ASC, `event_id` ASC) VISIBLE,
   INDEX `idx_evt_loc` (`location_id` ASC, `start_time` ASC) VISIBLE,
   INDEX `idx_evt_org` (`org_id` ASC, `start_time` ASC) VISIBLE,
   INDEX `fk_evt_creator` (`created_by` ASC) VISIBLE,
@@ -149,7 +153,9 @@ CREATE TABLE IF NOT EXISTS `creighton4good`.`claims` (
   `status` ENUM('CLAIMED', 'REDEEMED', 'CANCELLED', 'EXPIRED') NOT NULL DEFAULT 'CLAIMED',
   `claimed_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `redeemed_at` TIMESTAMP NULL DEFAULT NULL,
+  `token` VARCHAR(32) NULL DEFAULT NULL,
   PRIMARY KEY (`claim_id`),
+  UNIQUE INDEX `uniq_claim_token` (`token` ASC) VISIBLE,
   INDEX `idx_claim_event` (`event_id` ASC) VISIBLE,
   INDEX `idx_claim_user` (`user_id` ASC) VISIBLE,
   INDEX `fk_claim_item` (`event_item_id` ASC) VISIBLE,
@@ -173,6 +179,69 @@ DEFAULT CHARACTER SET = utf8mb4
 COLLATE = utf8mb4_0900_ai_ci;
 
 
+-- -----------------------------------------------------
+-- Table `creighton4good`.`waitlist_entries`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `creighton4good`.`waitlist_entries` (
+  `waitlist_id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `event_id` BIGINT UNSIGNED NOT NULL,
+  `event_item_id` BIGINT UNSIGNED NOT NULL,
+  `user_id` BIGINT UNSIGNED NOT NULL,
+  `quantity` SMALLINT UNSIGNED NOT NULL DEFAULT '1',
+  `status` ENUM('WAITING', 'ALLOCATED', 'LEFT', 'CLOSED') NOT NULL DEFAULT 'WAITING',
+  `joined_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `claim_id` BIGINT UNSIGNED NULL DEFAULT NULL,
+  PRIMARY KEY (`waitlist_id`),
+  INDEX `idx_waitlist_item_status` (`event_item_id` ASC, `status` ASC, `waitlist_id` ASC) VISIBLE,
+  INDEX `idx_waitlist_event` (`event_id` ASC) VISIBLE,
+  INDEX `fk_waitlist_user` (`user_id` ASC) VISIBLE,
+  INDEX `fk_waitlist_claim` (`claim_id` ASC) VISIBLE,
+  CONSTRAINT `fk_waitlist_event`
+    FOREIGN KEY (`event_id`)
+    REFERENCES `creighton4good`.`events` (`event_id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  CONSTRAINT `fk_waitlist_item`
+    FOREIGN KEY (`event_item_id`)
+    REFERENCES `creighton4good`.`event_items` (`event_item_id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  CONSTRAINT `fk_waitlist_user`
+    FOREIGN KEY (`user_id`)
+    REFERENCES `creighton4good`.`users` (`user_id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  CONSTRAINT `fk_waitlist_claim`
+    FOREIGN KEY (`claim_id`)
+    REFERENCES `creighton4good`.`claims` (`claim_id`)
+    ON DELETE SET NULL
+    ON UPDATE CASCADE)
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8mb4
+COLLATE = utf8mb4_0900_ai_ci;
+
+
+-- -----------------------------------------------------
+-- Table `creighton4good`.`event_tombstones`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `creighton4good`.`event_tombstones` (
+  `event_id` BIGINT UNSIGNED NOT NULL,
+  `deleted_at` TIMESTAMP NOT NULL,
+  PRIMARY KEY (`event_id`),
+  INDEX `idx_tomb_deleted` (`deleted_at` ASC, `event_id` ASC) VISIBLE)
+ENGINE = InnoDB;
+
+
+-- -----------------------------------------------------
+-- Table `creighton4good`.`replica_heartbeat`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `creighton4good`.`replica_heartbeat` (
+  `id` TINYINT NOT NULL,
+  `beat_millis` BIGINT NOT NULL,
+  PRIMARY KEY (`id`))
+ENGINE = InnoDB;
+
+
 SET SQL_MODE=@OLD_SQL_MODE;
 SET FOREIGN_KEY_CHECKS=@OLD_FOREIGN_KEY_CHECKS;
 SET UNIQUE_CHECKS=@OLD_UNIQUE_CHECKS;
@@ -0,0 +1,132 @@
+package backend.backend.admission;
+
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.repositories.EventItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Token buckets per client, user and event, with limits low enough to trip within a test.
+ */
+@SpringBootTest(properties = {
+        "admission.client.rate=0.5",
+        "admission.client.burst=3",
+        "admission.user.rate=0.5",
+        "admission.user.burst=1",
+        "admission.event.rate=0.5",
+        "admission.event.burst=2",
+        "admission.idle-sweep-interval=1h"
+})
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventItemRepository eventItemRepository;
+
+    @Test
+    void bucketRefillsAtItsRate() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(second / 2, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(second / 2));
+        assertTrue(bucket.tryAcquire(second / 2) > 0);
+        assertTrue(bucket.isFull(second * 2));
+    }
+
+    @Test
+    void idleKeysAreEvictedAndExtraKeysShareTheOverflowBucket() {
+        KeyedLimiter<String> limiter = new KeyedLimiter<>(1, 1, 2);
+        long now = System.nanoTime();
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("b", now));
+        assertEquals(0, limiter.tryAcquire("c", now));
+        assertTrue(limiter.tryAcquire("d", now) > 0, "keys past the limit share one bucket");
+        assertEquals(2, limiter.size());
+        assertEquals(2, limiter.overflowed());
+
+        assertEquals(2, limiter.evictIdle(now + TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void busyClientGets429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(from("10.0.0.1", get("/api/events"))).andExpect(status().isOk());
+        }
+        mockMvc.perform(from("10.0.0.1", get("/api/events")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+        mockMvc.perform(from("10.0.0.2", get("/api/events"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void hotEventIsLimitedAcrossClients() throws Exception {
+        mockMvc.perform(from("10.0.1.1", get("/api/events/{id}", 987654))).andExpect(status().isNotFound());
+        mockMvc.perform(from("10.0.1.2", get("/api/events/{id}", 987654))).andExpect(status().isNotFound());
+        mockMvc.perform(from("10.0.1.3", get("/api/events/{id}", 987654))).andExpect(status().isTooManyRequests());
+        mockMvc.perform(from("10.0.1.3", get("/api/events/{id}", 987655))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void claimsAreLimitedPerUser() throws Exception {
+        // The event's bucket still has a token left after the first claim, so only the user limit can trip.
+        String claim = """
+                {"eventId": 987656, "userId": 4242}""";
+        mockMvc.perform(from("10.0.2.1", post("/api/claims").contentType(MediaType.APPLICATION_JSON).content(claim)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(from("10.0.2.2", post("/api/claims").contentType(MediaType.APPLICATION_JSON).content(claim)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void claimsNamingOnlyAnItemCountAgainstItsEvent() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long eventId = eventService.create(new EventRequest("Admission Lunch", null, 1L, null, "Admission Hall", null,
+                start, start.plusHours(1), 5, "ACTIVE")).id();
+        Long itemId = eventItemRepository.findFirstByEventIdOrderByEventItemIdAsc(eventId).orElseThrow().getEventItemId();
+        mockMvc.perform(from("10.0.3.1", get("/api/events/{id}", eventId))).andExpect(status().isOk());
+        mockMvc.perform(from("10.0.3.2", get("/api/events/{id}", eventId))).andExpect(status().isOk());
+
+        String claim = """
+                {"eventItemId": %d, "userId": 4343}""".formatted(itemId);
+        mockMvc.perform(from("10.0.3.3", post("/api/claims").contentType(MediaType.APPLICATION_JSON).content(claim)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("This event is very busy right now"));
+    }
+
+    private static MockHttpServletRequestBuilder from(String address, MockHttpServletRequestBuilder request) {
+        return request.with(mock -> {
+            mock.setRemoteAddr(address);
+            return mock;
+        });
+    }
+}
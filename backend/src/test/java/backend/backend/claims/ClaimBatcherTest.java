@@ -0,0 +1,155 @@
+package backend.backend.claims;
+
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.repositories.EventItemRepository;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Group-committed claims: a batch shares one transaction, yet every caller gets its own result.
+ */
+@SpringBootTest(properties = {
+        "claims.batch.max-wait=200ms",
+        "spring.datasource.url=jdbc:h2:mem:claimbatch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class ClaimBatcherTest {
+
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private ClaimBatcher claimBatcher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EventItemRepository eventItemRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void rejectedClaimsFailAloneInsideABatch() throws Exception {
+        EventItem item = createActiveItem(3);
+        List<Long> userIds = createUsers(5);
+        List<ClaimRequest> requests = new ArrayList<>();
+        userIds.forEach(userId -> requests.add(new ClaimRequest(null, item.getEventItemId(), userId, 1)));
+        requests.add(new ClaimRequest(null, item.getEventItemId(), -1L, 1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(requests.size());
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            requests.forEach(request -> results.add(pool.submit(() -> claimService.claim(request))));
+            int granted = 0;
+            int soldOut = 0;
+            int missingUser = 0;
+            for (Future<?> result : results) {
+                try {
+                    assertNotNull(result.get());
+                    granted++;
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof ClaimRejectedException) {
+                        soldOut++;
+                    } else if (ex.getCause() instanceof EntityNotFoundException) {
+                        missingUser++;
+                    } else {
+                        throw ex;
+                    }
+                }
+            }
+            assertEquals(3, granted);
+            assertEquals(2, soldOut);
+            assertEquals(1, missingUser);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(3, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+        assertTrue(meterRegistry.get("claims.batch.size").summary().max() > 1, "claims were not batched");
+    }
+
+    @Test
+    void failedBatchIsRetriedOneClaimAtATime() {
+        EventItem item = createActiveItem(10);
+        Long userId = createUsers(1).get(0);
+        double fallbacks = meterRegistry.get("claims.batch.fallbacks").counter().count();
+
+        CompletableFuture<?> good = claimBatcher.submit(item.getEventItemId(), () -> {
+            eventItemRepository.reservePortions(item.getEventItemId(), 1);
+            return null;
+        });
+        CompletableFuture<?> broken = claimBatcher.submit(item.getEventItemId(), () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        good.join();
+        assertThrows(Exception.class, broken::join);
+        assertEquals(fallbacks + 1, meterRegistry.get("claims.batch.fallbacks").counter().count());
+        assertEquals(1, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+        assertNotNull(claimService.claim(new ClaimRequest(null, item.getEventItemId(), userId, 1)));
+    }
+
+    @Test
+    void laneKilledByAnErrorAnswersItsBatchAndComesBack() {
+        EventItem item = createActiveItem(10);
+        Long userId = createUsers(1).get(0);
+
+        CompletableFuture<?> fatal = claimBatcher.submit(item.getEventItemId(), () -> {
+            throw new Error("lane killer");
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> fatal.get(5, TimeUnit.SECONDS));
+        assertEquals("lane killer", failure.getCause().getMessage());
+        assertNotNull(claimService.claim(new ClaimRequest(null, item.getEventItemId(), userId, 1)));
+    }
+
+    private EventItem createActiveItem(int portions) {
+        Organization organization = organizationRepository.save(
+                new Organization("Batch Test Org " + System.nanoTime(), Organization.OrgType.CLUB));
+        Location location = locationRepository.save(new Location(organization, "Batch Test Hall"));
+        User creator = userRepository.save(
+                new User("batch-creator-" + System.nanoTime() + "@creighton.edu", "Creator", User.UserRole.STAFF));
+
+        Event event = new Event(organization, location, creator, "Free Bagels", LocalDateTime.now().plusHours(1));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        event.getEventItems().add(new EventItem(event, "Bagels", portions));
+        return eventRepository.save(event).getEventItems().get(0);
+    }
+
+    private List<Long> createUsers(int count) {
+        String run = Long.toString(System.nanoTime());
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("batch-%s-%d@creighton.edu".formatted(run, i), "Claimer " + i, User.UserRole.STUDENT));
+        }
+        return userRepository.saveAll(users).stream().map(User::getUserId).toList();
+    }
+}
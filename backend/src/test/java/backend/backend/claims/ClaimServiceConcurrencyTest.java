@@ -0,0 +1,220 @@
+package backend.backend.claims;
+
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventItemRepository;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires many simultaneous claims at a single item and checks that exactly the available portions are granted.
+ */
+// H2 gives up on a row lock after a second by default; MySQL waits far longer, and so should this much contention.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:claimrace;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class ClaimServiceConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimServiceConcurrencyTest.class);
+
+    private static final int CLAIMERS = 1_200;
+    private static final int PORTIONS = 250;
+    private static final int THREADS = 128;
+
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private ClaimRepository claimRepository;
+    @Autowired
+    private EventItemRepository eventItemRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EventService eventService;
+
+    private record Outcome(int granted, int rejected, List<Exception> failures, long elapsedNanos) {
+    }
+
+    @Test
+    void concurrentClaimersNeverOversell() throws Exception {
+        EventItem item = createActiveItem(PORTIONS, 0);
+        List<Long> userIds = createUsers(CLAIMERS);
+
+        Outcome outcome = runConcurrently(CLAIMERS,
+                i -> new ClaimRequest(null, item.getEventItemId(), userIds.get(i), 1));
+
+        assertNoFailures(outcome);
+        assertEquals(PORTIONS, outcome.granted());
+        assertEquals(CLAIMERS - PORTIONS, outcome.rejected());
+        assertEquals(PORTIONS, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+        assertEquals(PORTIONS, countClaims(item.getEventItemId()));
+
+        log.info("{} claimers on {} threads: {} granted in {} ms ({} claims/s)",
+                CLAIMERS, THREADS, outcome.granted(), TimeUnit.NANOSECONDS.toMillis(outcome.elapsedNanos()),
+                Math.round(CLAIMERS / (outcome.elapsedNanos() / 1e9)));
+    }
+
+    @Test
+    void perUserLimitHoldsForConcurrentRequestsFromOneUser() throws Exception {
+        EventItem item = createActiveItem(100, 2);
+        Long userId = createUsers(1).get(0);
+
+        Outcome outcome = runConcurrently(200, i -> new ClaimRequest(null, item.getEventItemId(), userId, 1));
+
+        assertNoFailures(outcome);
+        assertEquals(2, outcome.granted());
+        assertEquals(2, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+    }
+
+    @Test
+    void eventEditsNeverUndoConcurrentClaims() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        EventRequest edit = new EventRequest("Edited Pizza", null, 1L, null, "Claim Test Hall", null,
+                start, start.plusHours(1), PORTIONS, "ACTIVE");
+        EventResponse event = eventService.create(edit);
+        Long itemId = eventItemRepository.findFirstByEventIdOrderByEventItemIdAsc(event.id()).orElseThrow()
+                .getEventItemId();
+        List<Long> userIds = createUsers(CLAIMERS / 4);
+
+        // Keep editing the event, same meals each time, for as long as the claims run.
+        CountDownLatch claimsDone = new CountDownLatch(1);
+        List<Exception> editFailures = new ArrayList<>();
+        Thread editor = Thread.ofPlatform().start(() -> {
+            try {
+                while (claimsDone.getCount() > 0) {
+                    eventService.update(event.id(), edit);
+                }
+            } catch (Exception ex) {
+                editFailures.add(ex);
+            }
+        });
+        Outcome outcome;
+        try {
+            outcome = runConcurrently(userIds.size(), i -> new ClaimRequest(event.id(), null, userIds.get(i), 1));
+        } finally {
+            claimsDone.countDown();
+            editor.join();
+        }
+
+        assertNoFailures(outcome);
+        assertEquals(List.of(), editFailures);
+        assertEquals(outcome.granted(), eventItemRepository.findById(itemId).orElseThrow().getPortionsClaimed());
+        assertEquals(outcome.granted(), countClaims(itemId));
+
+        // Offering fewer than are claimed leaves the claims alone and nothing on offer.
+        EventResponse shrunk = eventService.update(event.id(), new EventRequest("Edited Pizza", null, 1L, null,
+                "Claim Test Hall", null, start, start.plusHours(1), 0, "ACTIVE"));
+        assertEquals(0, shrunk.meals());
+        assertEquals(outcome.granted(), eventItemRepository.findById(itemId).orElseThrow().getPortionsClaimed());
+    }
+
+    private Outcome runConcurrently(int claims, IntFunction<ClaimRequest> requests) throws InterruptedException {
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Exception> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(claims);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < claims; i++) {
+                ClaimRequest request = requests.apply(i);
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        claimService.claim(request);
+                        granted.incrementAndGet();
+                    } catch (ClaimRejectedException ex) {
+                        rejected.incrementAndGet();
+                    } catch (Exception ex) {
+                        failures.add(ex);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            assertTrue(done.await(2, TimeUnit.MINUTES), "claims did not finish in time");
+            return new Outcome(granted.get(), rejected.get(), List.copyOf(failures), System.nanoTime() - began);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Fails with the first unexpected exception attached, so its stack trace shows up in the report.
+     */
+    private static void assertNoFailures(Outcome outcome) {
+        if (!outcome.failures().isEmpty()) {
+            String message = "%d claims failed unexpectedly".formatted(outcome.failures().size());
+            AssertionError error = new AssertionError(message, outcome.failures().get(0));
+            outcome.failures().stream().skip(1).limit(4).forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    private EventItem createActiveItem(int portions, int perUserLimit) {
+        Organization organization = organizationRepository.save(
+                new Organization("Claim Test Org " + System.nanoTime(), Organization.OrgType.CLUB));
+        Location location = locationRepository.save(new Location(organization, "Claim Test Hall"));
+        User creator = userRepository.save(
+                new User("creator-" + System.nanoTime() + "@creighton.edu", "Creator", User.UserRole.STAFF));
+
+        Event event = new Event(organization, location, creator, "Free Pizza", LocalDateTime.now().plusHours(1));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        EventItem item = new EventItem(event, "Pizza Slices", portions);
+        item.setPerUserLimit(perUserLimit);
+        event.getEventItems().add(item);
+        return eventRepository.save(event).getEventItems().get(0);
+    }
+
+    private List<Long> createUsers(int count) {
+        String run = Long.toString(System.nanoTime());
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("claimer-%s-%d@creighton.edu".formatted(run, i), "Claimer " + i, User.UserRole.STUDENT));
+        }
+        return userRepository.saveAll(users).stream().map(User::getUserId).toList();
+    }
+
+    private long countClaims(Long itemId) {
+        return claimRepository.findAll().stream()
+                .filter(claim -> claim.getEventItem() != null && itemId.equals(claim.getEventItem().getEventItemId()))
+                .count();
+    }
+}
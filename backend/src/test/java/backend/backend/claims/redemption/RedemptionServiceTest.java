@@ -0,0 +1,184 @@
+package backend.backend.claims.redemption;
+
+import backend.backend.claims.ClaimRejectedException;
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.ClaimRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A token is only shown to its claimant, redeems exactly once, answers from memory before the write lands, and
+ * survives shutdown.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:redemptions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class RedemptionServiceTest {
+
+    @Autowired
+    private RedemptionService redemptionService;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClaimRepository claimRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void onlyTheClaimResponseCarriesTheToken() throws Exception {
+        EventResponse event = createEvent();
+        mockMvc.perform(post("/api/claims")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"eventId\":%d,\"userId\":1}".formatted(event.id())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").isString());
+        Long claimId = claim(event).id();
+
+        mockMvc.perform(get("/api/claims/{id}", claimId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(claimId))
+                .andExpect(jsonPath("$.token").doesNotExist());
+        mockMvc.perform(get("/api/claims").param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[*].token").isEmpty());
+    }
+
+    @Test
+    void redeemsOnceAndPersistsInTheBackground() {
+        ClaimCreatedResponse claim = claim(createEvent());
+        assertNotNull(claim.token());
+
+        assertEquals(claim.id(), redemptionService.redeem(claim.token()).claimId());
+        ClaimRejectedException duplicate = assertThrows(ClaimRejectedException.class,
+                () -> redemptionService.redeem(claim.token()));
+        assertTrue(duplicate.getMessage().startsWith("Already redeemed"), duplicate.getMessage());
+        assertEquals("REDEEMED", claimService.get(claim.id()).status());
+        assertThrows(ClaimRejectedException.class, () -> claimService.cancel(claim.id()));
+
+        redemptionService.flush();
+        assertEquals("REDEEMED", storedStatus(claim.id()));
+        assertNotNull(claimService.get(claim.id()).redeemedAt());
+        assertThrows(ClaimRejectedException.class, () -> redemptionService.redeem(claim.token()));
+    }
+
+    @Test
+    void concurrentScansOfOneTokenRedeemOnce() throws InterruptedException {
+        ClaimCreatedResponse claim = claim(createEvent());
+        int scanners = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Object>> scans = new ArrayList<>();
+        for (int i = 0; i < scanners; i++) {
+            scans.add(() -> {
+                start.await();
+                return redemptionService.redeem(claim.token());
+            });
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(scanners);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            scans.forEach(scan -> results.add(pool.submit(scan)));
+            start.countDown();
+            int accepted = 0;
+            for (Future<Object> result : results) {
+                try {
+                    result.get();
+                    accepted++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(ClaimRejectedException.class, ex.getCause());
+                }
+            }
+            assertEquals(1, accepted);
+        } finally {
+            pool.shutdownNow();
+        }
+        redemptionService.flush();
+        assertEquals("REDEEMED", storedStatus(claim.id()));
+    }
+
+    @Test
+    void rejectsCancelledAndUnknownTokens() {
+        ClaimCreatedResponse claim = claim(createEvent());
+        claimService.cancel(claim.id());
+        ClaimRejectedException rejected = assertThrows(ClaimRejectedException.class,
+                () -> redemptionService.redeem(claim.token()));
+        assertEquals("Claim is no longer valid", rejected.getMessage());
+        assertThrows(EntityNotFoundException.class, () -> redemptionService.redeem("not-a-real-token"));
+        assertThrows(IllegalArgumentException.class, () -> redemptionService.redeem(" "));
+    }
+
+    @Test
+    void shutdownWritesQueuedRedemptions() throws InterruptedException {
+        ClaimCreatedResponse claim = claim(createEvent());
+        // A separate instance whose writer would not run for an hour; only shutdown can persist its queue.
+        RedemptionService instance = new RedemptionService(claimRepository, dataSource, transactionManager,
+                publisher, new SimpleMeterRegistry(), Duration.ofHours(1), 500);
+        instance.redeem(claim.token());
+        assertEquals(1, instance.pending());
+        assertEquals("CLAIMED", storedStatus(claim.id()));
+
+        instance.shutdown();
+        assertEquals(0, instance.pending());
+        assertEquals("REDEEMED", storedStatus(claim.id()));
+    }
+
+    private EventResponse createEvent() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        return eventService.create(new EventRequest("Pickup", null, 1L, null, "Pickup Table", null,
+                start, start.plusHours(2), 20, "ACTIVE"));
+    }
+
+    private ClaimCreatedResponse claim(EventResponse event) {
+        return claimService.claim(new ClaimRequest(event.id(), null, 1L, 1));
+    }
+
+    private String storedStatus(Long claimId) {
+        return jdbcTemplate.queryForObject("select status from claims where claim_id = ?", String.class, claimId);
+    }
+}
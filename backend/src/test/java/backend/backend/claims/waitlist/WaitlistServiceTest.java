@@ -0,0 +1,217 @@
+package backend.backend.claims.waitlist;
+
+import backend.backend.claims.ClaimRejectedException;
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.claims.dto.WaitlistResponse;
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventItemRepository;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import backend.backend.repositories.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Returned portions go to waiters in line order, and the line survives a restart.
+ */
+@SpringBootTest(properties = {
+        "waitlist.allocate-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:waitlist;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class WaitlistServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistServiceTest.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private ClaimRepository claimRepository;
+    @Autowired
+    private EventItemRepository eventItemRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelledPortionsGoToTheNextWaiter() {
+        EventItem item = createActiveItem(2);
+        List<Long> users = createUsers(5);
+        ClaimCreatedResponse first = claimService.claim(new ClaimRequest(null, item.getEventItemId(), users.get(0), 1));
+        ClaimCreatedResponse second = claimService.claim(new ClaimRequest(null, item.getEventItemId(), users.get(1), 1));
+
+        WaitlistResponse a = join(item, users.get(2));
+        WaitlistResponse b = join(item, users.get(3));
+        assertEquals(1, a.position());
+        assertEquals(2, b.position());
+        assertThrows(ClaimRejectedException.class, () -> join(item, users.get(2)));
+        // Someone is waiting, so a newcomer cannot take returned portions first.
+        assertThrows(ClaimRejectedException.class,
+                () -> claimService.claim(new ClaimRequest(null, item.getEventItemId(), users.get(4), 1)));
+
+        claimService.cancel(first.id());
+        waitlistService.allocate();
+
+        WaitlistResponse allocated = waitlistService.get(a.id());
+        assertEquals("ALLOCATED", allocated.status());
+        assertNull(allocated.position());
+        assertNotNull(allocated.claimId());
+        assertEquals("CLAIMED", claimService.get(allocated.claimId()).status());
+        assertEquals(users.get(2), claimService.get(allocated.claimId()).userId());
+        assertEquals(1, waitlistService.get(b.id()).position());
+
+        waitlistService.leave(b.id());
+        assertEquals("LEFT", waitlistService.get(b.id()).status());
+        claimService.cancel(second.id());
+        waitlistService.allocate();
+        assertEquals(1, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+        // With the line empty, claims go straight through again.
+        assertNotNull(claimService.claim(new ClaimRequest(null, item.getEventItemId(), users.get(4), 1)));
+    }
+
+    @Test
+    void aLargeRequestAtTheHeadDoesNotHoldUpTheLine() {
+        EventItem item = createActiveItem(4);
+        List<Long> users = createUsers(6);
+        Long itemId = item.getEventItemId();
+        claimService.claim(new ClaimRequest(null, itemId, users.get(0), 2));
+        ClaimCreatedResponse first = claimService.claim(new ClaimRequest(null, itemId, users.get(1), 1));
+        ClaimCreatedResponse second = claimService.claim(new ClaimRequest(null, itemId, users.get(2), 1));
+        WaitlistResponse large = waitlistService.join(new ClaimRequest(null, itemId, users.get(3), 3));
+        WaitlistResponse small = join(item, users.get(4));
+
+        claimService.cancel(first.id());
+        claimService.cancel(second.id());
+        // The line has not been offered the returned portions yet.
+        assertThrows(ClaimRejectedException.class,
+                () -> claimService.claim(new ClaimRequest(null, itemId, users.get(5), 1)));
+
+        waitlistService.allocate();
+        assertEquals("ALLOCATED", waitlistService.get(small.id()).status());
+        assertEquals("WAITING", waitlistService.get(large.id()).status());
+        assertEquals(1, waitlistService.get(large.id()).position());
+        // Too little is left for anyone in line, so it may be claimed directly.
+        assertNotNull(claimService.claim(new ClaimRequest(null, itemId, users.get(5), 1)));
+        assertEquals(4, eventItemRepository.findById(itemId).orElseThrow().getPortionsClaimed());
+    }
+
+    @Test
+    void thousandsOfWaitersAreAllocatedInOrderAfterARestart() {
+        int waiters = 1_500;
+        int freed = 1_000;
+        EventItem item = createActiveItem(waiters);
+        List<Long> users = createUsers(waiters);
+        // Sold out, as if every portion had been claimed.
+        jdbcTemplate.update("update event_items set portions_claimed = portions_available where event_item_id = ?",
+                item.getEventItemId());
+        List<Long> entries = new ArrayList<>(waiters);
+        for (Long user : users) {
+            entries.add(join(item, user).id());
+        }
+        jdbcTemplate.update("update event_items set portions_claimed = ? where event_item_id = ?",
+                waiters - freed, item.getEventItemId());
+
+        WaitlistService restarted = new WaitlistService(waitlistRepository, eventItemRepository, claimRepository,
+                userRepository, publisher, dataSource, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofHours(1), 100);
+        try {
+            restarted.preload();
+            long began = System.nanoTime();
+            restarted.allocate();
+            long elapsed = System.nanoTime() - began;
+
+            assertEquals("ALLOCATED", restarted.get(entries.get(freed - 1)).status());
+            assertEquals("WAITING", restarted.get(entries.get(freed)).status());
+            assertEquals(1, restarted.get(entries.get(freed)).position());
+            assertEquals(waiters - freed, restarted.get(entries.get(waiters - 1)).position());
+            assertEquals(waiters, eventItemRepository.findById(item.getEventItemId()).orElseThrow().getPortionsClaimed());
+            log.info("{} waiters, {} allocated in {} ms", waiters, freed, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void oversizedOrEarlyWaitersAreTurnedAway() {
+        EventItem item = createActiveItem(2);
+        List<Long> users = createUsers(3);
+        assertThrows(ClaimRejectedException.class, () -> join(item, users.get(0)));
+
+        claimService.claim(new ClaimRequest(null, item.getEventItemId(), users.get(0), 2));
+        // More than the item could ever free up would block the line for good.
+        assertThrows(ClaimRejectedException.class,
+                () -> waitlistService.join(new ClaimRequest(null, item.getEventItemId(), users.get(1), 3)));
+        assertFalse(waitlistService.hasWaiters(item.getEventItemId()));
+        assertEquals(1, join(item, users.get(2)).position());
+    }
+
+    private WaitlistResponse join(EventItem item, Long userId) {
+        return waitlistService.join(new ClaimRequest(null, item.getEventItemId(), userId, 1));
+    }
+
+    private EventItem createActiveItem(int portions) {
+        Organization organization = organizationRepository.save(
+                new Organization("Waitlist Org " + System.nanoTime(), Organization.OrgType.CLUB));
+        Location location = locationRepository.save(new Location(organization, "Waitlist Hall"));
+        User creator = userRepository.save(
+                new User("waitlist-creator-" + System.nanoTime() + "@creighton.edu", "Creator", User.UserRole.STAFF));
+
+        Event event = new Event(organization, location, creator, "Free Tacos", LocalDateTime.now().plusHours(1));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        event.getEventItems().add(new EventItem(event, "Tacos", portions));
+        return eventRepository.save(event).getEventItems().get(0);
+    }
+
+    private List<Long> createUsers(int count) {
+        String run = Long.toString(System.nanoTime());
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("waiter-%s-%d@creighton.edu".formatted(run, i), "Waiter " + i, User.UserRole.STUDENT));
+        }
+        return userRepository.saveAll(users).stream().map(User::getUserId).toList();
+    }
+}
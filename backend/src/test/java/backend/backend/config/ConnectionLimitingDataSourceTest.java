@@ -0,0 +1,112 @@
+package backend.backend.config;
+
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In virtual-thread mode the pool is fronted by a limiter that parks checkouts beyond its permits.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.url=jdbc:h2:mem:virtualthreads;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class ConnectionLimitingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void thePoolIsFrontedByALimiterOfItsSize() throws InterruptedException {
+        ConnectionLimitingDataSource limiter = assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+        assertNotNull(eventService.create(request()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        // Background flushers may briefly hold a permit.
+        while (limiter.availablePermits() != 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, limiter.availablePermits());
+    }
+
+    @Test
+    void checkoutsBeyondThePermitsWaitForARelease() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(h2("limiter-wait"), 2, 5_000);
+        Connection first = limiter.getConnection();
+        Connection second = limiter.getConnection();
+        assertEquals(0, limiter.availablePermits());
+
+        CompletableFuture<Connection> waiter = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                waiter.complete(limiter.getConnection());
+            } catch (Exception ex) {
+                waiter.completeExceptionally(ex);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.queueLength() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, limiter.queueLength());
+        assertFalse(waiter.isDone());
+
+        first.close();
+        try (Connection third = waiter.get(5, TimeUnit.SECONDS)) {
+            assertTrue(third.isValid(1));
+            assertEquals(0, limiter.availablePermits());
+        }
+        second.close();
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    @Test
+    void aCheckoutGivesUpAfterTheTimeout() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(h2("limiter-timeout"), 1, 100);
+        try (Connection held = limiter.getConnection()) {
+            long began = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, limiter::getConnection);
+            assertTrue(System.nanoTime() - began >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(h2("limiter-close"), 2, 100);
+        Connection connection = limiter.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(2, limiter.availablePermits());
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+
+    private static EventRequest request() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new EventRequest("Virtual Brunch", null, 1L, null, "Limiter Hall", null,
+                start, start.plusHours(1), 5, "ACTIVE");
+    }
+}
@@ -0,0 +1,153 @@
+package backend.backend.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two embedded databases stand in for the primary and a replica; "replication" is an H2 script copy.
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.heartbeat-interval=1h",
+        "datasource.replica.max-lag=2s",
+        "spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void replicaCaughtUp() throws Exception {
+        routingDataSource.probe();
+        replicate();
+        routingDataSource.probe();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAReplicaAndWritesToThePrimary() {
+        assertEquals("replica", database(true));
+        assertEquals("creighton4good", database(false));
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update replica_heartbeat set beat_millis = beat_millis - 10000");
+        }
+        routingDataSource.probe();
+
+        assertEquals("creighton4good", database(true));
+    }
+
+    @Test
+    void markedReadsGoToThePrimaryWithoutPinning() throws Exception {
+        assertEquals("creighton4good", PrimaryReads.call(() -> database(true)));
+
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> PrimaryReads.run(() -> database(true)));
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void aWritePinsTheClientToThePrimary() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Routed Lunch", "organizationId": 1, "locationName": "Routing Hall",
+                                 "startsAt": "2099-05-01T12:00:00", "meals": 5, "status": "ACTIVE"}"""))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(pin);
+        String id = created.getResponse().getContentAsString().replaceAll("^\\{\"id\":(\\d+).*", "$1");
+
+        // The replica has not seen the new event yet, so only the pinned client finds it.
+        String batchGet = "{\"ids\": [" + id + "]}";
+        mockMvc.perform(post("/api/events/batch-get").contentType(MediaType.APPLICATION_JSON).content(batchGet))
+                .andExpect(jsonPath("$.missing[0]").value(Long.parseLong(id)));
+        mockMvc.perform(post("/api/events/batch-get").contentType(MediaType.APPLICATION_JSON).content(batchGet)
+                        .cookie(pin))
+                .andExpect(jsonPath("$.events[0].id").value(Long.parseLong(id)));
+        // Single reads fill a cache every client shares, so they come from the primary for everyone.
+        mockMvc.perform(get("/api/events/{id}", id)).andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyReadWriteTransactionsPinTheClient() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        MockHttpServletResponse untransacted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), untransacted,
+                (request, response) -> jdbcTemplate.queryForObject("select 1", Integer.class));
+        assertNull(untransacted.getCookie(ReadYourWritesFilter.COOKIE));
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        filter.doFilter(new MockHttpServletRequest(), written, (request, response) -> template.executeWithoutResult(
+                status -> jdbcTemplate.queryForObject("select 1", Integer.class)));
+        assertNotNull(written.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select database()", String.class).toLowerCase());
+    }
+
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("primary", ".sql");
+        try {
+            new JdbcTemplate(dataSource).execute("script to '" + script + "'");
+            try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("drop all objects");
+                statement.execute("runscript from '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
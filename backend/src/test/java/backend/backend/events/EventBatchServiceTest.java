@@ -0,0 +1,130 @@
+package backend.backend.events;
+
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.events.dto.BatchGetResult;
+import backend.backend.events.dto.BatchResult;
+import backend.backend.events.dto.EventIds;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventUpdate;
+import backend.backend.repositories.ClaimRepository;
+import backend.backend.repositories.EventTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch writes report every entry with the status its single call would get and write the valid ones together.
+ */
+@SpringBootTest
+class EventBatchServiceTest {
+
+    private static final long MISSING = 987_654_321L;
+
+    @Autowired
+    private EventBatchService batchService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventTombstoneRepository tombstoneRepository;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Test
+    void batchWritesReportEachEntry() {
+        BatchResult created = batchService.create(List.of(
+                request("Batch Breakfast", 1L, 10),
+                request(" ", 1L, 10),
+                request("Batch Lunch", MISSING, 10),
+                request("Batch Dinner", 1L, null)));
+        assertEquals(2, created.succeeded());
+        assertEquals(List.of(201, 400, 404, 201), statuses(created));
+        EventResponse breakfast = created.items().get(0).event();
+        EventResponse dinner = created.items().get(3).event();
+        assertEquals(10, breakfast.meals());
+        assertEquals(0, dinner.meals());
+
+        BatchGetResult read = batchService.get(new EventIds(List.of(dinner.id(), MISSING, breakfast.id())));
+        assertEquals(List.of(dinner.id(), breakfast.id()), read.events().stream().map(EventResponse::id).toList());
+        assertEquals(List.of(MISSING), read.missing());
+
+        BatchResult updated = batchService.update(Arrays.asList(
+                new EventUpdate(breakfast.id(), request("Batch Brunch", 1L, 4)),
+                new EventUpdate(dinner.id(), request("Batch Supper", 1L, 6)),
+                new EventUpdate(MISSING, request("Nobody", 1L, 1)),
+                new EventUpdate(breakfast.id(), request("Twice", 1L, 1)),
+                null));
+        assertEquals(List.of(200, 200, 404, 400, 400), statuses(updated));
+        assertEquals("Batch Brunch", eventService.get(breakfast.id()).title());
+        assertEquals(4, eventService.get(breakfast.id()).meals());
+        assertEquals(6, updated.items().get(1).event().meals());
+        assertEquals(6, eventService.get(dinner.id()).meals());
+
+        BatchResult deleted = batchService.delete(new EventIds(List.of(breakfast.id(), MISSING)));
+        assertEquals(List.of(204, 404), statuses(deleted));
+        assertNull(eventService.get(breakfast.id()));
+        assertTrue(tombstoneRepository.existsById(breakfast.id()));
+    }
+
+    @Test
+    void claimedEventsAreDeletedWithTheirClaimsAlikeSingleAndBatched() {
+        BatchResult created = batchService.create(List.of(
+                request("Claimed Batch Event", 1L, 5),
+                request("Unclaimed Batch Event", 1L, 5),
+                request("Claimed Single Event", 1L, 5)));
+        Long claimed = created.items().get(0).id();
+        Long unclaimed = created.items().get(1).id();
+        Long single = created.items().get(2).id();
+        Long batchClaim = claimService.claim(new ClaimRequest(claimed, null, 1L, 1)).id();
+        Long singleClaim = claimService.claim(new ClaimRequest(single, null, 1L, 1)).id();
+
+        BatchResult deleted = batchService.delete(new EventIds(List.of(claimed, unclaimed)));
+        assertEquals(List.of(204, 204), statuses(deleted));
+        eventService.delete(single);
+        for (Long id : List.of(claimed, unclaimed, single)) {
+            assertNull(eventService.get(id));
+            assertTrue(tombstoneRepository.existsById(id));
+        }
+        assertFalse(claimRepository.existsById(batchClaim));
+        assertFalse(claimRepository.existsById(singleClaim));
+    }
+
+    @Test
+    void overlongTitlesAreRejectedAlikeSingleAndBatched() {
+        String title = "x".repeat(EventSql.MAX_TITLE_LENGTH + 1);
+        assertEquals(List.of(400), statuses(batchService.create(List.of(request(title, 1L, 1)))));
+        assertThrows(IllegalArgumentException.class, () -> eventService.create(request(title, 1L, 1)));
+    }
+
+    @Test
+    void emptyOrOversizedBatchesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> batchService.get(new EventIds(List.of())));
+        assertThrows(IllegalArgumentException.class, () -> batchService.create(List.of()));
+        List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+        assertThrows(IllegalArgumentException.class, () -> batchService.delete(new EventIds(tooMany)));
+    }
+
+    private static List<Integer> statuses(BatchResult result) {
+        return result.items().stream().map(BatchResult.Item::status).toList();
+    }
+
+    private static EventRequest request(String title, Long organizationId, Integer meals) {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        return new EventRequest(title, null, organizationId, null, "Batch Hall", null, start, start.plusHours(1),
+                meals, "ACTIVE");
+    }
+}
@@ -0,0 +1,104 @@
+package backend.backend.events;
+
+import backend.backend.events.dto.EventPage;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pages cover every event exactly once in (start_time, event_id) order, even across equal start times.
+ */
+@SpringBootTest(properties = {
+        "events.page.max-size=5",
+        "spring.datasource.url=jdbc:h2:mem:eventpaging;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class EventPaginationTest {
+
+    private static final Comparator<EventResponse> ORDER =
+            Comparator.comparing(EventResponse::startsAt).thenComparing(EventResponse::id);
+
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void pagesWalkTiesOnStartTimeWithoutGapsOrRepeats() {
+        LocalDateTime tie = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MINUTES);
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(create("Tied Lunch " + i, tie).id());
+        }
+        created.add(create("Before The Tie", tie.minusHours(1)).id());
+        created.add(create("After The Tie", tie.plusHours(1)).id());
+
+        List<EventResponse> walked = walk(3);
+        Set<Long> seen = new HashSet<>();
+        for (EventResponse event : walked) {
+            assertTrue(seen.add(event.id()), "served twice: " + event.id());
+        }
+        assertTrue(seen.containsAll(created));
+        assertEquals(walked.stream().sorted(ORDER).toList(), walked);
+    }
+
+    @Test
+    void aCursorKeepsItsPlaceWhenEarlierEventsArrive() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 0; i < 4; i++) {
+            create("Late Supper " + i, start.plusMinutes(i));
+        }
+        List<EventResponse> all = walk(5);
+        EventPage first = eventService.list(null, null, 2);
+        assertNotNull(first.nextCursor());
+
+        // Sorts ahead of the cursor, so it must not push anything onto the later pages.
+        create("Early Breakfast", LocalDateTime.now().plusHours(1));
+        List<EventResponse> rest = new ArrayList<>();
+        for (String cursor = first.nextCursor(); cursor != null; ) {
+            EventPage page = eventService.list(null, cursor, 5);
+            rest.addAll(page.items());
+            cursor = page.nextCursor();
+        }
+        assertEquals(all.subList(2, all.size()).stream().map(EventResponse::id).toList(),
+                rest.stream().map(EventResponse::id).toList());
+    }
+
+    @Test
+    void limitsAreCappedAndBadInputRejected() {
+        for (int i = 0; i < 6; i++) {
+            create("Capped Dinner " + i, LocalDateTime.now().plusDays(2));
+        }
+        assertEquals(5, eventService.list(null, null, 500).items().size());
+        assertThrows(IllegalArgumentException.class, () -> eventService.list(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> eventService.list(null, "not-a-cursor", 5));
+    }
+
+    private List<EventResponse> walk(int pageSize) {
+        List<EventResponse> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            EventPage page = eventService.list(null, cursor, pageSize);
+            assertTrue(page.items().size() <= pageSize);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return walked;
+    }
+
+    private EventResponse create(String title, LocalDateTime start) {
+        return eventService.create(new EventRequest(title, null, 1L, null, "Paging Hall", null,
+                start, start.plusHours(1), 5, "ACTIVE"));
+    }
+}
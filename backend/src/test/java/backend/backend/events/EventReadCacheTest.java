@@ -0,0 +1,120 @@
+package backend.backend.events;
+
+import backend.backend.cache.BoundedCache;
+import backend.backend.cache.CacheStats;
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.entities.User;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cached event reads stay within their bounds and never outlive a committed write.
+ */
+@SpringBootTest(properties = {
+        "events.cache.max-entries=2",
+        "spring.datasource.url=jdbc:h2:mem:eventcache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class EventReadCacheTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventReadCache readCache;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void leastRecentlyReadEventsAreEvicted() {
+        EventResponse first = create("Evicted Brunch");
+        EventResponse second = create("Kept Brunch");
+        EventResponse third = create("Newest Brunch");
+        CacheStats before = readCache.eventStats();
+
+        eventService.get(first.id());
+        eventService.get(second.id());
+        eventService.get(third.id());
+        eventService.get(second.id());
+        eventService.get(first.id());
+
+        CacheStats after = readCache.eventStats();
+        assertEquals(1, after.hits() - before.hits());
+        assertEquals(4, after.misses() - before.misses());
+        assertTrue(after.evictions() - before.evictions() >= 2);
+        assertTrue(after.size() <= 2);
+    }
+
+    @Test
+    void writesReplaceCachedResponses() {
+        EventResponse event = create("Cached Chili");
+        eventService.get(event.id());
+        assertEquals(event.title(), eventService.get(event.id()).title());
+
+        LocalDateTime start = event.startsAt();
+        eventService.update(event.id(), new EventRequest("Renamed Chili", null, 1L, null, "Cache Hall", null,
+                start, start.plusHours(1), 8, "ACTIVE"));
+        assertEquals("Renamed Chili", eventService.get(event.id()).title());
+        assertEquals(8, eventService.get(event.id()).meals());
+
+        User claimer = userRepository.save(
+                new User("cache-" + System.nanoTime() + "@creighton.edu", "Cache Claimer", User.UserRole.STUDENT));
+        claimService.claim(new ClaimRequest(event.id(), null, claimer.getUserId(), 3));
+        assertEquals(5, eventService.get(event.id()).meals());
+        assertEquals(5, eventService.list("Renamed Chili", null, 10).items().stream()
+                .filter(listed -> listed.id().equals(event.id()))
+                .findFirst().orElseThrow().meals());
+
+        EventResponse deleted = create("Deleted Chili");
+        eventService.get(deleted.id());
+        eventService.delete(deleted.id());
+        assertNull(eventService.get(deleted.id()));
+    }
+
+    @Test
+    void aLoadThatRacedAWriteIsNotStored() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMinutes(5));
+
+        // The write fences and commits while the load is still reading the old value.
+        assertEquals("stale", cache.get(1L, key -> {
+            cache.fence(key);
+            cache.unfence(key);
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get(1L, key -> "fresh"));
+
+        cache.fence(2L);
+        assertEquals("during", cache.get(2L, key -> "during"));
+        assertEquals("still fenced", cache.get(2L, key -> "still fenced"));
+        cache.unfence(2L);
+        assertEquals("after", cache.get(2L, key -> "after"));
+        assertEquals("after", cache.get(2L, key -> "not loaded"));
+    }
+
+    @Test
+    void entriesExpireAfterTheirTimeToLive() throws InterruptedException {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, Duration.ofMillis(20));
+        cache.get(1L, key -> "first");
+        Thread.sleep(50);
+
+        assertEquals("second", cache.get(1L, key -> "second"));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    private EventResponse create(String title) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return eventService.create(new EventRequest(title, null, 1L, null, "Cache Hall", null,
+                start, start.plusHours(1), 8, "ACTIVE"));
+    }
+}
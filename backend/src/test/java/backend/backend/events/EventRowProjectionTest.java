@@ -0,0 +1,104 @@
+package backend.backend.events;
+
+import backend.backend.entities.Event;
+import backend.backend.entities.EventItem;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.dto.EventMapper;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.metrics.StatementCounter;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Responses built from flat rows match the ones built from entities, with meals summed by the database.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:eventrows;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class EventRowProjectionTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void mealsAreSummedOverEveryItem() {
+        Event event = save("Projection Feast", new int[][]{{10, 3}, {5, 5}, {7, 0}});
+
+        StatementCounter.start();
+        EventResponse response = eventService.get(event.getId());
+        int statements = StatementCounter.stop();
+
+        assertEquals(1, statements);
+        assertEquals(14, response.meals());
+        assertEquals(fromEntity(event.getId()), response);
+    }
+
+    @Test
+    void eventsWithoutItemsHaveNoMeals() {
+        Event event = save("Projection Talk", new int[0][]);
+
+        EventResponse response = eventService.get(event.getId());
+        assertEquals(0, response.meals());
+        assertEquals(fromEntity(event.getId()), response);
+    }
+
+    @Test
+    void listedRowsMatchTheEntityMapping() {
+        Event event = save("Projection Listing", new int[][]{{4, 1}, {6, 2}});
+
+        // Saved around the service, so the search index never saw it; list the keyset way.
+        EventResponse listed = eventService.list(null, null, 200).items().stream()
+                .filter(item -> item.id().equals(event.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(7, listed.meals());
+        assertEquals(fromEntity(event.getId()), listed);
+    }
+
+    private EventResponse fromEntity(Long id) {
+        return EventMapper.toResponse(eventRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Saves an active event with one item per {available, claimed} pair.
+     */
+    private Event save(String title, int[][] items) {
+        Organization organization = organizationRepository.save(
+                new Organization("Projection Org " + System.nanoTime(), Organization.OrgType.CLUB));
+        Location location = new Location(organization, "Projection Hall");
+        location.setBuilding("Projection Building");
+        location.setRoom("101");
+        location = locationRepository.save(location);
+        User creator = userRepository.save(
+                new User("projection-" + System.nanoTime() + "@creighton.edu", "Projector", User.UserRole.STAFF));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        Event event = new Event(organization, location, creator, title, start);
+        event.setDescription("Served from a projection");
+        event.setEndTime(start.plusHours(2));
+        event.setStatus(Event.EventStatus.ACTIVE);
+        for (int[] portions : items) {
+            EventItem item = new EventItem(event, "Dish", portions[0]);
+            item.setPortionsClaimed(portions[1]);
+            event.getEventItems().add(item);
+        }
+        return eventRepository.save(event);
+    }
+}
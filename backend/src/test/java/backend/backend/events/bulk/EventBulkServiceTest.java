@@ -0,0 +1,132 @@
+package backend.backend.events.bulk;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.BulkEvent;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.ImportResult;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports through the JDBC batch path and checks that what comes back out of the export matches.
+ */
+@SpringBootTest
+class EventBulkServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EventBulkServiceTest.class);
+
+    private static final int EVENTS = 20_000;
+
+    @Autowired
+    private EventBulkService bulkService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonImportRoundTripsThroughExport() throws Exception {
+        Location location = createLocation("Bulk Org", "Bulk Hall");
+        long orgId = location.getOrganization().getOrgId();
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < EVENTS; i++) {
+            ndjson.append("""
+                    {"title":"Bulk Lunch %d","organizationId":%d,"locationId":%d,"startsAt":"2026-11-01T12:00:00",\
+                    "status":"ACTIVE","items":[{"name":"Sandwiches","portionsAvailable":10,"portionsClaimed":3},\
+                    {"name":"Cookies","portionsAvailable":5,"perUserLimit":2}]}
+                    """.formatted(i, orgId, location.getLocationId()));
+        }
+        ndjson.append("{\"title\":\"No start\",\"organizationId\":").append(orgId).append("}\n");
+        ndjson.append("not json\n");
+
+        long started = System.nanoTime();
+        ImportResult result = bulkService.importNdjson(new BufferedReader(new StringReader(ndjson.toString())));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(EVENTS, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(EVENTS + 1, result.errors().get(0).line());
+        assertEquals("Start time is required", result.errors().get(0).message());
+        log.info("Imported {} events with {} items in {} ms", EVENTS, EVENTS * 2, elapsedMillis);
+
+        // The search index picks imported events up without a rebuild.
+        List<EventResponse> found = eventService.list("bulk lunch 12345", null, 5).items();
+        assertEquals("Bulk Lunch 12345", found.get(0).title());
+        assertEquals(12, found.get(0).meals());
+
+        StringWriter out = new StringWriter();
+        bulkService.exportNdjson(out);
+        List<BulkEvent> exported = out.toString().lines()
+                .map(line -> read(line))
+                .filter(event -> event.organizationId() == orgId)
+                .toList();
+        assertEquals(EVENTS, exported.size());
+        BulkEvent first = exported.get(0);
+        assertEquals("Bulk Lunch 0", first.title());
+        assertEquals(2, first.items().size());
+        assertEquals(3, first.items().get(0).portionsClaimed());
+        assertEquals(2, first.items().get(1).perUserLimit());
+        assertEquals(12, first.meals());
+    }
+
+    @Test
+    void csvImportHandlesQuotedFieldsAndReportsBadRows() throws Exception {
+        Location location = createLocation("Csv Org", "Csv Hall");
+        long orgId = location.getOrganization().getOrgId();
+
+        String csv = """
+                title,description,organizationId,locationName,startsAt,meals,status
+                "Pizza, Pasta & \"\"More\"\"","Line one
+                line two",%d,csv hall,2026-11-02T18:00:00,40,active
+                Bad Date,,%d,Csv Hall,tomorrow,10,
+                Wrong Place,,%d,Nowhere,2026-11-02T18:00:00,10,
+                """.formatted(orgId, orgId, orgId);
+
+        ImportResult result = bulkService.importCsv(new BufferedReader(new StringReader(csv)));
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(4, result.errors().get(0).line());
+        assertTrue(result.errors().get(1).message().contains("Unknown location"));
+
+        StringWriter out = new StringWriter();
+        bulkService.exportCsv(out);
+        assertTrue(out.toString().contains(
+                "\"Pizza, Pasta & \"\"More\"\"\",\"Line one\nline two\",%d,%d,".formatted(orgId, location.getLocationId())));
+    }
+
+    private Location createLocation(String organizationName, String locationName) {
+        Organization organization = organizationRepository.save(
+                new Organization(organizationName, Organization.OrgType.CLUB));
+        return locationRepository.save(new Location(organization, locationName));
+    }
+
+    private BulkEvent read(String line) {
+        try {
+            return objectMapper.readValue(line, BulkEvent.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package backend.backend.events.calendar;
+
+import backend.backend.entities.Event.EventStatus;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.events.dto.EventRow;
+import backend.backend.repositories.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Window queries should agree with the database and follow writes as they commit.
+ */
+@SpringBootTest
+class EventCalendarIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2100, 3, 1, 0, 0);
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventCalendarIndex calendarIndex;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void windowMatchesTheDatabaseAndFollowsWrites() {
+        assertTrue(calendarIndex.isReady());
+        EventResponse early = create("Early", DAY.plusHours(9).plusMinutes(45), "ACTIVE");
+        EventResponse sameHour = create("Same Hour", DAY.plusHours(9).plusMinutes(5), "ACTIVE");
+        EventResponse later = create("Later", DAY.plusHours(11), "ACTIVE");
+        create("Draft", DAY.plusHours(10), "DRAFT");
+        create("Next Day", DAY.plusDays(1).plusHours(9), "ACTIVE");
+
+        LocalDateTime from = DAY.plusHours(9);
+        LocalDateTime to = DAY.plusHours(12);
+        List<Long> expected = List.of(sameHour.id(), early.id(), later.id());
+        assertEquals(expected, ids(eventService.window("active", from, to, null)));
+        assertEquals(expected, transactionTemplate.execute(status ->
+                eventRepository.findRowsStartingBetween(EventStatus.ACTIVE, from, to, Limit.of(50))
+                        .stream().map(EventRow::id).toList()));
+        // The window is half-open, cutting through both the 9:00 and the 11:00 bucket.
+        assertEquals(List.of(early.id()), calendarIndex.window(EventStatus.ACTIVE,
+                DAY.plusHours(9).plusMinutes(10), DAY.plusHours(11), 50));
+        assertEquals(List.of(sameHour.id()), ids(eventService.window("ACTIVE", from, to, 1)));
+
+        eventService.update(later.id(), request("Later", DAY.plusHours(13), "ACTIVE"));
+        eventService.delete(sameHour.id());
+        assertEquals(List.of(early.id()), ids(eventService.window("ACTIVE", from, to, null)));
+        assertEquals(1, eventService.window("DRAFT", from, to, null).size());
+    }
+
+    @Test
+    void upcomingCoversTheNextHours() {
+        EventResponse soon = create("Soon", LocalDateTime.now().plusMinutes(30), "ACTIVE");
+        EventResponse tomorrow = create("Tomorrow", LocalDateTime.now().plusDays(1), "ACTIVE");
+
+        List<Long> upcoming = ids(eventService.upcoming(2, null, 200));
+        assertTrue(upcoming.contains(soon.id()));
+        assertFalse(upcoming.contains(tomorrow.id()));
+        assertThrows(IllegalArgumentException.class, () -> eventService.upcoming(0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.today("someday", null));
+    }
+
+    @Test
+    void rowsThatChangedBehindTheIndexAreLeftOut() {
+        LocalDateTime day = DAY.plusDays(7);
+        EventResponse kept = create("Kept", day.plusHours(9), "ACTIVE");
+        EventResponse drafted = create("Drafted", day.plusHours(10), "ACTIVE");
+        // A write the index has not heard about yet.
+        jdbcTemplate.update("update events set status = 'DRAFT' where event_id = ?", drafted.id());
+
+        assertEquals(List.of(kept.id(), drafted.id()), calendarIndex.window(EventStatus.ACTIVE, day, day.plusDays(1), 50));
+        assertEquals(List.of(kept.id()), ids(eventService.window("ACTIVE", day, day.plusDays(1), null)));
+    }
+
+    private EventResponse create(String title, LocalDateTime startsAt, String status) {
+        return eventService.create(request(title, startsAt, status));
+    }
+
+    private static EventRequest request(String title, LocalDateTime startsAt, String status) {
+        return new EventRequest(title, null, 1L, null, "Calendar Hall", null, startsAt, null, 5, status);
+    }
+
+    private static List<Long> ids(List<EventResponse> events) {
+        return events.stream().map(EventResponse::id).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package backend.backend.events.search;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventPage;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking, prefix matching and paging of indexed search, and renames of the names indexed with each event.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:eventsearch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class EventSearchIndexTest {
+
+    @Autowired
+    private EventSearchIndex index;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        EventResponse described = create("Harvest Supper", "Roasted zucchini and rice", "Ranking Hall", 1L);
+        EventResponse titled = create("Zucchini Bake", null, "Ranking Hall", 1L);
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(titled.id(), described.id()), index.search("zucchini", 10));
+    }
+
+    @Test
+    void prefixesMatchButRankBelowWholeWords() {
+        EventResponse prefixed = create("Quesadillas Galore", null, "Prefix Hall", 1L);
+        EventResponse whole = create("Quesadilla Night", null, "Prefix Hall", 1L);
+
+        assertEquals(List.of(whole.id(), prefixed.id()), index.search("quesadilla", 10));
+        assertEquals(2, index.search("quesa", 10).size());
+        // Every token must match.
+        assertEquals(List.of(whole.id()), index.search("quesa night", 10));
+    }
+
+    @Test
+    void searchCursorsStayWithTheIndex() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(create("Kohlrabi Tasting " + i, null, "Paging Hall", 1L).id());
+        }
+
+        EventPage first = eventService.list("kohlrabi", null, 2);
+        assertEquals(2, first.items().size());
+        assertNotNull(first.nextCursor());
+        EventPage second = eventService.list("kohlrabi", first.nextCursor(), 2);
+        assertEquals(1, second.items().size());
+        assertNull(second.nextCursor());
+
+        List<Long> seen = new ArrayList<>();
+        first.items().forEach(event -> seen.add(event.id()));
+        second.items().forEach(event -> seen.add(event.id()));
+        assertEquals(created.stream().sorted().toList(), seen.stream().sorted().toList());
+
+        // A ranked position means nothing to the keyset listing.
+        assertThrows(IllegalArgumentException.class, () -> eventService.list(null, first.nextCursor(), 2));
+    }
+
+    @Test
+    void renamesReindexTheirEvents() {
+        Organization organization = organizationRepository.save(
+                new Organization("Rutabaga Society", Organization.OrgType.CLUB));
+        EventResponse event = create("Root Vegetable Potluck", null, "Cellar Room", organization.getOrgId());
+        assertEquals(List.of(event.id()), index.search("rutabaga", 10));
+        assertEquals(List.of(event.id()), index.search("cellar", 10));
+
+        Organization renamedOrganization = organizationRepository.findById(organization.getOrgId()).orElseThrow();
+        renamedOrganization.setName("Parsnip Society");
+        organizationRepository.save(renamedOrganization);
+        Location renamedLocation = locationRepository.findById(event.locationId()).orElseThrow();
+        renamedLocation.setName("Attic Room");
+        locationRepository.save(renamedLocation);
+
+        assertEquals(List.of(), index.search("rutabaga", 10));
+        assertEquals(List.of(event.id()), index.search("parsnip", 10));
+        assertEquals(List.of(), index.search("cellar", 10));
+        assertEquals(List.of(event.id()), index.search("attic", 10));
+        // The event's own fields are still indexed.
+        assertEquals(List.of(event.id()), index.search("potluck", 10));
+    }
+
+    private EventResponse create(String title, String description, String location, Long organizationId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return eventService.create(new EventRequest(title, description, organizationId, null, location, null,
+                start, start.plusHours(1), 5, "ACTIVE"));
+    }
+}
@@ -0,0 +1,134 @@
+package backend.backend.events.stream;
+
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Every open stream gets each delta, and a client that hangs up is dropped on the next write.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "events.stream.flush-interval=50ms",
+        "events.stream.heartbeat-interval=100ms",
+        "spring.datasource.url=jdbc:h2:mem:eventstream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class EventStreamBroadcasterTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private EventStreamBroadcaster broadcaster;
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void deltasFanOutToEverySubscriber() throws Exception {
+        try (Stream first = open(); Stream second = open()) {
+            EventResponse event = eventService.create(request("Fan-out Lunch"));
+
+            String marker = "\"eventId\":" + event.id() + ",";
+            assertNotNull(first.await(marker), "first subscriber missed the delta");
+            assertNotNull(second.await(marker), "second subscriber missed the delta");
+        }
+    }
+
+    @Test
+    void disconnectedSubscribersAreDropped() throws Exception {
+        try (Stream staying = open()) {
+            int before = broadcaster.subscriberCount();
+            Stream leaving = open();
+            awaitSubscribers(before + 1);
+            leaving.close();
+
+            // Heartbeats keep writing to the closed connection until it fails.
+            awaitSubscribers(before);
+            EventResponse event = eventService.create(request("After Hang-up"));
+            assertNotNull(staying.await("\"eventId\":" + event.id() + ","), "remaining subscriber stopped receiving");
+        }
+    }
+
+    private void awaitSubscribers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (broadcaster.subscriberCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, broadcaster.subscriberCount());
+    }
+
+    private Stream open() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d/api/events/stream".formatted(port)))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        return new Stream(response.body());
+    }
+
+    private static EventRequest request(String title) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new EventRequest(title, null, 1L, null, "Stream Hall", null, start, start.plusHours(1), 5, "ACTIVE");
+    }
+
+    /**
+     * Reads an open stream line by line on a virtual thread.
+     */
+    private static final class Stream implements AutoCloseable {
+        private final InputStream body;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        Stream(InputStream body) {
+            this.body = body;
+            Thread.ofVirtual().start(() -> {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                    for (String line; (line = reader.readLine()) != null; ) {
+                        lines.add(line);
+                    }
+                } catch (IOException | UncheckedIOException ex) {
+                    // Closed by the test.
+                }
+            });
+        }
+
+        /**
+         * Returns the first line containing {@code text}, or null if none arrives within ten seconds.
+         */
+        String await(String text) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            for (long left; (left = deadline - System.nanoTime()) > 0; ) {
+                String line = lines.poll(left, TimeUnit.NANOSECONDS);
+                if (line != null && line.contains(text)) {
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws Exception {
+            body.close();
+        }
+    }
+}
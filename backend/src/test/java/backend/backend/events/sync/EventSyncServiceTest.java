@@ -0,0 +1,120 @@
+package backend.backend.events.sync;
+
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventChanges;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client that pages through a full sync and then polls sees exactly the later updates, claims and deletes.
+ */
+@SpringBootTest(properties = {
+        "events.changes.settle=0s",
+        "events.changes.touch-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:eventsync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+class EventSyncServiceTest {
+
+    @Autowired
+    private EventSyncService syncService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pollReturnsOnlyWhatChangedSinceTheToken() {
+        EventResponse edited = create("Sync Edited");
+        EventResponse claimed = create("Sync Claimed");
+        EventResponse removed = create("Sync Removed");
+        EventResponse untouched = create("Sync Untouched");
+
+        List<Long> seen = new ArrayList<>();
+        String token = null;
+        EventChanges page;
+        do {
+            page = syncService.changes(token, 2);
+            assertTrue(page.changed().size() <= 2);
+            assertTrue(page.deleted().isEmpty());
+            page.changed().forEach(event -> seen.add(event.id()));
+            token = page.next();
+        } while (page.hasMore());
+        assertTrue(seen.containsAll(List.of(edited.id(), claimed.id(), removed.id(), untouched.id())));
+        assertEquals(seen.size(), seen.stream().distinct().count());
+
+        EventChanges idle = syncService.changes(token, null);
+        assertTrue(idle.changed().isEmpty());
+        assertFalse(idle.hasMore());
+        token = idle.next();
+
+        eventService.update(edited.id(), request("Sync Edited Again"));
+        claimService.claim(new ClaimRequest(claimed.id(), null, 1L, 2));
+        syncService.touch();
+        eventService.delete(removed.id());
+
+        EventChanges changes = syncService.changes(token, null);
+        assertEquals(List.of(edited.id(), claimed.id()), changes.changed().stream().map(EventResponse::id).toList());
+        assertEquals("Sync Edited Again", changes.changed().get(0).title());
+        assertEquals(8, changes.changed().get(1).meals());
+        assertEquals(List.of(removed.id()), changes.deleted());
+        assertFalse(changes.hasMore());
+
+        EventChanges after = syncService.changes(changes.next(), null);
+        assertTrue(after.changed().isEmpty() && after.deleted().isEmpty());
+    }
+
+    @Test
+    void fullSyncOverEventsOlderThanTheRetentionFinishes() {
+        List<Long> archived = List.of(create("Sync Archive 1").id(), create("Sync Archive 2").id(),
+                create("Sync Archive 3").id());
+        jdbcTemplate.update("update events set updated_at = ?", LocalDateTime.now().minusDays(40));
+
+        List<Long> seen = new ArrayList<>();
+        String token = null;
+        EventChanges page;
+        do {
+            page = syncService.changes(token, 1);
+            page.changed().forEach(event -> seen.add(event.id()));
+            token = page.next();
+        } while (page.hasMore());
+        assertTrue(seen.containsAll(archived));
+
+        // The last row seen changed 40 days ago, but the client is current, so polling goes on.
+        assertTrue(syncService.changes(token, null).changed().isEmpty());
+        eventService.delete(archived.get(0));
+        assertEquals(List.of(archived.get(0)), syncService.changes(token, null).deleted());
+    }
+
+    @Test
+    void staleOrMalformedTokensAreRefused() {
+        LocalDateTime now = LocalDateTime.now();
+        String stale = new SyncToken(now.minusDays(40), 0L, now.minusDays(31)).encode();
+        assertThrows(SyncTokenExpiredException.class, () -> syncService.changes(stale, null));
+        assertThrows(IllegalArgumentException.class, () -> syncService.changes("not-a-token", null));
+    }
+
+    private EventResponse create(String title) {
+        return eventService.create(request(title));
+    }
+
+    private static EventRequest request(String title) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new EventRequest(title, null, 1L, null, "Sync Hall", null, start, start.plusHours(2), 10, "ACTIVE");
+    }
+}
@@ -0,0 +1,67 @@
+package backend.backend.impact;
+
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.claims.redemption.RedemptionService;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.impact.dto.ImpactSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counters should follow event, claim, redemption and delete writes, and a rebuild should land on the same numbers.
+ */
+@SpringBootTest
+class ImpactAggregatorTest {
+
+    @Autowired
+    private ImpactAggregator aggregator;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private RedemptionService redemptionService;
+
+    @Test
+    void countersFollowWritesAndMatchARebuild() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        EventResponse active = eventService.create(new EventRequest("Impact Lunch", null, 1L, null, "Impact Hall",
+                null, start, start.plusHours(2), 10, "ACTIVE"));
+        Long locationId = active.locationId();
+        eventService.create(new EventRequest("Impact Draft", null, 1L, locationId, null, null,
+                start, start.plusHours(2), 5, "DRAFT"));
+        aggregator.flush();
+        assertEquals(new ImpactSummary(1, 0, 10, 0, 0, 0), aggregator.location(locationId));
+
+        ClaimCreatedResponse claim = claimService.claim(new ClaimRequest(active.id(), null, 1L, 3));
+        claimService.claim(new ClaimRequest(active.id(), null, 1L, 1));
+        aggregator.flush();
+        assertEquals(new ImpactSummary(1, 0, 10, 4, 0, 0), aggregator.location(locationId));
+
+        redemptionService.redeem(claim.token());
+        redemptionService.flush();
+        aggregator.flush();
+        assertEquals(new ImpactSummary(1, 0, 10, 4, 3, 0.75), aggregator.location(locationId));
+        aggregator.rebuild();
+        assertEquals(new ImpactSummary(1, 0, 10, 4, 3, 0.75), aggregator.location(locationId));
+
+        EventResponse deleted = eventService.create(new EventRequest("Impact Dinner", null, 1L, locationId, null,
+                null, start, start.plusHours(2), 6, "ACTIVE"));
+        aggregator.flush();
+        assertEquals(new ImpactSummary(2, 0, 16, 4, 3, 0.75), aggregator.location(locationId));
+        eventService.delete(deleted.id());
+        aggregator.flush();
+        assertEquals(new ImpactSummary(1, 0, 10, 4, 3, 0.75), aggregator.location(locationId));
+        aggregator.rebuild();
+        assertEquals(new ImpactSummary(1, 0, 10, 4, 3, 0.75), aggregator.location(locationId));
+    }
+}
@@ -0,0 +1,117 @@
+package backend.backend.lifecycle;
+
+import backend.backend.claims.ClaimService;
+import backend.backend.claims.dto.ClaimCreatedResponse;
+import backend.backend.claims.dto.ClaimRequest;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sweeps should end due events in chunks, expire their open claims and invalidate cached reads.
+ */
+@SpringBootTest(properties = "lifecycle.chunk-size=2")
+class EventLifecycleSchedulerTest {
+
+    @Autowired
+    private EventLifecycleScheduler scheduler;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClaimService claimService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sweepEndsDueEventsAndExpiresTheirClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        EventResponse ended = create("Ended", now.plusHours(1), now.plusHours(2), "ACTIVE");
+        EventResponse openEnded = create("Open Ended", now.plusHours(1), null, "PUBLISHED");
+        EventResponse third = create("Third", now.plusHours(1), now.plusHours(2), "ACTIVE");
+        EventResponse future = create("Future", now.plusHours(1), now.plusHours(2), "ACTIVE");
+        EventResponse draft = create("Draft", now.plusHours(1), now.plusHours(2), "DRAFT");
+        ClaimCreatedResponse open = claimService.claim(new ClaimRequest(ended.id(), null, 1L, 1));
+        ClaimCreatedResponse cancelled = claimService.claim(new ClaimRequest(ended.id(), null, 1L, 1));
+        ClaimCreatedResponse unaffected = claimService.claim(new ClaimRequest(future.id(), null, 1L, 1));
+        claimService.cancel(cancelled.id());
+        assertEquals("ACTIVE", eventService.get(ended.id()).status());
+
+        // Move the first three into the past behind the service's back, as time passing would.
+        transactionTemplate.executeWithoutResult(status -> {
+            shift(ended.id(), now.minusHours(3), now.minusHours(1));
+            shift(openEnded.id(), now.minusHours(3), null);
+            shift(third.id(), now.minusHours(3), now.minusMinutes(1));
+            shift(draft.id(), now.minusHours(3), now.minusHours(1));
+        });
+
+        EventLifecycleScheduler.SweepResult result = scheduler.sweep(LocalDateTime.now());
+
+        assertTrue(result.eventsEnded() >= 3, "ended: " + result.eventsEnded());
+        assertTrue(result.claimsExpired() >= 1, "expired: " + result.claimsExpired());
+        assertEquals("ENDED", eventService.get(ended.id()).status());
+        assertEquals("ENDED", eventService.get(openEnded.id()).status());
+        assertEquals("ENDED", eventService.get(third.id()).status());
+        assertEquals("ACTIVE", eventService.get(future.id()).status());
+        assertEquals("DRAFT", eventService.get(draft.id()).status());
+        assertEquals("EXPIRED", claimService.get(open.id()).status());
+        assertEquals("CANCELLED", claimService.get(cancelled.id()).status());
+        assertEquals("CLAIMED", claimService.get(unaffected.id()).status());
+        assertEquals(0, scheduler.sweep(LocalDateTime.now()).eventsEnded());
+    }
+
+    @Test
+    void endsAnEventWhenItsDeadlineArrives() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        EventResponse event = create("Short", now.minusMinutes(5), now.plusSeconds(1), "ACTIVE");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"ENDED".equals(eventService.get(event.id()).status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals("ENDED", eventService.get(event.id()).status());
+    }
+
+    @Test
+    void anEventIsQueuedOnceHoweverOftenItIsOffered() {
+        LocalDateTime start = LocalDateTime.now().plusMinutes(1);
+        EventRequest request = new EventRequest("Requeued", null, 1L, null, "Lifecycle Hall", null,
+                start, start.plusMinutes(2), 10, "ACTIVE");
+        EventResponse event = eventService.create(request);
+        assertEquals(1, scheduler.queuedDeadlines(event.id()));
+
+        eventService.update(event.id(), request);
+        eventService.update(event.id(), request);
+        assertEquals(1, scheduler.queuedDeadlines(event.id()));
+
+        eventService.update(event.id(), new EventRequest("Requeued", null, 1L, null, "Lifecycle Hall", null,
+                start, start.plusMinutes(3), 10, "ACTIVE"));
+        assertEquals(1, scheduler.queuedDeadlines(event.id()));
+        eventService.update(event.id(), new EventRequest("Requeued", null, 1L, null, "Lifecycle Hall", null,
+                start, start.plusHours(3), 10, "ACTIVE"));
+        assertEquals(0, scheduler.queuedDeadlines(event.id()));
+    }
+
+    private EventResponse create(String title, LocalDateTime startsAt, LocalDateTime endsAt, String status) {
+        return eventService.create(new EventRequest(title, null, 1L, null, "Lifecycle Hall", null,
+                startsAt, endsAt, 10, status));
+    }
+
+    private void shift(Long id, LocalDateTime startsAt, LocalDateTime endsAt) {
+        eventRepository.findById(id).ifPresent(event -> {
+            event.setStartTime(startsAt);
+            event.setEndTime(endsAt);
+        });
+    }
+}
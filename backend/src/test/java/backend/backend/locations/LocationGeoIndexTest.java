@@ -0,0 +1,115 @@
+package backend.backend.locations;
+
+import backend.backend.entities.Event;
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.NearbyEvent;
+import backend.backend.repositories.EventRepository;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nearby queries should see locations as they are written and order events by distance.
+ */
+@SpringBootTest
+class LocationGeoIndexTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private LocationGeoIndex geoIndex;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void encodesTheReferenceGeohash() {
+        assertEquals("u4pruydqq", Geohash.encode(57.64911, 10.40744, 9));
+    }
+
+    @Test
+    void returnsUpcomingEventsWithinTheRadiusNearestFirst() {
+        assertTrue(geoIndex.isReady());
+        Organization organization = organizationRepository.save(new Organization("Geo Org", Organization.OrgType.CLUB));
+        User creator = userRepository.save(new User("geo@creighton.edu", "Geo User", User.UserRole.STAFF));
+        // Around a point on the equator, where one degree of longitude is about 111 km.
+        Location near = located(organization, "Near Hall", 0.0, 10.001);
+        Location far = located(organization, "Far Hall", 0.0, 10.02);
+        Location outside = located(organization, "Outside Hall", 0.0, 10.2);
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Event later = event(organization, near, creator, "Later Near", tomorrow.plusHours(2), Event.EventStatus.ACTIVE);
+        Event sooner = event(organization, near, creator, "Sooner Near", tomorrow, Event.EventStatus.ACTIVE);
+        Event farEvent = event(organization, far, creator, "Far", tomorrow, Event.EventStatus.ACTIVE);
+        event(organization, near, creator, "Cancelled", tomorrow, Event.EventStatus.CANCELLED);
+        event(organization, near, creator, "Past", LocalDateTime.now().minusDays(1), Event.EventStatus.ACTIVE);
+        event(organization, outside, creator, "Outside", tomorrow, Event.EventStatus.ACTIVE);
+
+        List<NearbyEvent> results = eventService.nearby(0.0, 10.0, 5.0, null);
+
+        assertEquals(List.of(sooner.getId(), later.getId(), farEvent.getId()),
+                results.stream().map(result -> result.event().id()).toList());
+        assertEquals(0.11, results.get(0).distanceKm(), 0.01);
+        assertEquals(2.22, results.get(2).distanceKm(), 0.01);
+        assertEquals(1, eventService.nearby(0.0, 10.0, 5.0, 1).size());
+    }
+
+    @Test
+    void followsCoordinateChanges() {
+        Organization organization = organizationRepository.save(new Organization("Move Org", Organization.OrgType.CLUB));
+        Location location = located(organization, "Moving Hall", -20.0, 30.0);
+        assertTrue(geoIndex.within(-20.0, 30.0, 1).containsKey(location.getLocationId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Location managed = locationRepository.findById(location.getLocationId()).orElseThrow();
+            managed.setLatitude(new BigDecimal("-21.000000"));
+        });
+        assertTrue(geoIndex.within(-20.0, 30.0, 1).isEmpty());
+        assertTrue(geoIndex.within(-21.0, 30.0, 1).containsKey(location.getLocationId()));
+
+        transactionTemplate.executeWithoutResult(status -> locationRepository.deleteById(location.getLocationId()));
+        assertTrue(geoIndex.within(-21.0, 30.0, 1).isEmpty());
+    }
+
+    @Test
+    void rejectsMissingOrInvalidCoordinates() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.nearby(null, 10.0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.nearby(91.0, 10.0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.nearby(0.0, 10.0, -1.0, null));
+    }
+
+    private Location located(Organization organization, String name, double latitude, double longitude) {
+        Location location = new Location(organization, name);
+        location.setLatitude(BigDecimal.valueOf(latitude));
+        location.setLongitude(BigDecimal.valueOf(longitude));
+        return locationRepository.save(location);
+    }
+
+    private Event event(Organization organization, Location location, User creator, String title,
+                        LocalDateTime startsAt, Event.EventStatus status) {
+        Event event = new Event(organization, location, creator, title, startsAt);
+        event.setStatus(status);
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,87 @@
+package backend.backend.locations;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent event creates naming the same new location must end up sharing one row.
+ */
+@SpringBootTest
+class LocationUpserterTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void concurrentCreatesShareOneNewLocation() throws Exception {
+        Organization organization = organizationRepository.save(new Organization("Upsert Org", Organization.OrgType.CLUB));
+        User creator = userRepository.save(new User("upsert@creighton.edu", "Upsert User", User.UserRole.STAFF));
+        double upsertsBefore = registry.counter("locations.upserts").count();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<EventResponse>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                // Vary the case: names match case-insensitively.
+                String name = i % 2 == 0 ? "Brand New Hall" : "brand new hall";
+                EventRequest request = new EventRequest("Upsert " + i, null, organization.getOrgId(), null,
+                        name, creator.getUserId(), LocalDateTime.now().plusDays(1), null, 5, "ACTIVE");
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return eventService.create(request);
+                }));
+            }
+            start.countDown();
+            Set<String> locations = new HashSet<>();
+            for (Future<EventResponse> future : futures) {
+                locations.add(future.get().locationDetails());
+            }
+            assertEquals(1, locations.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> ids = locationRepository.findAll().stream()
+                .filter(location -> location.getOrganization().getOrgId().equals(organization.getOrgId()))
+                .map(Location::getLocationId)
+                .toList();
+        assertEquals(1, ids.size());
+        double upserts = registry.counter("locations.upserts").count() - upsertsBefore;
+        assertTrue(upserts >= 1 && upserts < THREADS, "upserts: " + upserts);
+    }
+}
@@ -0,0 +1,110 @@
+package backend.backend.metrics;
+
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests are timed and their statements counted per endpoint, and the cache, pool and Hibernate meters exist.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class MetricsTest {
+
+    private static final String EVENT_URI = "/api/events/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void requestsAreTimedAndTheirStatementsCounted() throws Exception {
+        EventResponse event = create("Metered Lunch");
+        long timedBefore = timed();
+        long countedBefore = counted();
+        double statementsBefore = statements();
+
+        // The first read goes to the database; the second is served from the cache.
+        mockMvc.perform(get("/api/events/{id}", event.id())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/events/{id}", event.id())).andExpect(status().isOk());
+
+        assertEquals(2, timed() - timedBefore);
+        assertEquals(2, counted() - countedBefore);
+        assertEquals(1, statements() - statementsBefore);
+    }
+
+    @Test
+    void cacheHitsAreCounted() throws Exception {
+        EventResponse event = create("Metered Dinner");
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+
+        mockMvc.perform(get("/api/events/{id}", event.id())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/events/{id}", event.id())).andExpect(status().isOk());
+
+        assertEquals(1, cacheGets("hit") - hitsBefore);
+        assertEquals(1, cacheGets("miss") - missesBefore);
+        assertNotNull(registry.find("cache.hit.ratio").tag("cache", "events").gauge());
+    }
+
+    @Test
+    void poolAndHibernateMetersAreBound() {
+        create("Metered Breakfast");
+
+        assertNotNull(registry.find("hikaricp.connections.acquire").timer());
+        assertNotNull(registry.find("hikaricp.connections.active").gauge());
+        FunctionCounter inserts = registry.find("hibernate.entities.inserts").functionCounter();
+        assertNotNull(inserts);
+        assertTrue(inserts.count() > 0);
+        assertNotNull(registry.find("hibernate.collections.fetches").functionCounter());
+    }
+
+    private long timed() {
+        Timer timer = registry.find("http.server.requests").tag("uri", EVENT_URI).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long counted() {
+        DistributionSummary summary = statementSummary();
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double statements() {
+        DistributionSummary summary = statementSummary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private DistributionSummary statementSummary() {
+        return registry.find("http.server.requests.statements").tag("method", "GET").tag("uri", EVENT_URI).summary();
+    }
+
+    private double cacheGets(String result) {
+        return registry.get("cache.gets").tag("cache", "events").tag("result", result).functionCounter().count();
+    }
+
+    private EventResponse create(String title) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return eventService.create(new EventRequest(title, null, 1L, null, "Metrics Hall", null,
+                start, start.plusHours(1), 5, "ACTIVE"));
+    }
+}
@@ -0,0 +1,78 @@
+package backend.backend.reference;
+
+import backend.backend.entities.Location;
+import backend.backend.entities.Organization;
+import backend.backend.entities.User;
+import backend.backend.events.EventService;
+import backend.backend.events.dto.EventRequest;
+import backend.backend.events.dto.EventResponse;
+import backend.backend.metrics.StatementCounter;
+import backend.backend.repositories.LocationRepository;
+import backend.backend.repositories.OrganizationRepository;
+import backend.backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Event writes should resolve their references from memory, and reference edits must still show up.
+ */
+@SpringBootTest
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ReferenceDataCache references;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void warmCreateOnlyInsertsTheEventAndItsItem() {
+        Organization organization = organizationRepository.save(new Organization("Cache Org", Organization.OrgType.CLUB));
+        Location location = new Location(organization, "Cache Hall");
+        location.setBuilding("Cache Building");
+        location = locationRepository.save(location);
+        User creator = userRepository.save(new User("cache@creighton.edu", "Cache User", User.UserRole.STAFF));
+        EventRequest request = new EventRequest("Cached Lunch", null, organization.getOrgId(), location.getLocationId(),
+                null, creator.getUserId(), LocalDateTime.now().plusDays(1), null, 20, "ACTIVE");
+        eventService.create(request);
+
+        // Counted on this thread only, so background flushers cannot skew it.
+        StatementCounter.start();
+        EventResponse response = eventService.create(request);
+        int statements = StatementCounter.stop();
+
+        assertEquals(2, statements);
+        assertEquals("Cache Org", response.organizationName());
+        assertEquals("Cache Hall, Cache Building", response.locationDetails());
+        assertEquals("Cache User", response.createdByName());
+        assertEquals(20, response.meals());
+    }
+
+    @Test
+    void committedRenameReplacesTheCachedLocation() {
+        Organization organization = organizationRepository.save(new Organization("Rename Org", Organization.OrgType.CLUB));
+        Long locationId = locationRepository.save(new Location(organization, "Old Hall")).getLocationId();
+        assertEquals("Old Hall", references.location(locationId).orElseThrow().name());
+        assertEquals(locationId, references.location(organization.getOrgId(), "old hall").orElseThrow().id());
+
+        transactionTemplate.executeWithoutResult(status ->
+                locationRepository.findById(locationId).orElseThrow().setName("New Hall"));
+
+        assertEquals("New Hall", references.location(locationId).orElseThrow().name());
+        assertEquals(locationId, references.location(organization.getOrgId(), "NEW HALL").orElseThrow().id());
+        assertEquals(true, references.location(organization.getOrgId(), "Old Hall").isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package backend.backend.synthetic;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The generator runs at startup under the {@code synthetic} profile; its rows must add up and respect the same
+ * invariants as claims made through the API.
+ */
+@SpringBootTest(properties = {
+        // Its own database, so the other test contexts keep their sample data.
+        "spring.datasource.url=jdbc:h2:mem:synthetic;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "synthetic.organizations=5",
+        "synthetic.locations=12",
+        "synthetic.users=200",
+        "synthetic.events=300",
+        "synthetic.batch-size=64",
+        "synthetic.exit-when-done=false"})
+@ActiveProfiles("synthetic")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesRequestedSizes() {
+        assertEquals(5, count("select count(*) from organizations"));
+        assertEquals(12, count("select count(*) from locations"));
+        assertEquals(200, count("select count(*) from users"));
+        assertEquals(300, count("select count(*) from events"));
+        assertEquals(0, count("""
+                select count(*) from organizations o
+                where not exists (select 1 from locations l where l.org_id = o.org_id)"""));
+        assertEquals(0, count("""
+                select count(*) from events e join locations l on l.location_id = e.location_id
+                where l.org_id <> e.org_id"""));
+    }
+
+    @Test
+    void claimsMatchTheirItems() {
+        assertEquals(0, count("""
+                select count(*) from event_items i
+                where i.portions_claimed > i.portions_available
+                   or i.portions_claimed <> (select coalesce(sum(c.quantity), 0) from claims c
+                                             where c.event_item_id = i.event_item_id and c.status <> 'CANCELLED')"""));
+        assertEquals(0, count("""
+                select count(*) from claims c join events e on e.event_id = c.event_id
+                where e.status not in ('ACTIVE', 'ENDED')
+                   or (e.status = 'ACTIVE' and c.status not in ('CLAIMED', 'CANCELLED'))"""));
+        assertEquals(0, count("""
+                select count(*) from (select event_item_id, user_id from claims
+                                      group by event_item_id, user_id having count(*) > 1) duplicates"""));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
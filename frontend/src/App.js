@@ -284,6 +284,7 @@ const ACCOUNTS_KEY = "c4g-accounts";
 const App = () => {
   const [activeTab, setActiveTab] = useState("Active Events");
   const [events, setEvents] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [organizations, setOrganizations] = useState([]);
   const [selectedEvent, setSelectedEvent] = useState(null);
   const [showCreateModal, setShowCreateModal] = useState(false);
@@ -305,12 +306,15 @@ const App = () => {
   const [registerForm, setRegisterForm] = useState({ username: "", password: "" });
   const [authMessage, setAuthMessage] = useState("");
 
-  const fetchEvents = async () => {
+  // The list endpoint is keyset-paginated; passing a cursor appends the next page.
+  const fetchEvents = async (cursor = null) => {
     try {
-      const response = await fetch(`${API_BASE}/events`);
+      const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+      const response = await fetch(`${API_BASE}/events${query}`);
       if (!response.ok) throw new Error("Failed to fetch events");
       const data = await response.json();
-      setEvents(data);
+      setEvents((prev) => (cursor ? [...prev, ...data.items] : data.items));
+      setNextCursor(data.nextCursor);
     } catch (error) {
       console.error("Error fetching events:", error);
     }
@@ -332,6 +336,62 @@ const App = () => {
     fetchOrganizations();
   }, []);
 
+  // Live availability: the backend pushes coalesced per-event deltas instead of us re-polling the list.
+  useEffect(() => {
+    const source = new EventSource(`${API_BASE}/events/stream`);
+
+    source.addEventListener("deltas", async (message) => {
+      const deltas = JSON.parse(message.data);
+      const removed = new Set(deltas.filter((d) => d.deleted).map((d) => d.eventId));
+      const changed = new Map(deltas.filter((d) => !d.deleted).map((d) => [d.eventId, d]));
+      let known = new Set();
+
+      setEvents((prev) => {
+        known = new Set(prev.map((e) => e.id));
+        return prev
+          .filter((e) => !removed.has(e.id))
+          .map((e) => {
+            const delta = changed.get(e.id);
+            return delta
+              ? { ...e, meals: delta.meals, status: delta.status, statusLabel: delta.statusLabel }
+              : e;
+          });
+      });
+      setSelectedEvent((prev) => {
+        if (!prev) return prev;
+        if (removed.has(prev.id)) return null;
+        const delta = changed.get(prev.id);
+        return delta
+          ? { ...prev, meals: delta.meals, status: delta.status, statusLabel: delta.statusLabel }
+          : prev;
+      });
+
+      // Events we have never seen (just created) need their full details once.
+      const unknown = [...changed.keys()].filter((id) => !known.has(id));
+      for (const id of unknown) {
+        try {
+          const response = await fetch(`${API_BASE}/events/${id}`);
+          if (!response.ok) continue;
+          const created = await response.json();
+          setEvents((prev) =>
+            prev.some((e) => e.id === created.id)
+              ? prev
+              : [...prev, created].sort(
+                  (a, b) => (a.startsAt || "").localeCompare(b.startsAt || "") || a.id - b.id
+                )
+          );
+        } catch (error) {
+          console.error("Error fetching new event:", error);
+        }
+      }
+    });
+
+    // We fell too far behind for deltas to be useful; start over from the first page.
+    source.addEventListener("resync", () => fetchEvents());
+
+    return () => source.close();
+  }, []);
+
   useEffect(() => {
     if (userRole) {
       localStorage.setItem(ROLE_KEY, userRole);
@@ -463,7 +523,6 @@ const App = () => {
       });
 
       if (!response.ok) throw new Error("Failed to update event");
-      await fetchEvents();
     } catch (error) {
       console.error("Error marking event as completed:", error);
     }
@@ -505,7 +564,6 @@ const App = () => {
       });
 
       if (!response.ok) throw new Error("Failed to delete event");
-      await fetchEvents();
     } catch (error) {
       console.error("Error deleting event:", error);
     }
@@ -560,6 +618,17 @@ const App = () => {
               )}
             </div>
 
+            {nextCursor && (
+              <div className="load-more-container">
+                <button
+                  onClick={() => fetchEvents(nextCursor)}
+                  className="load-more-button"
+                >
+                  Load more events
+                </button>
+              </div>
+            )}
+
             {selectedEvent && (
               <div className="modal-overlay">
                 <div className="event-details-modal">